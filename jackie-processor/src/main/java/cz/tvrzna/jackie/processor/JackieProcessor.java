@@ -0,0 +1,644 @@
+package cz.tvrzna.jackie.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * The Class JackieProcessor. Generates codec for each class annotated by
+ * <code>@JackieSerializable</code> and registers it as service of
+ * <code>cz.tvrzna.jackie.GeneratedCodec</code>. Codec is generated into
+ * package of annotated class, so it reads and writes fields, that are not
+ * private, directly. Names, types and adapters of such fields are written
+ * into codec, so neither codec nor fields are looked up by reflection at
+ * runtime. Other fields are handled by accessors, that use reflection.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+@SupportedAnnotationTypes({ JackieProcessor.SERIALIZABLE, JackieProcessor.ADAPTER, JackieProcessor.PROPERTY })
+public class JackieProcessor extends AbstractProcessor
+{
+	protected static final String SERIALIZABLE = "cz.tvrzna.jackie.annotations.JackieSerializable";
+	protected static final String ADAPTER = "cz.tvrzna.jackie.annotations.JackieAdapter";
+	protected static final String PROPERTY = "cz.tvrzna.jackie.annotations.JackieProperty";
+	private static final String SERVICE = "META-INF/services/cz.tvrzna.jackie.GeneratedCodec";
+	private static final String SUFFIX = "JackieCodec";
+
+	private final Set<String> codecs = new TreeSet<>();
+	private final List<Element> originatingElements = new ArrayList<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		for (TypeElement annotation : annotations)
+		{
+			// Field annotations are claimed only to be read by generated codecs
+			if (!annotation.getQualifiedName().contentEquals(SERIALIZABLE))
+			{
+				continue;
+			}
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+			{
+				if (isValid(element))
+				{
+					TypeElement type = (TypeElement) element;
+					try
+					{
+						codecs.add(generate(type));
+						originatingElements.add(type);
+					}
+					catch (IOException e)
+					{
+						error("Codec could not be generated: " + e.getMessage(), type);
+					}
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !codecs.isEmpty())
+		{
+			writeServices();
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if element is class, that codec could be generated for.
+	 *
+	 * @param element
+	 *          the element
+	 * @return true, if is valid
+	 */
+	private boolean isValid(Element element)
+	{
+		if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT))
+		{
+			error("@JackieSerializable is applicable only to class, that is not abstract.", element);
+			return false;
+		}
+		for (Element current = element; current.getKind().isClass(); current = current.getEnclosingElement())
+		{
+			Set<Modifier> modifiers = current.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE) || (current.getEnclosingElement().getKind().isClass() && !modifiers.contains(Modifier.STATIC)))
+			{
+				error("@JackieSerializable class has to be top level or static nested class, that is not private.", element);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Generates source of codec. Name, type, type arguments and adapter of each
+	 * field, that codec accesses directly, are written as constants, so codec
+	 * does not use reflection. Fields, that are not accessible from package of
+	 * class, are declared only by name and accessed by reflection.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the qualified name of codec
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private String generate(TypeElement type) throws IOException
+	{
+		String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String typeName = type.getQualifiedName().toString();
+		String codecName = typeName.substring(pkg.isEmpty() ? 0 : pkg.length() + 1).replace('.', '_') + SUFFIX;
+		String qualifiedName = pkg.isEmpty() ? codecName : pkg + "." + codecName;
+		List<VariableElement> fields = getFields(type);
+		List<String> declarations = new ArrayList<>();
+		for (VariableElement field : fields)
+		{
+			String declaration = getDeclaration(field, pkg);
+			if (declaration == null)
+			{
+				note("Field " + field.getSimpleName() + " is not accessible from codec, it is accessed by reflection.", field);
+			}
+			declarations.add(declaration);
+		}
+
+		try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()))
+		{
+			if (!pkg.isEmpty())
+			{
+				out.println("package " + pkg + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Codec of {@link " + typeName + "} generated by jackie-processor.");
+			out.println(" */");
+			out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+			out.println("public final class " + codecName + " extends cz.tvrzna.jackie.GeneratedCodec");
+			out.println("{");
+
+			out.println("\tpublic " + codecName + "()");
+			out.println("\t{");
+			out.println("\t\tsuper(" + typeName + ".class, " + fields.size() + ");");
+			for (int i = 0; i < fields.size(); i++)
+			{
+				String name = processingEnv.getElementUtils().getConstantExpression(getName(fields.get(i)));
+				String declaration = declarations.get(i);
+				out.println("\t\tdeclare(" + i + ", " + name + (declaration != null ? ", " + declaration : "") + ");");
+			}
+			out.println("\t}");
+
+			if (hasDefaultConstructor(type))
+			{
+				out.println();
+				out.println("\t@Override");
+				out.println("\tprotected Object newInstance()");
+				out.println("\t{");
+				out.println("\t\treturn new " + typeName + "();");
+				out.println("\t}");
+			}
+			else
+			{
+				note("Class has no constructor without parameters accessible from codec, it is instantiated by reflection.", type);
+			}
+
+			out.println();
+			out.println("\t@Override");
+			out.println("\tprotected int writeFields(Object object, cz.tvrzna.jackie.Output out, cz.tvrzna.jackie.Config config, int indent) throws Exception");
+			out.println("\t{");
+			out.println("\t\t" + typeName + " value = (" + typeName + ") object;");
+			out.println("\t\tint count = 0;");
+			for (int i = 0; i < fields.size(); i++)
+			{
+				VariableElement field = fields.get(i);
+				String method = declarations.get(i) != null ? getWriteMethod(field) : null;
+				String argument = method != null ? "value." + field.getSimpleName() : "object";
+				out.println("\t\tcount = " + (method != null ? method : "writeProperty") + "(out, config, indent, count, " + i + ", " + argument + ");");
+			}
+			out.println("\t\treturn count;");
+			out.println("\t}");
+
+			out.println();
+			out.println("\t@Override");
+			out.println("\tprotected void readField(Object object, int index, cz.tvrzna.jackie.Tokenizer tokenizer, cz.tvrzna.jackie.Config config) throws Exception");
+			out.println("\t{");
+			out.println("\t\t" + typeName + " value = (" + typeName + ") object;");
+			out.println("\t\tswitch (index)");
+			out.println("\t\t{");
+			for (int i = 0; i < fields.size(); i++)
+			{
+				VariableElement field = fields.get(i);
+				if (declarations.get(i) == null)
+				{
+					continue;
+				}
+				String read = getReadExpression(field, i);
+				out.println("\t\t\tcase " + i + ":");
+				if (read != null)
+				{
+					out.println("\t\t\t\tvalue." + field.getSimpleName() + " = " + read + ";");
+				}
+				else
+				{
+					String wrapper = processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(field.asType().getKind())).getQualifiedName()
+							.toString();
+					out.println("\t\t\t\tObject value" + i + " = readValue(tokenizer, config, " + i + ");");
+					out.println("\t\t\t\tif (value" + i + " != null)");
+					out.println("\t\t\t\t{");
+					out.println("\t\t\t\t\tvalue." + field.getSimpleName() + " = (" + wrapper + ") value" + i + ";");
+					out.println("\t\t\t\t}");
+				}
+				out.println("\t\t\t\tbreak;");
+			}
+			out.println("\t\t\tdefault:");
+			out.println("\t\t\t\treadProperty(object, index, tokenizer, config);");
+			out.println("\t\t\t\tbreak;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println("}");
+		}
+		return qualifiedName;
+	}
+
+	/**
+	 * Gets the arguments of declaration of field, that follow its name. Those
+	 * are class literals of its type and of its first two type arguments and
+	 * instance of its adapter.
+	 *
+	 * @param field
+	 *          the field
+	 * @param pkg
+	 *          the package of codec
+	 * @return the declaration or <code>null</code>, if field has to be
+	 *         accessed by reflection
+	 */
+	private String getDeclaration(VariableElement field, String pkg)
+	{
+		if (!isDirect(field, pkg))
+		{
+			return null;
+		}
+		StringBuilder result = new StringBuilder(getTypeName(processingEnv.getTypeUtils().erasure(field.asType()))).append(".class");
+		List<? extends TypeMirror> arguments = field.asType().getKind() == TypeKind.DECLARED ? ((DeclaredType) field.asType()).getTypeArguments()
+				: Collections.<TypeMirror> emptyList();
+		for (int i = 0; i < 2; i++)
+		{
+			TypeMirror argument = i < arguments.size() ? arguments.get(i) : null;
+			if (argument != null && (argument.getKind() == TypeKind.DECLARED || argument.getKind() == TypeKind.ARRAY))
+			{
+				TypeMirror erasure = processingEnv.getTypeUtils().erasure(argument);
+				if (!isAccessible(erasure, pkg))
+				{
+					return null;
+				}
+				result.append(", ").append(getTypeName(erasure)).append(".class");
+			}
+			else
+			{
+				result.append(", null");
+			}
+		}
+		TypeMirror adapter = getAdapter(field);
+		if (adapter == null)
+		{
+			result.append(", null");
+		}
+		else if (isAccessible(adapter, pkg) && hasDefaultConstructor((TypeElement) ((DeclaredType) adapter).asElement(), pkg))
+		{
+			result.append(", new ").append(getTypeName(adapter)).append("()");
+		}
+		else
+		{
+			return null;
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Gets the name of field, that is used in JSON.
+	 *
+	 * @param field
+	 *          the field
+	 * @return the name
+	 */
+	private String getName(VariableElement field)
+	{
+		Object name = getAnnotationValue(field, PROPERTY);
+		return name != null ? (String) name : field.getSimpleName().toString();
+	}
+
+	/**
+	 * Gets the adapter declared by field.
+	 *
+	 * @param field
+	 *          the field
+	 * @return the adapter or <code>null</code>
+	 */
+	private TypeMirror getAdapter(VariableElement field)
+	{
+		return (TypeMirror) getAnnotationValue(field, ADAPTER);
+	}
+
+	/**
+	 * Gets the value of annotation of <code>element</code>.
+	 *
+	 * @param element
+	 *          the element
+	 * @param annotationName
+	 *          the qualified name of annotation
+	 * @return the value or <code>null</code>, if element is not annotated
+	 */
+	private Object getAnnotationValue(Element element, String annotationName)
+	{
+		for (AnnotationMirror annotation : element.getAnnotationMirrors())
+		{
+			if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+			{
+				for (Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet())
+				{
+					if (entry.getKey().getSimpleName().contentEquals("value"))
+					{
+						return entry.getValue().getValue();
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the fields in order of declaration, starting with class itself and
+	 * continuing with its superclasses. Static, final and hidden fields are
+	 * skipped, same as at runtime.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the fields
+	 */
+	private List<VariableElement> getFields(TypeElement type)
+	{
+		List<VariableElement> result = new ArrayList<>();
+		Set<String> fieldNames = new HashSet<>();
+
+		TypeElement current = type;
+		while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName()))
+		{
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements()))
+			{
+				Set<Modifier> modifiers = field.getModifiers();
+				if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.FINAL) && fieldNames.add(field.getSimpleName().toString()))
+				{
+					result.add(field);
+				}
+			}
+			TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if type has constructor without parameters, that is accessible
+	 * from its package.
+	 *
+	 * @param type
+	 *          the type
+	 * @return true, if type has default constructor
+	 */
+	private boolean hasDefaultConstructor(TypeElement type)
+	{
+		return hasDefaultConstructor(type, processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString());
+	}
+
+	/**
+	 * Checks if type could be instantiated by constructor without parameters
+	 * from codec in <code>pkg</code>.
+	 *
+	 * @param type
+	 *          the type
+	 * @param pkg
+	 *          the package of codec
+	 * @return true, if type has default constructor
+	 */
+	private boolean hasDefaultConstructor(TypeElement type, String pkg)
+	{
+		if (type.getModifiers().contains(Modifier.ABSTRACT) || (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)))
+		{
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+		{
+			if (constructor.getParameters().isEmpty())
+			{
+				return isAccessible(constructor, pkg);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if field and its type are accessible from codec in
+	 * <code>pkg</code>.
+	 *
+	 * @param field
+	 *          the field
+	 * @param pkg
+	 *          the package of codec
+	 * @return true, if is direct
+	 */
+	private boolean isDirect(VariableElement field, String pkg)
+	{
+		return isAccessible(field, pkg) && isAccessible(processingEnv.getTypeUtils().erasure(field.asType()), pkg);
+	}
+
+	/**
+	 * Checks if erased type could be named in codec in <code>pkg</code>.
+	 *
+	 * @param type
+	 *          the type
+	 * @param pkg
+	 *          the package of codec
+	 * @return true, if is accessible
+	 */
+	private boolean isAccessible(TypeMirror type, String pkg)
+	{
+		while (type.getKind() == TypeKind.ARRAY)
+		{
+			type = ((ArrayType) type).getComponentType();
+		}
+		if (type.getKind() != TypeKind.DECLARED)
+		{
+			return type.getKind().isPrimitive();
+		}
+		for (Element current = ((DeclaredType) type).asElement(); current.getKind().isClass() || current.getKind().isInterface(); current = current
+				.getEnclosingElement())
+		{
+			if (!isAccessible(current, pkg))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if element is accessible from codec in <code>pkg</code>.
+	 *
+	 * @param element
+	 *          the element
+	 * @param pkg
+	 *          the package of codec
+	 * @return true, if is accessible
+	 */
+	private boolean isAccessible(Element element, String pkg)
+	{
+		Set<Modifier> modifiers = element.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE))
+		{
+			return false;
+		}
+		return modifiers.contains(Modifier.PUBLIC) || processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().contentEquals(pkg);
+	}
+
+	/**
+	 * Gets the name of codec method, that writes value of field.
+	 *
+	 * @param field
+	 *          the field
+	 * @return the name
+	 */
+	private String getWriteMethod(VariableElement field)
+	{
+		if (getAdapter(field) != null)
+		{
+			return "writeValue";
+		}
+		switch (field.asType().getKind())
+		{
+			case INT:
+				return "writeInt";
+			case LONG:
+				return "writeLong";
+			case DOUBLE:
+				return "writeDouble";
+			case FLOAT:
+				return "writeFloat";
+			case BOOLEAN:
+				return "writeBoolean";
+			case CHAR:
+				return "writeChar";
+			default:
+				return "writeValue";
+		}
+	}
+
+	/**
+	 * Gets the expression, that reads value of field.
+	 *
+	 * @param field
+	 *          the field
+	 * @param index
+	 *          the index
+	 * @return the expression or <code>null</code>, if primitive field is read
+	 *         as boxed value, that is assigned only when it is not
+	 *         <code>null</code>
+	 */
+	private String getReadExpression(VariableElement field, int index)
+	{
+		TypeMirror type = processingEnv.getTypeUtils().erasure(field.asType());
+		String current = "value." + field.getSimpleName();
+		switch (type.getKind())
+		{
+			case DECLARED:
+			case ARRAY:
+				return "(" + getTypeName(type) + ") readValue(tokenizer, config, " + index + ")";
+			case INT:
+				return getAdapter(field) != null ? null : "readInt(tokenizer, config, " + index + ", " + current + ")";
+			case LONG:
+				return getAdapter(field) != null ? null : "readLong(tokenizer, config, " + index + ", " + current + ")";
+			case DOUBLE:
+				return getAdapter(field) != null ? null : "readDouble(tokenizer, config, " + index + ", " + current + ")";
+			case FLOAT:
+				return getAdapter(field) != null ? null : "readFloat(tokenizer, config, " + index + ", " + current + ")";
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Gets the name of erased type, that is usable in source.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the type name
+	 */
+	private String getTypeName(TypeMirror type)
+	{
+		if (type.getKind() == TypeKind.ARRAY)
+		{
+			return getTypeName(((ArrayType) type).getComponentType()) + "[]";
+		}
+		else if (type.getKind() == TypeKind.DECLARED)
+		{
+			return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+		}
+		return type.getKind().name().toLowerCase();
+	}
+
+	/**
+	 * Writes service file with all generated codecs. Codecs registered by
+	 * previous compilation are kept, so incremental build does not lose them.
+	 */
+	private void writeServices()
+	{
+		try
+		{
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+			try (BufferedReader reader = new BufferedReader(existing.openReader(true)))
+			{
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (!line.trim().isEmpty())
+					{
+						codecs.add(line.trim());
+					}
+				}
+			}
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			// Service file does not exist yet.
+		}
+
+		try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE, originatingElements.toArray(new Element[0]))
+				.openWriter())
+		{
+			for (String codec : codecs)
+			{
+				writer.write(codec);
+				writer.write('\n');
+			}
+		}
+		catch (IOException e)
+		{
+			error("Service file could not be written: " + e.getMessage(), null);
+		}
+	}
+
+	/**
+	 * Reports error.
+	 *
+	 * @param message
+	 *          the message
+	 * @param element
+	 *          the element
+	 */
+	private void error(String message, Element element)
+	{
+		processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+	}
+
+	/**
+	 * Reports note, that does not fail compilation.
+	 *
+	 * @param message
+	 *          the message
+	 * @param element
+	 *          the element
+	 */
+	private void note(String message, Element element)
+	{
+		processingEnv.getMessager().printMessage(Kind.NOTE, message, element);
+	}
+}
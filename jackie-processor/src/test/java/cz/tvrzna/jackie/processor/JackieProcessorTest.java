@@ -0,0 +1,169 @@
+package cz.tvrzna.jackie.processor;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import cz.tvrzna.jackie.GeneratedCodec;
+import cz.tvrzna.jackie.Jackie;
+import cz.tvrzna.jackie.annotations.JackieSerializable;
+
+public class JackieProcessorTest
+{
+	private static final List<String> PRODUCT = Arrays.asList(
+			"package fixture;",
+			"",
+			"import java.util.List;",
+			"import java.util.Map;",
+			"",
+			"import cz.tvrzna.jackie.annotations.JackieAdapter;",
+			"import cz.tvrzna.jackie.annotations.JackieProperty;",
+			"import cz.tvrzna.jackie.annotations.JackieSerializable;",
+			"",
+			"@JackieSerializable",
+			"public class Product",
+			"{",
+			"	protected int id;",
+			"	@JackieProperty(\"product_name\")",
+			"	protected String name;",
+			"	@JackieAdapter(UpperAdapter.class)",
+			"	protected String code;",
+			"	protected List<String> tags;",
+			"	protected Map<String, Integer> stock;",
+			"	protected double price;",
+			"	protected short weight;",
+			"	protected boolean active;",
+			"}");
+	private static final List<String> UPPER_ADAPTER = Arrays.asList(
+			"package fixture;",
+			"",
+			"import cz.tvrzna.jackie.Adapter;",
+			"",
+			"public class UpperAdapter implements Adapter<String>",
+			"{",
+			"	@Override",
+			"	public String deserialize(String text)",
+			"	{",
+			"		return text.toLowerCase();",
+			"	}",
+			"",
+			"	@Override",
+			"	public String serialize(String value)",
+			"	{",
+			"		return value.toUpperCase();",
+			"	}",
+			"}");
+	private static final List<String> SECRET = Arrays.asList(
+			"package fixture;",
+			"",
+			"import cz.tvrzna.jackie.annotations.JackieSerializable;",
+			"",
+			"@JackieSerializable",
+			"public class Secret",
+			"{",
+			"	protected int id;",
+			"	private String value;",
+			"}");
+
+	@Test
+	public void testGeneratedCodec() throws Exception
+	{
+		Path dir = Files.createTempDirectory("jackie-processor");
+		List<File> sources = Arrays.asList(Files.write(dir.resolve("Product.java"), PRODUCT, StandardCharsets.UTF_8).toFile(),
+				Files.write(dir.resolve("UpperAdapter.java"), UPPER_ADAPTER, StandardCharsets.UTF_8).toFile(),
+				Files.write(dir.resolve("Secret.java"), SECRET, StandardCharsets.UTF_8).toFile());
+		String classpath = Paths.get(JackieSerializable.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8))
+		{
+			CompilationTask task = compiler.getTask(null, fileManager, diagnostics, Arrays.asList("-d", dir.toString(), "-classpath", classpath, "-Xlint:all", "-Werror"),
+					null, fileManager.getJavaFileObjects(sources.toArray(new File[0])));
+			task.setProcessors(Collections.singletonList(new JackieProcessor()));
+			Assertions.assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+		}
+		Assertions.assertTrue(Files.exists(dir.resolve("fixture/ProductJackieCodec.class")));
+		List<String> notes = new ArrayList<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+		{
+			notes.add(diagnostic.getMessage(null));
+		}
+		Assertions.assertEquals(Collections.singletonList("Field value is not accessible from codec, it is accessed by reflection."), notes);
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader()))
+		{
+			Class<?> clazz = loader.loadClass("fixture.Product");
+			GeneratedCodec codec = null;
+			for (GeneratedCodec provided : ServiceLoader.load(GeneratedCodec.class, loader))
+			{
+				if (provided.getType() == clazz)
+				{
+					codec = provided;
+				}
+			}
+			Assertions.assertNotNull(codec);
+			Assertions.assertEquals("fixture.ProductJackieCodec", codec.getClass().getName());
+
+			Jackie jackie = new Jackie();
+			String json = "{\"id\":7,\"product_name\":\"lamp\",\"code\":\"LX-1\",\"tags\":[\"desk\",\"led\"],\"stock\":{\"prague\":3},\"price\":12.5,\"weight\":420,\"active\":true}";
+			Object product = jackie.fromJson(json, clazz);
+			Assertions.assertSame(clazz, product.getClass());
+			Field code = clazz.getDeclaredField("code");
+			Field stock = clazz.getDeclaredField("stock");
+			code.setAccessible(true);
+			stock.setAccessible(true);
+			Assertions.assertEquals("lx-1", code.get(product));
+			Assertions.assertEquals(Integer.valueOf(3), ((Map<?, ?>) stock.get(product)).get("prague"));
+			Assertions.assertEquals(json, jackie.toJson(product));
+			Assertions.assertFalse(isReflected(clazz), "Codec looked up fields by reflection.");
+
+			Class<?> secret = loader.loadClass("fixture.Secret");
+			String secretJson = "{\"id\":1,\"value\":\"hidden\"}";
+			Assertions.assertEquals(secretJson, jackie.toJson(jackie.fromJson(secretJson, secret)));
+			Assertions.assertTrue(isReflected(secret));
+		}
+	}
+
+	/**
+	 * Checks if properties of <code>clazz</code> were looked up by reflection.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return true, if is reflected
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static boolean isReflected(Class<?> clazz) throws Exception
+	{
+		Class<?> descriptorClass = Class.forName("cz.tvrzna.jackie.ClassDescriptor");
+		Method of = descriptorClass.getDeclaredMethod("of", Class.class);
+		of.setAccessible(true);
+		Field properties = descriptorClass.getDeclaredField("properties");
+		properties.setAccessible(true);
+		return properties.get(of.invoke(null, clazz)) != null;
+	}
+}
@@ -0,0 +1,190 @@
+package cz.tvrzna.jackie;
+
+import java.lang.reflect.Field;
+
+/**
+ * The Class Accessor. Reads and writes value of single field. Primitive values
+ * have their own methods, so they are not boxed on the way between field and
+ * <code>Serializator</code> or <code>DeserializationMapper</code>. Methods
+ * for primitives may be called only for field of matching type,
+ * {@link #getInt(Object)} accepts also <code>short</code> and
+ * <code>byte</code> fields.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public abstract class Accessor
+{
+
+	/**
+	 * Creates accessor of <code>field</code>. Accessor built from method handles
+	 * of private lookup is preferred, so field is not made accessible by
+	 * reflection. Reflective accessor is used, when handles could not be
+	 * created, and it makes field accessible, where it is permitted.
+	 *
+	 * @param field
+	 *          the field
+	 * @return the accessor
+	 */
+	protected static Accessor of(Field field)
+	{
+		try
+		{
+			return new HandleAccessor(field);
+		}
+		catch (IllegalAccessException | RuntimeException e)
+		{
+			FieldAccessor accessor = new FieldAccessor(field);
+			if (!accessor.isAccessible())
+			{
+				return accessor;
+			}
+			try
+			{
+				return new HandleAccessor(field);
+			}
+			catch (IllegalAccessException | RuntimeException ex)
+			{
+				return accessor;
+			}
+		}
+	}
+
+	/**
+	 * Gets the value, primitive value is boxed.
+	 *
+	 * @param target
+	 *          the target
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract Object get(Object target) throws Exception;
+
+	/**
+	 * Gets the value of <code>int</code>, <code>short</code> or
+	 * <code>byte</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @return the int
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract int getInt(Object target) throws Exception;
+
+	/**
+	 * Gets the value of <code>long</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @return the long
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract long getLong(Object target) throws Exception;
+
+	/**
+	 * Gets the value of <code>double</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @return the double
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract double getDouble(Object target) throws Exception;
+
+	/**
+	 * Gets the value of <code>float</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @return the float
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract float getFloat(Object target) throws Exception;
+
+	/**
+	 * Gets the value of <code>boolean</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @return true, if successful
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract boolean getBoolean(Object target) throws Exception;
+
+	/**
+	 * Gets the value of <code>char</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @return the char
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract char getChar(Object target) throws Exception;
+
+	/**
+	 * Sets the value, primitive value is unboxed.
+	 *
+	 * @param target
+	 *          the target
+	 * @param value
+	 *          the value
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract void set(Object target, Object value) throws Exception;
+
+	/**
+	 * Sets the value of <code>int</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @param value
+	 *          the value
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract void setInt(Object target, int value) throws Exception;
+
+	/**
+	 * Sets the value of <code>long</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @param value
+	 *          the value
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract void setLong(Object target, long value) throws Exception;
+
+	/**
+	 * Sets the value of <code>double</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @param value
+	 *          the value
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract void setDouble(Object target, double value) throws Exception;
+
+	/**
+	 * Sets the value of <code>float</code> field.
+	 *
+	 * @param target
+	 *          the target
+	 * @param value
+	 *          the value
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract void setFloat(Object target, float value) throws Exception;
+}
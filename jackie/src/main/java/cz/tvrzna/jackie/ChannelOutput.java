@@ -0,0 +1,255 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The Class ChannelOutput. Encodes characters to UTF-8 directly into direct
+ * <code>ByteBuffer</code> chunks, that are pooled per thread. When all chunks
+ * are full, they are passed to channel by single gathering write, so JDK does
+ * not need to copy them from heap.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class ChannelOutput extends Output
+{
+	private static final int BUFFER_SIZE = 16384;
+	private static final int BUFFER_COUNT = 4;
+	private static final ThreadLocal<ByteBuffer[]> POOL = new ThreadLocal<>();
+
+	private final WritableByteChannel channel;
+	private ByteBuffer[] buffers;
+	private ByteBuffer buffer;
+	private int index;
+
+	/**
+	 * Instantiates a new output, that writes to <code>channel</code>. Channel
+	 * is never closed.
+	 *
+	 * @param channel
+	 *          the channel
+	 */
+	protected ChannelOutput(WritableByteChannel channel)
+	{
+		this.channel = channel;
+		ByteBuffer[] result = POOL.get();
+		if (result == null)
+		{
+			result = new ByteBuffer[BUFFER_COUNT];
+			for (int i = 0; i < result.length; i++)
+			{
+				result[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			}
+		}
+		else
+		{
+			POOL.set(null);
+		}
+		this.buffers = result;
+		this.buffer = result[0];
+	}
+
+	@Override
+	protected void write(char c) throws IOException
+	{
+		if (c < 0x80)
+		{
+			if (!buffer.hasRemaining())
+			{
+				nextBuffer();
+			}
+			buffer.put((byte) c);
+		}
+		else
+		{
+			writeNonAscii(c, (char) 0);
+		}
+	}
+
+	@Override
+	protected void write(String value, int offset, int length) throws IOException
+	{
+		int i = offset;
+		int end = offset + length;
+		while (i < end)
+		{
+			if (!buffer.hasRemaining())
+			{
+				nextBuffer();
+			}
+			ByteBuffer b = buffer;
+			int limit = Math.min(end, i + b.remaining());
+			char c = 0;
+			while (i < limit && (c = value.charAt(i)) < 0x80)
+			{
+				b.put((byte) c);
+				i++;
+			}
+			if (i < limit)
+			{
+				i += writeNonAscii(c, i + 1 < end ? value.charAt(i + 1) : (char) 0);
+			}
+		}
+	}
+
+	@Override
+	protected void write(char[] value, int offset, int length) throws IOException
+	{
+		int i = offset;
+		int end = offset + length;
+		while (i < end)
+		{
+			if (!buffer.hasRemaining())
+			{
+				nextBuffer();
+			}
+			ByteBuffer b = buffer;
+			int limit = Math.min(end, i + b.remaining());
+			char c = 0;
+			while (i < limit && (c = value[i]) < 0x80)
+			{
+				b.put((byte) c);
+				i++;
+			}
+			if (i < limit)
+			{
+				i += writeNonAscii(c, i + 1 < end ? value[i + 1] : (char) 0);
+			}
+		}
+	}
+
+	@Override
+	protected void write(char[] chars, byte[] bytes) throws IOException
+	{
+		int offset = 0;
+		while (offset < bytes.length)
+		{
+			if (!buffer.hasRemaining())
+			{
+				nextBuffer();
+			}
+			int length = Math.min(bytes.length - offset, buffer.remaining());
+			buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	/**
+	 * Passes all filled chunks to channel.
+	 */
+	@Override
+	protected void flush() throws IOException
+	{
+		for (int i = 0; i <= index; i++)
+		{
+			buffers[i].flip();
+		}
+		ByteBuffer last = buffers[index];
+		if (channel instanceof GatheringByteChannel)
+		{
+			while (last.hasRemaining())
+			{
+				((GatheringByteChannel) channel).write(buffers, 0, index + 1);
+			}
+		}
+		else
+		{
+			for (int i = 0; i <= index; i++)
+			{
+				while (buffers[i].hasRemaining())
+				{
+					channel.write(buffers[i]);
+				}
+			}
+		}
+		for (int i = 0; i <= index; i++)
+		{
+			buffers[i].clear();
+		}
+		index = 0;
+		buffer = buffers[0];
+	}
+
+	@Override
+	protected void release()
+	{
+		if (buffers != null)
+		{
+			for (ByteBuffer b : buffers)
+			{
+				b.clear();
+			}
+			POOL.set(buffers);
+		}
+		buffers = null;
+		buffer = null;
+	}
+
+	/**
+	 * Encodes character outside of ASCII. Surrogate pair is encoded as single
+	 * four-byte sequence, lone surrogate is replaced by <code>?</code>.
+	 *
+	 * @param c
+	 *          the c
+	 * @param next
+	 *          the next character or <code>0</code>
+	 * @return the number of consumed characters
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private int writeNonAscii(char c, char next) throws IOException
+	{
+		if (buffer.remaining() < 4)
+		{
+			nextBuffer();
+		}
+		ByteBuffer b = buffer;
+		if (c < 0x800)
+		{
+			b.put((byte) (0xC0 | (c >> 6)));
+			b.put((byte) (0x80 | (c & 0x3F)));
+		}
+		else if (!Character.isSurrogate(c))
+		{
+			b.put((byte) (0xE0 | (c >> 12)));
+			b.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+			b.put((byte) (0x80 | (c & 0x3F)));
+		}
+		else if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next))
+		{
+			int codePoint = Character.toCodePoint(c, next);
+			b.put((byte) (0xF0 | (codePoint >> 18)));
+			b.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+			b.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+			b.put((byte) (0x80 | (codePoint & 0x3F)));
+			return 2;
+		}
+		else
+		{
+			b.put((byte) '?');
+		}
+		return 1;
+	}
+
+	/**
+	 * Moves to next chunk. If all chunks are full, they are written to channel
+	 * first.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void nextBuffer() throws IOException
+	{
+		if (index + 1 < buffers.length)
+		{
+			buffer = buffers[++index];
+		}
+		else
+		{
+			flush();
+		}
+	}
+}
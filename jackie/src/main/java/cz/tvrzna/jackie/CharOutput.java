@@ -0,0 +1,102 @@
+package cz.tvrzna.jackie;
+
+/**
+ * The Class CharOutput. Collects characters into <code>char[]</code>, that is
+ * pooled per thread, and creates <code>String</code> at the end. Unlike
+ * <code>StringWriter</code> it does no synchronization.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class CharOutput extends Output
+{
+	private static final int BUFFER_SIZE = 4096;
+	private static final ThreadLocal<char[]> POOL = new ThreadLocal<>();
+
+	private char[] pooled;
+	private char[] buffer;
+	private int pos;
+
+	/**
+	 * Instantiates a new char output.
+	 */
+	protected CharOutput()
+	{
+		char[] result = POOL.get();
+		if (result == null)
+		{
+			result = new char[BUFFER_SIZE];
+		}
+		else
+		{
+			POOL.set(null);
+		}
+		this.pooled = result;
+		this.buffer = result;
+	}
+
+	@Override
+	protected void write(char c)
+	{
+		if (pos == buffer.length)
+		{
+			ensure(1);
+		}
+		buffer[pos++] = c;
+	}
+
+	@Override
+	protected void write(String value, int offset, int length)
+	{
+		ensure(length);
+		value.getChars(offset, offset + length, buffer, pos);
+		pos += length;
+	}
+
+	@Override
+	protected void write(char[] value, int offset, int length)
+	{
+		ensure(length);
+		System.arraycopy(value, offset, buffer, pos, length);
+		pos += length;
+	}
+
+	@Override
+	protected void write(char[] chars, byte[] bytes)
+	{
+		write(chars, 0, chars.length);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new String(buffer, 0, pos);
+	}
+
+	@Override
+	protected void release()
+	{
+		if (pooled != null)
+		{
+			POOL.set(pooled);
+		}
+		pooled = null;
+		buffer = null;
+	}
+
+	/**
+	 * Ensures buffer fits at least <code>required</code> more chars.
+	 *
+	 * @param required
+	 *          the required
+	 */
+	private void ensure(int required)
+	{
+		if (pos + required > buffer.length)
+		{
+			char[] newBuffer = new char[Math.max(buffer.length << 1, pos + required)];
+			System.arraycopy(buffer, 0, newBuffer, 0, pos);
+			buffer = newBuffer;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The Class CharTokenizer. Reads <code>String</code> or <code>Reader</code>
+ * input through refillable <code>char[]</code> window.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class CharTokenizer extends Tokenizer
+{
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private final char[] buffer;
+	private int pos;
+	private int limit;
+
+	/**
+	 * Instantiates a new tokenizer over whole <code>String</code>.
+	 *
+	 * @param input
+	 *          the input
+	 */
+	protected CharTokenizer(String input)
+	{
+		this.reader = null;
+		this.buffer = input.toCharArray();
+		this.limit = buffer.length;
+	}
+
+	/**
+	 * Instantiates a new tokenizer over part of <code>char[]</code>. Data are
+	 * not copied.
+	 *
+	 * @param input
+	 *          the input
+	 * @param offset
+	 *          the offset
+	 * @param limit
+	 *          the limit
+	 */
+	protected CharTokenizer(char[] input, int offset, int limit)
+	{
+		this.reader = null;
+		this.buffer = input;
+		this.pos = offset;
+		this.limit = limit;
+	}
+
+	/**
+	 * Instantiates a new tokenizer, that reads <code>reader</code> in blocks.
+	 *
+	 * @param reader
+	 *          the reader
+	 */
+	protected CharTokenizer(Reader reader)
+	{
+		this.reader = reader;
+		this.buffer = new char[BUFFER_SIZE];
+	}
+
+	/**
+	 * Gets the position in window. It is offset in input only, if tokenizer was
+	 * not created over <code>Reader</code>.
+	 *
+	 * @return the position
+	 */
+	protected int position()
+	{
+		return pos;
+	}
+
+	@Override
+	protected int peekChar() throws IOException
+	{
+		while (true)
+		{
+			while (pos < limit)
+			{
+				char c = buffer[pos];
+				if (c > ' ')
+				{
+					return c;
+				}
+				pos++;
+			}
+			if (!fill())
+			{
+				return -1;
+			}
+		}
+	}
+
+	@Override
+	protected int peekRaw() throws IOException
+	{
+		if (pos < limit || fill())
+		{
+			return buffer[pos];
+		}
+		return -1;
+	}
+
+	@Override
+	protected void advance()
+	{
+		pos++;
+	}
+
+	/**
+	 * Reads quoted string into scratch buffer. Runs without escape sequence are
+	 * copied at once.
+	 *
+	 * @param quote
+	 *          the quote
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	@Override
+	protected void readString(char quote) throws IOException
+	{
+		while (pos < limit || fill())
+		{
+			int start = pos;
+			char c = 0;
+			while (pos < limit)
+			{
+				c = buffer[pos];
+				if (c == quote || c == '\\')
+				{
+					break;
+				}
+				pos++;
+			}
+			append(buffer, start, pos - start);
+			if (pos < limit)
+			{
+				pos++;
+				if (c == quote)
+				{
+					return;
+				}
+				readEscape();
+			}
+		}
+	}
+
+	@Override
+	protected void skipString(char quote) throws IOException
+	{
+		while (pos < limit || fill())
+		{
+			char c = buffer[pos++];
+			if (c == quote)
+			{
+				return;
+			}
+			else if (c == '\\' && (pos < limit || fill()))
+			{
+				pos++;
+			}
+		}
+	}
+
+	@Override
+	protected void readLiteral(boolean name) throws IOException
+	{
+		do
+		{
+			int start = pos;
+			while (pos < limit && !isLiteralEnd(buffer[pos], name))
+			{
+				pos++;
+			}
+			append(buffer, start, pos - start);
+			if (pos < limit)
+			{
+				return;
+			}
+		}
+		while (fill());
+	}
+
+	/**
+	 * Refills the window, if reader is available.
+	 *
+	 * @return true, if any character was read
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private boolean fill() throws IOException
+	{
+		if (reader == null)
+		{
+			return false;
+		}
+		int read;
+		do
+		{
+			read = reader.read(buffer, 0, buffer.length);
+		}
+		while (read == 0);
+
+		if (read < 0)
+		{
+			pos = limit = 0;
+			return false;
+		}
+		pos = 0;
+		limit = read;
+		return true;
+	}
+}
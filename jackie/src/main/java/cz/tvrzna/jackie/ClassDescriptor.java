@@ -0,0 +1,497 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.BaseStream;
+
+import cz.tvrzna.jackie.annotations.JackieAdapter;
+import cz.tvrzna.jackie.annotations.JackieProperty;
+
+/**
+ * The Class ClassDescriptor. Reflection metadata of single class, that is
+ * resolved once and shared by serialization and deserialization of all Jackie
+ * instances. Descriptors are kept in <code>ClassValue</code>, so they do not
+ * prevent unloading of described classes.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class ClassDescriptor
+{
+	private static final ClassValue<ClassDescriptor> DESCRIPTORS = new ClassValue<ClassDescriptor>()
+	{
+		@Override
+		protected ClassDescriptor computeValue(Class<?> type)
+		{
+			return new ClassDescriptor(type);
+		}
+	};
+	private static final ClassValue<Adapter<?>> ADAPTERS = new ClassValue<Adapter<?>>()
+	{
+		@Override
+		protected Adapter<?> computeValue(Class<?> type)
+		{
+			try
+			{
+				return (Adapter<?>) type.getDeclaredConstructor().newInstance();
+			}
+			catch (ReflectiveOperationException e)
+			{
+				throw new RuntimeException("Adapter " + type.getName() + " could not be instantiated.", e);
+			}
+		}
+	};
+
+	private final Class<?> clazz;
+	private final boolean simple;
+	private volatile Property[] properties;
+	private volatile Map<String, Property> propertiesByName;
+	private volatile Constructor<?> constructor;
+	private volatile GeneratedCodec generatedCodec;
+	private volatile boolean generatedResolved;
+
+	/**
+	 * Instantiates a new class descriptor.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 */
+	private ClassDescriptor(Class<?> clazz)
+	{
+		this.clazz = clazz;
+		this.simple = (CommonUtils.SIMPLE_CLASSES.contains(clazz) || Enum.class.isAssignableFrom(clazz)) && !clazz.isArray();
+	}
+
+	/**
+	 * Gets the descriptor of <code>clazz</code>.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the class descriptor
+	 */
+	protected static ClassDescriptor of(Class<?> clazz)
+	{
+		return DESCRIPTORS.get(clazz);
+	}
+
+	/**
+	 * Checks if class is serialized as single value.
+	 *
+	 * @return true, if is simple
+	 */
+	protected boolean isSimple()
+	{
+		return simple;
+	}
+
+	/**
+	 * Gets the properties in order of declaration, starting with class itself
+	 * and continuing with its superclasses. Properties are resolved on first
+	 * use, so descriptors of maps, lists and simple values never touch their
+	 * fields.
+	 *
+	 * @return the properties
+	 */
+	protected Property[] getProperties()
+	{
+		Property[] result = properties;
+		if (result == null)
+		{
+			List<Field> fields = CommonUtils.getFields(clazz);
+			result = new Property[fields.size()];
+			for (int i = 0; i < result.length; i++)
+			{
+				result[i] = new Property(fields.get(i), i);
+			}
+			properties = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the property by name, that is used in JSON.
+	 *
+	 * @param name
+	 *          the name
+	 * @return the property or <code>null</code>
+	 */
+	protected Property getProperty(String name)
+	{
+		Map<String, Property> result = propertiesByName;
+		if (result == null)
+		{
+			result = new HashMap<>();
+			for (Property property : getProperties())
+			{
+				result.put(property.name, property);
+			}
+			propertiesByName = result;
+		}
+		return result.get(name);
+	}
+
+	/**
+	 * Creates new instance by constructor without parameters. Constructor is
+	 * looked up on first use.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T newInstance() throws Exception
+	{
+		Constructor<?> result = constructor;
+		if (result == null)
+		{
+			result = constructor = clazz.getDeclaredConstructor();
+		}
+		return (T) result.newInstance();
+	}
+
+	/**
+	 * Gets the codec of described class. Codec provided by
+	 * {@link java.util.ServiceLoader} takes precedence, otherwise codec is
+	 * generated at runtime, if <code>config</code> allows it.
+	 *
+	 * @param config
+	 *          the config
+	 * @return the codec or <code>null</code>, if reflection is used
+	 */
+	protected GeneratedCodec getCodec(Config config)
+	{
+		GeneratedCodec result = GeneratedCodec.getProvided(clazz);
+		if (result == null && config.isGenerateCodecs())
+		{
+			result = getGeneratedCodec();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the codec generated at runtime. Codec is generated on first use.
+	 *
+	 * @return the codec or <code>null</code>, if it could not be generated
+	 */
+	private GeneratedCodec getGeneratedCodec()
+	{
+		if (!generatedResolved)
+		{
+			synchronized (this)
+			{
+				if (!generatedResolved)
+				{
+					generatedCodec = CodecGenerator.generate(clazz, getProperties());
+					generatedResolved = true;
+				}
+			}
+		}
+		return generatedCodec;
+	}
+
+	/**
+	 * The Class Property. Field of described class with its JSON name, adapter
+	 * and type arguments.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	protected static class Property
+	{
+		private final Field field;
+		private final int index;
+		private final Accessor accessor;
+		private final String name;
+		private final Class<?> type;
+		private final Class<? extends Adapter<?>> adapterClazz;
+		private Adapter<?> adapter;
+		private final boolean primitive;
+		private final boolean streamed;
+		private final Class<?> subClazz;
+		private final Class<?> subClazz2;
+		private final Prefix[] prefixes = new Prefix[4];
+
+		/**
+		 * Instantiates a new property.
+		 *
+		 * @param field
+		 *          the field
+		 * @param index
+		 *          the index
+		 */
+		private Property(Field field, int index)
+		{
+			this.field = field;
+			this.index = index;
+			this.accessor = Accessor.of(field);
+			JackieProperty property = field.getAnnotation(JackieProperty.class);
+			this.name = property != null ? property.value() : field.getName();
+			this.type = field.getType();
+			JackieAdapter adapter = field.getAnnotation(JackieAdapter.class);
+			this.adapterClazz = adapter != null ? adapter.value() : null;
+			this.primitive = type.isPrimitive() && this.adapterClazz == null;
+			this.streamed = type == Iterable.class || type == Iterator.class || BaseStream.class.isAssignableFrom(type);
+			this.subClazz = getTypeArgument(field, 0);
+			this.subClazz2 = getTypeArgument(field, 1);
+		}
+
+		/**
+		 * Instantiates a new property of field, that is described by generated
+		 * codec. Reflection is not used, so property has no field and no
+		 * accessor.
+		 *
+		 * @param index
+		 *          the index
+		 * @param name
+		 *          the name, that is used in JSON
+		 * @param type
+		 *          the type of field
+		 * @param subClazz
+		 *          the first type argument of field
+		 * @param subClazz2
+		 *          the second type argument of field
+		 * @param adapter
+		 *          the adapter or <code>null</code>
+		 */
+		protected Property(int index, String name, Class<?> type, Class<?> subClazz, Class<?> subClazz2, Adapter<?> adapter)
+		{
+			this.field = null;
+			this.index = index;
+			this.accessor = null;
+			this.name = name;
+			this.type = type;
+			this.adapterClazz = null;
+			this.adapter = adapter;
+			this.primitive = type.isPrimitive() && adapter == null;
+			this.streamed = type == Iterable.class || type == Iterator.class || BaseStream.class.isAssignableFrom(type);
+			this.subClazz = subClazz;
+			this.subClazz2 = subClazz2;
+		}
+
+		/**
+		 * Gets the field.
+		 *
+		 * @return the field or <code>null</code>, if property is described by
+		 *         generated codec
+		 */
+		protected Field getField()
+		{
+			return field;
+		}
+
+		/**
+		 * Gets the index in properties of described class.
+		 *
+		 * @return the index
+		 */
+		protected int getIndex()
+		{
+			return index;
+		}
+
+		/**
+		 * Gets the accessor of field.
+		 *
+		 * @return the accessor or <code>null</code>, if property is described by
+		 *         generated codec
+		 */
+		protected Accessor getAccessor()
+		{
+			return accessor;
+		}
+
+		/**
+		 * Gets the name, that is used in JSON.
+		 *
+		 * @return the name
+		 */
+		protected String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * Gets the type of field.
+		 *
+		 * @return the type
+		 */
+		protected Class<?> getType()
+		{
+			return type;
+		}
+
+		/**
+		 * Gets the adapter declared by annotation. Single instance of each adapter
+		 * class is shared by all fields, that declare it.
+		 *
+		 * @return the adapter or <code>null</code>
+		 */
+		protected Adapter<?> getAdapter()
+		{
+			Adapter<?> result = adapter;
+			if (result == null && adapterClazz != null)
+			{
+				adapter = result = ADAPTERS.get(adapterClazz);
+			}
+			return result;
+		}
+
+		/**
+		 * Checks if field is primitive without adapter.
+		 *
+		 * @return true, if is primitive
+		 */
+		protected boolean isPrimitive()
+		{
+			return primitive;
+		}
+
+		/**
+		 * Checks if field is declared as <code>Iterable</code>,
+		 * <code>Iterator</code> or <code>Stream</code>, whose items are written
+		 * as list.
+		 *
+		 * @return true, if is streamed
+		 */
+		protected boolean isStreamed()
+		{
+			return streamed;
+		}
+
+		/**
+		 * Gets the first type argument of field, that is item class of
+		 * <code>Collection</code> or key class of <code>Map</code>.
+		 *
+		 * @return the sub clazz or <code>null</code>
+		 */
+		protected Class<?> getSubClazz()
+		{
+			return subClazz;
+		}
+
+		/**
+		 * Gets the second type argument of field, that is value class of
+		 * <code>Map</code>.
+		 *
+		 * @return the sub clazz 2 or <code>null</code>
+		 */
+		protected Class<?> getSubClazz2()
+		{
+			return subClazz2;
+		}
+
+		/**
+		 * Gets the prefix of field for options of <code>config</code>, that
+		 * affect it. Prefix is created on first use.
+		 *
+		 * @param config
+		 *          the config
+		 * @return the prefix
+		 * @throws IOException
+		 *           Signals that an I/O exception has occurred.
+		 */
+		protected Prefix getPrefix(Config config) throws IOException
+		{
+			int index = (config.isPrettyPrint() ? 1 : 0) | (config.isEscapeUnicode() ? 2 : 0);
+			Prefix prefix = prefixes[index];
+			if (prefix == null)
+			{
+				prefix = prefixes[index] = new Prefix(name, config);
+			}
+			return prefix;
+		}
+
+		/**
+		 * Gets the type argument of field with <code>index</code>. Parameterized
+		 * argument is resolved to its raw class.
+		 *
+		 * @param field
+		 *          the field
+		 * @param index
+		 *          the index
+		 * @return the type argument or <code>null</code>
+		 */
+		private static Class<?> getTypeArgument(Field field, int index)
+		{
+			if (!(field.getGenericType() instanceof ParameterizedType))
+			{
+				return null;
+			}
+			Type[] arguments = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
+			if (index >= arguments.length)
+			{
+				return null;
+			}
+			Type argument = arguments[index];
+			if (argument instanceof ParameterizedType)
+			{
+				argument = ((ParameterizedType) argument).getRawType();
+			}
+			return argument instanceof Class ? (Class<?>) argument : null;
+		}
+	}
+
+	/**
+	 * The Class Prefix. Escaped and quoted field name followed by colon, kept as
+	 * <code>char[]</code> and UTF-8 <code>byte[]</code>, so it is written by
+	 * single copy.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	protected static class Prefix
+	{
+		private final char[] chars;
+		private final byte[] bytes;
+
+		/**
+		 * Instantiates a new prefix.
+		 *
+		 * @param name
+		 *          the name
+		 * @param config
+		 *          the config
+		 * @throws IOException
+		 *           Signals that an I/O exception has occurred.
+		 */
+		private Prefix(String name, Config config) throws IOException
+		{
+			CharOutput out = new CharOutput();
+			try
+			{
+				Serializator.serializeString(out, name, config);
+				out.write(config.isPrettyPrint() ? " : " : ":");
+				String prefix = out.toString();
+				this.chars = prefix.toCharArray();
+				this.bytes = prefix.getBytes(StandardCharsets.UTF_8);
+			}
+			finally
+			{
+				out.release();
+			}
+		}
+
+		/**
+		 * Writes prefix to <code>out</code>.
+		 *
+		 * @param out
+		 *          the out
+		 * @throws IOException
+		 *           Signals that an I/O exception has occurred.
+		 */
+		protected void write(Output out) throws IOException
+		{
+			out.write(chars, bytes);
+		}
+	}
+}
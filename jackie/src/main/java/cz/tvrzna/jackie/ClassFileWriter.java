@@ -0,0 +1,357 @@
+package cz.tvrzna.jackie;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Class ClassFileWriter. Minimal writer of class file, that supports only
+ * what {@link CodecGenerator} needs: constant pool with class, field and
+ * method references, and methods with code. Class files are written in
+ * version 49, so methods need no stack map frames.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class ClassFileWriter
+{
+	protected static final int ACC_PUBLIC = 0x0001;
+	protected static final int ACC_PROTECTED = 0x0004;
+	protected static final int ACC_FINAL = 0x0010;
+	protected static final int ACC_SUPER = 0x0020;
+
+	private static final int VERSION = 49;
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+	private final DataOutputStream poolOut = new DataOutputStream(pool);
+	private final Map<String, Integer> constants = new HashMap<>();
+	private final List<byte[]> methods = new ArrayList<>();
+	private int poolSize = 1;
+	private final int thisClass;
+	private final int superClass;
+
+	/**
+	 * Instantiates a new class file writer.
+	 *
+	 * @param name
+	 *          the internal name of class
+	 * @param superName
+	 *          the internal name of superclass
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected ClassFileWriter(String name, String superName) throws IOException
+	{
+		this.thisClass = classRef(name);
+		this.superClass = classRef(superName);
+	}
+
+	/**
+	 * Gets index of UTF-8 constant.
+	 *
+	 * @param value
+	 *          the value
+	 * @return the index
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected int utf8(String value) throws IOException
+	{
+		Integer index = constants.get("U" + value);
+		if (index == null)
+		{
+			poolOut.writeByte(CONSTANT_UTF8);
+			poolOut.writeUTF(value);
+			index = register("U" + value);
+		}
+		return index;
+	}
+
+	/**
+	 * Gets index of class constant.
+	 *
+	 * @param internalName
+	 *          the internal name or descriptor of array
+	 * @return the index
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected int classRef(String internalName) throws IOException
+	{
+		Integer index = constants.get("C" + internalName);
+		if (index == null)
+		{
+			int name = utf8(internalName);
+			poolOut.writeByte(CONSTANT_CLASS);
+			poolOut.writeShort(name);
+			index = register("C" + internalName);
+		}
+		return index;
+	}
+
+	/**
+	 * Gets index of field reference constant.
+	 *
+	 * @param owner
+	 *          the internal name of owner
+	 * @param name
+	 *          the name
+	 * @param descriptor
+	 *          the descriptor
+	 * @return the index
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected int fieldRef(String owner, String name, String descriptor) throws IOException
+	{
+		return memberRef(CONSTANT_FIELDREF, owner, name, descriptor);
+	}
+
+	/**
+	 * Gets index of method reference constant.
+	 *
+	 * @param owner
+	 *          the internal name of owner
+	 * @param name
+	 *          the name
+	 * @param descriptor
+	 *          the descriptor
+	 * @return the index
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected int methodRef(String owner, String name, String descriptor) throws IOException
+	{
+		return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+	}
+
+	/**
+	 * Adds method with code.
+	 *
+	 * @param access
+	 *          the access flags
+	 * @param name
+	 *          the name
+	 * @param descriptor
+	 *          the descriptor
+	 * @param code
+	 *          the code
+	 * @param maxStack
+	 *          the max stack
+	 * @param maxLocals
+	 *          the max locals
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected void addMethod(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) throws IOException
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(baos);
+		out.writeShort(access);
+		out.writeShort(utf8(name));
+		out.writeShort(utf8(descriptor));
+		out.writeShort(1);
+		out.writeShort(utf8("Code"));
+		out.writeInt(12 + code.size());
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(code.size());
+		code.writeTo(out);
+		out.writeShort(0);
+		out.writeShort(0);
+		methods.add(baos.toByteArray());
+	}
+
+	/**
+	 * Writes whole class file.
+	 *
+	 * @param access
+	 *          the access flags of class
+	 * @return the byte[]
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected byte[] toByteArray(int access) throws IOException
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(baos);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(VERSION);
+		out.writeShort(poolSize);
+		pool.writeTo(out);
+		out.writeShort(access);
+		out.writeShort(thisClass);
+		out.writeShort(superClass);
+		out.writeShort(0);
+		out.writeShort(0);
+		out.writeShort(methods.size());
+		for (byte[] method : methods)
+		{
+			out.write(method);
+		}
+		out.writeShort(0);
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Gets index of field or method reference constant.
+	 *
+	 * @param tag
+	 *          the tag
+	 * @param owner
+	 *          the owner
+	 * @param name
+	 *          the name
+	 * @param descriptor
+	 *          the descriptor
+	 * @return the index
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private int memberRef(int tag, String owner, String name, String descriptor) throws IOException
+	{
+		String key = tag + owner + "." + name + ":" + descriptor;
+		Integer index = constants.get(key);
+		if (index == null)
+		{
+			int ownerIndex = classRef(owner);
+			int nameIndex = utf8(name);
+			int descriptorIndex = utf8(descriptor);
+			Integer nameAndType = constants.get("N" + name + ":" + descriptor);
+			if (nameAndType == null)
+			{
+				poolOut.writeByte(CONSTANT_NAME_AND_TYPE);
+				poolOut.writeShort(nameIndex);
+				poolOut.writeShort(descriptorIndex);
+				nameAndType = register("N" + name + ":" + descriptor);
+			}
+			poolOut.writeByte(tag);
+			poolOut.writeShort(ownerIndex);
+			poolOut.writeShort(nameAndType);
+			index = register(key);
+		}
+		return index;
+	}
+
+	/**
+	 * Registers constant, that was just written to pool.
+	 *
+	 * @param key
+	 *          the key
+	 * @return the index
+	 */
+	private int register(String key)
+	{
+		int index = poolSize++;
+		constants.put(key, index);
+		return index;
+	}
+
+	/**
+	 * The Class Code. Bytecode of single method.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	protected static class Code extends ByteArrayOutputStream
+	{
+
+		/**
+		 * Writes opcode or single byte operand.
+		 *
+		 * @param value
+		 *          the value
+		 * @return the code
+		 */
+		protected Code u1(int value)
+		{
+			write(value);
+			return this;
+		}
+
+		/**
+		 * Writes two byte operand.
+		 *
+		 * @param value
+		 *          the value
+		 * @return the code
+		 */
+		protected Code u2(int value)
+		{
+			write(value >>> 8);
+			write(value);
+			return this;
+		}
+
+		/**
+		 * Writes four byte operand.
+		 *
+		 * @param value
+		 *          the value
+		 * @return the code
+		 */
+		protected Code u4(int value)
+		{
+			u2(value >>> 16);
+			return u2(value);
+		}
+
+		/**
+		 * Writes opcode with two byte operand.
+		 *
+		 * @param opcode
+		 *          the opcode
+		 * @param operand
+		 *          the operand
+		 * @return the code
+		 */
+		protected Code op(int opcode, int operand)
+		{
+			return u1(opcode).u2(operand);
+		}
+
+		/**
+		 * Pushes <code>int</code> constant by shortest instruction.
+		 *
+		 * @param value
+		 *          the value
+		 * @return the code
+		 */
+		protected Code push(int value)
+		{
+			if (value >= -1 && value <= 5)
+			{
+				return u1(0x03 + value);
+			}
+			else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+			{
+				return u1(0x10).u1(value);
+			}
+			return u1(0x11).u2(value);
+		}
+
+		/**
+		 * Loads or stores local variable.
+		 *
+		 * @param opcode
+		 *          the opcode of load or store instruction with explicit index
+		 * @param index
+		 *          the index
+		 * @return the code
+		 */
+		protected Code local(int opcode, int index)
+		{
+			return u1(opcode).u1(index);
+		}
+	}
+}
@@ -0,0 +1,409 @@
+package cz.tvrzna.jackie;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import cz.tvrzna.jackie.ClassDescriptor.Property;
+import cz.tvrzna.jackie.ClassFileWriter.Code;
+import cz.tvrzna.jackie.annotations.JackieAdapter;
+
+/**
+ * The Class CodecGenerator. Generates subclass of {@link GeneratedCodec} for
+ * single class, that reads and writes each field by straight-line code
+ * without reflection. Codec is defined in package of described class as
+ * hidden nestmate class, where it is supported, or as ordinary class
+ * otherwise, so it accesses fields directly. Fields, that are not accessible
+ * this way, are handled by their {@link Accessor}. When codec could not be
+ * defined at all, reflective path is used.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class CodecGenerator
+{
+	private static final String CODEC = "cz/tvrzna/jackie/GeneratedCodec";
+	private static final String OUTPUT = "Lcz/tvrzna/jackie/Output;";
+	private static final String CONFIG = "Lcz/tvrzna/jackie/Config;";
+	private static final String TOKENIZER = "Lcz/tvrzna/jackie/Tokenizer;";
+	private static final String WRITE_PREFIX = "(" + OUTPUT + CONFIG + "III";
+	private static final String READ_PREFIX = "(" + TOKENIZER + CONFIG + "I";
+	private static final String OBJECT = "Ljava/lang/Object;";
+
+	private static final int ALOAD = 0x19;
+	private static final int ALOAD_0 = 0x2A;
+	private static final int ALOAD_1 = 0x2B;
+	private static final int ALOAD_2 = 0x2C;
+	private static final int ALOAD_3 = 0x2D;
+	private static final int ILOAD = 0x15;
+	private static final int ILOAD_2 = 0x1C;
+	private static final int ISTORE = 0x36;
+	private static final int ICONST_0 = 0x03;
+	private static final int IRETURN = 0xAC;
+	private static final int RETURN = 0xB1;
+	private static final int TABLESWITCH = 0xAA;
+	private static final int GETFIELD = 0xB4;
+	private static final int PUTFIELD = 0xB5;
+	private static final int INVOKEVIRTUAL = 0xB6;
+	private static final int INVOKESPECIAL = 0xB7;
+	private static final int CHECKCAST = 0xC0;
+
+	private static final Method PRIVATE_LOOKUP_IN;
+	private static final Method DEFINE_HIDDEN_CLASS;
+	private static final Object HIDDEN_OPTIONS;
+	private static final Method DEFINE_CLASS;
+
+	static
+	{
+		Method privateLookupIn = null;
+		Method defineClass = null;
+		Method defineHiddenClass = null;
+		Object hiddenOptions = null;
+		try
+		{
+			privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+			defineClass = Lookup.class.getMethod("defineClass", byte[].class);
+			Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			hiddenOptions = Array.newInstance(option, 1);
+			Array.set(hiddenOptions, 0, option.getField("NESTMATE").get(null));
+			defineHiddenClass = Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, hiddenOptions.getClass());
+		}
+		catch (ReflectiveOperationException | RuntimeException e)
+		{
+			hiddenOptions = null;
+		}
+		PRIVATE_LOOKUP_IN = defineClass != null ? privateLookupIn : null;
+		DEFINE_CLASS = defineClass;
+		DEFINE_HIDDEN_CLASS = hiddenOptions != null ? defineHiddenClass : null;
+		HIDDEN_OPTIONS = hiddenOptions;
+	}
+
+	private CodecGenerator()
+	{
+	}
+
+	/**
+	 * Generates codec of <code>type</code>.
+	 *
+	 * @param type
+	 *          the type
+	 * @param properties
+	 *          the properties of type
+	 * @return the generated codec or <code>null</code>, if it could not be
+	 *         defined
+	 */
+	protected static synchronized GeneratedCodec generate(Class<?> type, Property[] properties)
+	{
+		if (PRIVATE_LOOKUP_IN == null || type.isArray() || type.isPrimitive() || type.isInterface())
+		{
+			return null;
+		}
+		try
+		{
+			Lookup lookup = (Lookup) PRIVATE_LOOKUP_IN.invoke(null, type, MethodHandles.lookup());
+			boolean hidden = DEFINE_HIDDEN_CLASS != null;
+			byte[] bytes = write(type, properties, hidden);
+			Class<?> codecClass;
+			if (hidden)
+			{
+				codecClass = ((Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, true, HIDDEN_OPTIONS)).lookupClass();
+			}
+			else
+			{
+				codecClass = (Class<?>) DEFINE_CLASS.invoke(lookup, bytes);
+			}
+			if (codecClass.getSuperclass() != GeneratedCodec.class)
+			{
+				return null;
+			}
+			return (GeneratedCodec) lookup.findConstructor(codecClass, MethodType.methodType(void.class, Class.class)).invoke(type);
+		}
+		catch (Throwable e)
+		{
+			if (e instanceof VirtualMachineError)
+			{
+				throw (VirtualMachineError) e;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Writes class file of codec.
+	 *
+	 * @param type
+	 *          the type
+	 * @param properties
+	 *          the properties
+	 * @param hidden
+	 *          true, if codec will be hidden nestmate of <code>type</code>
+	 * @return the byte[]
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static byte[] write(Class<?> type, Property[] properties, boolean hidden) throws Exception
+	{
+		String owner = type.getName().replace('.', '/');
+		ClassFileWriter cf = new ClassFileWriter(owner + "$$JackieCodec", CODEC);
+
+		Code init = new Code();
+		init.u1(ALOAD_0).u1(ALOAD_1).op(INVOKESPECIAL, cf.methodRef(CODEC, "<init>", "(Ljava/lang/Class;)V")).u1(RETURN);
+		cf.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "(Ljava/lang/Class;)V", init, 2, 2);
+
+		Code write = new Code();
+		write.u1(ICONST_0).local(ISTORE, 5);
+		for (int i = 0; i < properties.length; i++)
+		{
+			Property property = properties[i];
+			Class<?> fieldType = property.getType();
+			write.u1(ALOAD_0).u1(ALOAD_2).u1(ALOAD_3).local(ILOAD, 4).local(ILOAD, 5).push(i).u1(ALOAD_1);
+			String method = isDirect(type, property, hidden) ? getWriteMethod(fieldType) : null;
+			if (method != null)
+			{
+				String descriptor = descriptor(fieldType);
+				write.op(CHECKCAST, cf.classRef(owner)).op(GETFIELD, cf.fieldRef(owner, property.getField().getName(), descriptor));
+				String parameter = fieldType.isPrimitive() ? descriptor : OBJECT;
+				write.op(INVOKEVIRTUAL, cf.methodRef(CODEC, method, WRITE_PREFIX + parameter + ")I"));
+			}
+			else
+			{
+				write.op(INVOKEVIRTUAL, cf.methodRef(CODEC, "writeProperty", WRITE_PREFIX + OBJECT + ")I"));
+			}
+			write.local(ISTORE, 5);
+		}
+		write.local(ILOAD, 5).u1(IRETURN);
+		cf.addMethod(ClassFileWriter.ACC_PROTECTED, "writeFields", "(" + OBJECT + OUTPUT + CONFIG + "I)I", write, 10, 6);
+
+		cf.addMethod(ClassFileWriter.ACC_PROTECTED, "readField", "(" + OBJECT + "I" + TOKENIZER + CONFIG + ")V", writeReadField(cf, type, owner, properties, hidden), 10, 5);
+
+		return cf.toByteArray(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER);
+	}
+
+	/**
+	 * Writes code of <code>readField</code>, that is single
+	 * <code>tableswitch</code> by index of property.
+	 *
+	 * @param cf
+	 *          the class file
+	 * @param type
+	 *          the type
+	 * @param owner
+	 *          the internal name of type
+	 * @param properties
+	 *          the properties
+	 * @param hidden
+	 *          true, if codec will be hidden nestmate of <code>type</code>
+	 * @return the code
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static Code writeReadField(ClassFileWriter cf, Class<?> type, String owner, Property[] properties, boolean hidden) throws Exception
+	{
+		Code code = new Code();
+		if (properties.length == 0)
+		{
+			return code.u1(RETURN);
+		}
+
+		Code cases = new Code();
+		int[] offsets = new int[properties.length];
+		for (int i = 0; i < properties.length; i++)
+		{
+			offsets[i] = cases.size();
+			Property property = properties[i];
+			Class<?> fieldType = property.getType();
+			String method = isDirect(type, property, hidden) ? getReadMethod(fieldType) : null;
+			if (method == null)
+			{
+				cases.u1(ALOAD_0).u1(ALOAD_1).u1(ILOAD_2).u1(ALOAD_3).local(ALOAD, 4);
+				cases.op(INVOKEVIRTUAL, cf.methodRef(CODEC, "readProperty", "(" + OBJECT + "I" + TOKENIZER + CONFIG + ")V"));
+				cases.u1(RETURN);
+				continue;
+			}
+			String descriptor = descriptor(fieldType);
+			int field = cf.fieldRef(owner, property.getField().getName(), descriptor);
+			cases.u1(ALOAD_1).op(CHECKCAST, cf.classRef(owner));
+			cases.u1(ALOAD_0).u1(ALOAD_3).local(ALOAD, 4).u1(ILOAD_2);
+			if (fieldType.isPrimitive())
+			{
+				cases.u1(ALOAD_1).op(CHECKCAST, cf.classRef(owner)).op(GETFIELD, field);
+				cases.op(INVOKEVIRTUAL, cf.methodRef(CODEC, method, READ_PREFIX + descriptor + ")" + descriptor));
+			}
+			else
+			{
+				cases.op(INVOKEVIRTUAL, cf.methodRef(CODEC, method, READ_PREFIX + ")" + OBJECT));
+				cases.op(CHECKCAST, cf.classRef(fieldType.isArray() ? descriptor : fieldType.getName().replace('.', '/')));
+			}
+			cases.op(PUTFIELD, field).u1(RETURN);
+		}
+		int defaultOffset = cases.size();
+		cases.u1(RETURN);
+
+		int header = 16 + 4 * properties.length;
+		code.u1(ILOAD_2).u1(TABLESWITCH).u1(0).u1(0);
+		code.u4(header + defaultOffset - 1).u4(0).u4(properties.length - 1);
+		for (int offset : offsets)
+		{
+			code.u4(header + offset - 1);
+		}
+		cases.writeTo(code);
+		return code;
+	}
+
+	/**
+	 * Checks if field of <code>property</code> could be accessed by codec
+	 * directly.
+	 *
+	 * @param type
+	 *          the type
+	 * @param property
+	 *          the property
+	 * @param hidden
+	 *          true, if codec will be hidden nestmate of <code>type</code>
+	 * @return true, if is direct
+	 */
+	private static boolean isDirect(Class<?> type, Property property, boolean hidden)
+	{
+		Field field = property.getField();
+		Class<?> declaring = field.getDeclaringClass();
+		int modifiers = field.getModifiers();
+		if (field.isAnnotationPresent(JackieAdapter.class))
+		{
+			return false;
+		}
+		else if (Modifier.isPrivate(modifiers))
+		{
+			if (!hidden || declaring != type)
+			{
+				return false;
+			}
+		}
+		else if (!isSamePackage(declaring, type) && !(Modifier.isPublic(modifiers) && Modifier.isPublic(declaring.getModifiers())))
+		{
+			return false;
+		}
+		Class<?> fieldType = property.getType();
+		while (fieldType.isArray())
+		{
+			fieldType = fieldType.getComponentType();
+		}
+		return fieldType.isPrimitive() || Modifier.isPublic(fieldType.getModifiers()) || isSamePackage(fieldType, type);
+	}
+
+	/**
+	 * Checks if both classes are in same runtime package.
+	 *
+	 * @param a
+	 *          the a
+	 * @param b
+	 *          the b
+	 * @return true, if is same package
+	 */
+	private static boolean isSamePackage(Class<?> a, Class<?> b)
+	{
+		if (a.getClassLoader() != b.getClassLoader())
+		{
+			return false;
+		}
+		String nameA = a.getName();
+		String nameB = b.getName();
+		int index = nameA.lastIndexOf('.');
+		return index == nameB.lastIndexOf('.') && nameA.regionMatches(0, nameB, 0, Math.max(index, 0));
+	}
+
+	/**
+	 * Gets the name of codec method, that writes value of <code>clazz</code>.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the name or <code>null</code>, if field is written by accessor
+	 */
+	private static String getWriteMethod(Class<?> clazz)
+	{
+		if (!clazz.isPrimitive())
+		{
+			return "writeValue";
+		}
+		else if (clazz == int.class)
+		{
+			return "writeInt";
+		}
+		else if (clazz == long.class)
+		{
+			return "writeLong";
+		}
+		else if (clazz == double.class)
+		{
+			return "writeDouble";
+		}
+		else if (clazz == float.class)
+		{
+			return "writeFloat";
+		}
+		else if (clazz == boolean.class)
+		{
+			return "writeBoolean";
+		}
+		else if (clazz == char.class)
+		{
+			return "writeChar";
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the name of codec method, that reads value of <code>clazz</code>.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the name or <code>null</code>, if field is read by accessor
+	 */
+	private static String getReadMethod(Class<?> clazz)
+	{
+		if (!clazz.isPrimitive())
+		{
+			return "readValue";
+		}
+		else if (clazz == int.class)
+		{
+			return "readInt";
+		}
+		else if (clazz == long.class)
+		{
+			return "readLong";
+		}
+		else if (clazz == double.class)
+		{
+			return "readDouble";
+		}
+		else if (clazz == float.class)
+		{
+			return "readFloat";
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the descriptor of <code>clazz</code>.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the descriptor
+	 */
+	private static String descriptor(Class<?> clazz)
+	{
+		if (clazz.isArray())
+		{
+			return clazz.getName().replace('.', '/');
+		}
+		else if (!clazz.isPrimitive())
+		{
+			return "L" + clazz.getName().replace('.', '/') + ";";
+		}
+		return MethodType.methodType(clazz).toMethodDescriptorString().substring(2);
+	}
+}
@@ -4,59 +4,47 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class CommonUtils
 {
 	protected static final String DATE_FORMAT_JSON = "yyyy-MM-dd'T'HH:mm:ss";
 	protected static final String DEFAULT_SEPARATOR = "\"";
-	protected static final List<Class<?>> SIMPLE_CLASSES = Arrays.asList(String.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class, Long.class,
-			Number.class, Float.class, Double.class, Date.class, BigDecimal.class, BigInteger.class, boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class);
-	protected static final List<Class<?>> PRIMITIVE_CLASSES = Arrays.asList(boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class);
+	protected static final Set<Class<?>> SIMPLE_CLASSES = setOf(String.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class, Long.class,
+			Number.class, Float.class, Double.class, Date.class, BigDecimal.class, BigInteger.class, Instant.class, LocalDate.class, LocalDateTime.class, OffsetDateTime.class,
+			boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class);
+	protected static final Set<Class<?>> PRIMITIVE_CLASSES = setOf(boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class);
 
 
+	private CommonUtils()
+	{
+	}
+
 	/**
-	 * The Enum ESCAPE_CHARACTERS.
+	 * Creates unmodifiable set of classes.
 	 *
-	 * @author michalt
-	 * @since 0.3.1
+	 * @param classes
+	 *          the classes
+	 * @return the set
 	 */
-	protected enum ESCAPE_CHARACTERS {
-		TAB("\\t", "\t"),
-		CARRIAGE_RETURN("\\r", "\r"),
-		NEW_LINE("\\n", "\n"),
-		FORM_FEED("\\f", "\f"),
-		BACKSPACE("\\b", "\b");
-
-		private final String value;
-		private final String character;
-
-		private ESCAPE_CHARACTERS(String value, String character)
-		{
-			this.value = value;
-			this.character = character;
-		}
-
-		public String getValue()
-		{
-			return value;
-		}
-
-		public String getCharacter()
-		{
-			return character;
-		}
-	}
-
-	private CommonUtils()
+	private static Set<Class<?>> setOf(Class<?>... classes)
 	{
+		return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(classes)));
 	}
 
 	/**
-	 * Gets the fields.
+	 * Gets the fields. Each call walks class hierarchy again, so result is
+	 * meant to be cached by {@link ClassDescriptor}.
 	 *
 	 * @param clazz
 	 *          the clazz
@@ -65,17 +53,16 @@ public class CommonUtils
 	protected static List<Field> getFields(Class<?> clazz)
 	{
 		List<Field> result = new ArrayList<>();
-		List<String> lstFieldNames = new ArrayList<>();
+		Set<String> fieldNames = new HashSet<>();
 
 		Class<?> current = clazz;
 		while (current.getSuperclass() != null && !SIMPLE_CLASSES.contains(current))
 		{
 			for (Field field : current.getDeclaredFields())
 			{
-				if (!lstFieldNames.contains(field.getName()) && !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers()))
+				if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers()) && fieldNames.add(field.getName()))
 				{
 					result.add(field);
-					lstFieldNames.add(field.getName());
 				}
 			}
 			current = current.getSuperclass();
@@ -182,71 +169,6 @@ public class CommonUtils
 		throw new Exception("Unkown primitive type.");
 	}
 
-	@SuppressWarnings("unchecked")
-	protected static <T> Object[] convertPrimitiveArrayToObjects(T array) throws Exception
-	{
-		Class<?> subclazz = array.getClass().getComponentType();
-
-		List<Object> list = new ArrayList<>();
-		if (subclazz.equals(boolean.class))
-		{
-			for (boolean v : (boolean[]) array)
-			{
-				list.add(Boolean.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(byte.class))
-		{
-			for (byte v : (byte[]) array)
-			{
-				list.add(Byte.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(char.class))
-		{
-			for (char v : (char[]) array)
-			{
-				list.add(Character.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(short.class))
-		{
-			for (short v : (short[]) array)
-			{
-				list.add(Short.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(int.class))
-		{
-			for (int v : (int[]) array)
-			{
-				list.add(Integer.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(long.class))
-		{
-			for (long v : (long[]) array)
-			{
-				list.add(Long.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(float.class))
-		{
-			for (float v : (float[]) array)
-			{
-				list.add(Float.valueOf(v));
-			}
-		}
-		else if (subclazz.equals(double.class))
-		{
-			for (double v : (double[]) array)
-			{
-				list.add(Double.valueOf(v));
-			}
-		}
-		return list.toArray();
-	}
-
 	/**
 	 * String Builder replace.
 	 *
@@ -0,0 +1,335 @@
+package cz.tvrzna.jackie;
+
+import java.lang.invoke.MethodType;
+import java.text.DateFormat;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class is carrier of all configuration applicable.
+ *
+ * @author michalt
+ */
+public class Config
+{
+	private DateFormat dateFormat;
+	private ThreadLocal<DateFormat> localDateFormat;
+	private boolean prettyPrint = false;
+	private boolean useObjectWrapper = false;
+	private boolean escapeUnicode = false;
+	private boolean generateCodecs = false;
+	private String prettyLineSymbol = null;
+	private String prettyIndentSymbol = null;
+	private Layout layout;
+	private final Map<Class<?>, Adapter<?>> adapters = new HashMap<>();
+	private ClassValue<Adapter<?>> adapterLookup;
+
+	/**
+	 * Gets the date format.
+	 *
+	 * @return the date format
+	 * @since 0.3.0
+	 */
+	public DateFormat getDateFormat()
+	{
+		return dateFormat;
+	}
+
+	/**
+	 * Sets the date format.
+	 *
+	 * @param dateFormat
+	 *          the new date format
+	 * @since 0.3.0
+	 */
+	public void setDateFormat(DateFormat dateFormat)
+	{
+		this.dateFormat = dateFormat;
+		this.localDateFormat = dateFormat != null ? ThreadLocal.withInitial(() -> (DateFormat) dateFormat.clone()) : null;
+	}
+
+	/**
+	 * Gets the copy of date format owned by current thread. Instance passed to
+	 * {@link #setDateFormat(DateFormat)} is never used directly, because
+	 * <code>DateFormat</code> is not thread-safe.
+	 *
+	 * @return the date format or <code>null</code>, if it is not set
+	 * @since 0.5.0
+	 */
+	protected DateFormat getLocalDateFormat()
+	{
+		return localDateFormat != null ? localDateFormat.get() : null;
+	}
+
+	/**
+	 * Checks if is pretty print.
+	 *
+	 * @return true, if is pretty print
+	 * @since 0.3.0
+	 */
+	public boolean isPrettyPrint()
+	{
+		return prettyPrint;
+	}
+
+	/**
+	 * Sets the pretty print.
+	 *
+	 * @param prettyPrint
+	 *          the new pretty print
+	 * @since 0.3.0
+	 */
+	public void setPrettyPrint(boolean prettyPrint)
+	{
+		this.prettyPrint = prettyPrint;
+		this.layout = null;
+	}
+
+	/**
+	 * Checks if is use object wrapper.
+	 *
+	 * @return true, if is use object wrapper
+	 * @since 0.4.0
+	 */
+	protected boolean isUseObjectWrapper()
+	{
+		return useObjectWrapper;
+	}
+
+	/**
+	 * Sets the use object wrapper. This has meaning, when
+	 * <code>JackieBuilder</code> is used for prettyprint.
+	 *
+	 * @param useObjectWrapper
+	 *          the new use object wrapper
+	 * @since 0.4.0
+	 */
+	protected void setUseObjectWrapper(boolean useObjectWrapper)
+	{
+		this.useObjectWrapper = useObjectWrapper;
+	}
+
+	/**
+	 * Checks if non-ASCII characters are escaped.
+	 *
+	 * @return true, if is escape unicode
+	 * @since 0.5.0
+	 */
+	public boolean isEscapeUnicode()
+	{
+		return escapeUnicode;
+	}
+
+	/**
+	 * Sets if non-ASCII characters are escaped as <code>\\uXXXX</code>.
+	 *
+	 * @param escapeUnicode
+	 *          the new escape unicode
+	 * @since 0.5.0
+	 */
+	public void setEscapeUnicode(boolean escapeUnicode)
+	{
+		this.escapeUnicode = escapeUnicode;
+	}
+
+	/**
+	 * Checks if codecs are generated for serialized classes.
+	 *
+	 * @return true, if is generate codecs
+	 * @since 0.5.0
+	 */
+	public boolean isGenerateCodecs()
+	{
+		return generateCodecs;
+	}
+
+	/**
+	 * Sets if codec, that accesses fields without reflection, is generated for
+	 * each serialized class. Classes, for which codec could not be generated,
+	 * are serialized by reflection.
+	 *
+	 * @param generateCodecs
+	 *          the new generate codecs
+	 * @since 0.5.0
+	 */
+	public void setGenerateCodecs(boolean generateCodecs)
+	{
+		this.generateCodecs = generateCodecs;
+	}
+
+	/**
+	 * Gets the pretty line symbol.
+	 *
+	 * @return the pretty line symbol
+	 * @since 0.4.0
+	 */
+	public String getPrettyLineSymbol()
+	{
+		if (prettyLineSymbol == null)
+		{
+			return "\n";
+		}
+		return prettyLineSymbol;
+	}
+
+	/**
+	 * Sets the pretty line symbol.
+	 *
+	 * @param prettyLineSymbol
+	 *          the new pretty line symbol
+	 * @since 0.4.0
+	 */
+	public void setPrettyLineSymbol(String prettyLineSymbol)
+	{
+		this.prettyLineSymbol = prettyLineSymbol;
+		this.layout = null;
+	}
+
+	/**
+	 * Gets the pretty indent symbol.
+	 *
+	 * @return the pretty indent symbol
+	 * @since 0.4.0
+	 */
+	public String getPrettyIndentSymbol()
+	{
+		if (prettyIndentSymbol == null)
+		{
+			return "\t";
+		}
+		return prettyIndentSymbol;
+	}
+
+	/**
+	 * Sets the pretty indent symbol.
+	 *
+	 * @param prettyIndentSymbol
+	 *          the new pretty indent symbol
+	 * @since 0.4.0
+	 */
+	public void setPrettyIndentSymbol(String prettyIndentSymbol)
+	{
+		this.prettyIndentSymbol = prettyIndentSymbol;
+		this.layout = null;
+	}
+
+	/**
+	 * Sets the adapter, that is used for each value of <code>clazz</code> or its
+	 * subclass, including items of collections and values of maps.
+	 * <code>clazz</code> may be also interface, then adapter is used for each
+	 * its implementation. Adapter declared on field by annotation takes
+	 * precedence. Adapter of primitive type is registered by its wrapper class.
+	 * If <code>adapter</code> is <code>null</code>, registration of
+	 * <code>clazz</code> is removed.
+	 * <p>
+	 * When more registered types match, class itself and its closest superclass
+	 * win over interfaces. Interfaces are searched level by level, starting with
+	 * interfaces of class itself in order of declaration, followed by interfaces
+	 * of its superclasses and then by their superinterfaces.
+	 * </p>
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @param adapter
+	 *          the adapter
+	 * @since 0.5.0
+	 */
+	public <T> void setAdapter(Class<T> clazz, Adapter<T> adapter)
+	{
+		if (adapter != null)
+		{
+			adapters.put(clazz, adapter);
+		}
+		else
+		{
+			adapters.remove(clazz);
+		}
+		adapterLookup = adapters.isEmpty() ? null : createAdapterLookup(new HashMap<>(adapters));
+	}
+
+	/**
+	 * Gets the adapter registered for <code>clazz</code>, its wrapper class,
+	 * closest superclass or interface in order described by
+	 * {@link #setAdapter(Class, Adapter)}. Result is resolved once per class.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the adapter or <code>null</code>
+	 * @since 0.5.0
+	 */
+	protected Adapter<?> getAdapter(Class<?> clazz)
+	{
+		ClassValue<Adapter<?>> lookup = adapterLookup;
+		return lookup != null ? lookup.get(clazz) : null;
+	}
+
+	/**
+	 * Creates lookup of adapters, that are registered in <code>map</code>.
+	 *
+	 * @param map
+	 *          the map
+	 * @return the class value
+	 */
+	private static ClassValue<Adapter<?>> createAdapterLookup(Map<Class<?>, Adapter<?>> map)
+	{
+		return new ClassValue<Adapter<?>>()
+		{
+			@Override
+			protected Adapter<?> computeValue(Class<?> type)
+			{
+				Class<?> current = type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+				Deque<Class<?>> interfaces = new ArrayDeque<>();
+				while (current != null)
+				{
+					Adapter<?> adapter = map.get(current);
+					if (adapter != null)
+					{
+						return adapter;
+					}
+					interfaces.addAll(Arrays.asList(current.getInterfaces()));
+					current = current.getSuperclass();
+				}
+				Set<Class<?>> visited = new HashSet<>();
+				while (!interfaces.isEmpty())
+				{
+					Class<?> iface = interfaces.poll();
+					if (visited.add(iface))
+					{
+						Adapter<?> adapter = map.get(iface);
+						if (adapter != null)
+						{
+							return adapter;
+						}
+						interfaces.addAll(Arrays.asList(iface.getInterfaces()));
+					}
+				}
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Gets the layout of pretty print. It is created on first use after any of
+	 * pretty print options changes.
+	 *
+	 * @return the layout
+	 * @since 0.5.0
+	 */
+	protected Layout getLayout()
+	{
+		Layout result = layout;
+		if (result == null)
+		{
+			layout = result = new Layout(this);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,518 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * The Class DateCodec. Writes and reads dates without creating
+ * <code>DateFormat</code> per value. Default format
+ * {@link CommonUtils#DATE_FORMAT_JSON} is handled by hand-written code in
+ * default time zone, results are cached per second. Custom format of
+ * {@link Config} is used through copy owned by current thread. Types of
+ * <code>java.time</code> are written in ISO-8601 format of their
+ * <code>DateTimeFormatter</code>. Values, that fast paths do not cover, are
+ * passed to JDK formatters, so results are always the same.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class DateCodec
+{
+	private static final long MILLIS_PER_DAY = 86400000L;
+	private static final long GREGORIAN_CUTOVER = -12219292800000L;
+	private static final long MAX_MILLIS = 253402300800000L;
+	private static final ThreadLocal<DateCodec> LOCAL = ThreadLocal.withInitial(DateCodec::new);
+
+	private final char[] text = new char[19];
+	private long second = Long.MIN_VALUE;
+	private int offset;
+	private SimpleDateFormat fallback;
+
+	private DateCodec()
+	{
+	}
+
+	/**
+	 * Checks if <code>clazz</code> is supported type of <code>java.time</code>.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return true, if is temporal
+	 */
+	protected static boolean isTemporal(Class<?> clazz)
+	{
+		return Instant.class.equals(clazz) || LocalDateTime.class.equals(clazz) || OffsetDateTime.class.equals(clazz) || LocalDate.class.equals(clazz);
+	}
+
+	/**
+	 * Writes <code>date</code> without quotes.
+	 *
+	 * @param out
+	 *          the out
+	 * @param date
+	 *          the date
+	 * @param config
+	 *          the config
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void writeDate(Output out, Date date, Config config) throws IOException
+	{
+		DateFormat df = config.getLocalDateFormat();
+		if (df != null)
+		{
+			out.write(df.format(date));
+			return;
+		}
+		LOCAL.get().write(out, date.getTime());
+	}
+
+	/**
+	 * Parses <code>date</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @param config
+	 *          the config
+	 * @return the date
+	 * @throws ParseException
+	 *           the parse exception
+	 */
+	protected static Date parseDate(String value, Config config) throws ParseException
+	{
+		DateFormat df = config.getLocalDateFormat();
+		if (df != null)
+		{
+			return (Date) df.parseObject(value);
+		}
+		return LOCAL.get().parse(value);
+	}
+
+	/**
+	 * Writes supported type of <code>java.time</code> without quotes.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void writeTemporal(Output out, Object value) throws IOException
+	{
+		char[] buffer = out.scratch;
+		if (value instanceof LocalDateTime)
+		{
+			LocalDateTime dateTime = (LocalDateTime) value;
+			if (!fillDate(buffer, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth()))
+			{
+				out.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+				return;
+			}
+			out.write(buffer, 0, fillTime(buffer, dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), dateTime.getNano(), false));
+		}
+		else if (value instanceof OffsetDateTime)
+		{
+			OffsetDateTime dateTime = (OffsetDateTime) value;
+			if (!fillDate(buffer, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth()))
+			{
+				out.write(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime));
+				return;
+			}
+			out.write(buffer, 0, fillTime(buffer, dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), dateTime.getNano(), false));
+			out.write(dateTime.getOffset().getId());
+		}
+		else if (value instanceof Instant)
+		{
+			Instant instant = (Instant) value;
+			long days = Math.floorDiv(instant.getEpochSecond(), 86400L);
+			int secondOfDay = (int) (instant.getEpochSecond() - days * 86400L);
+			if (!fillDate(buffer, days))
+			{
+				out.write(DateTimeFormatter.ISO_INSTANT.format(instant));
+				return;
+			}
+			int length = fillTime(buffer, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, instant.getNano(), true);
+			out.write(buffer, 0, length);
+			out.write('Z');
+		}
+		else
+		{
+			LocalDate date = (LocalDate) value;
+			if (!fillDate(buffer, date.getYear(), date.getMonthValue(), date.getDayOfMonth()))
+			{
+				out.write(DateTimeFormatter.ISO_LOCAL_DATE.format(date));
+				return;
+			}
+			out.write(buffer, 0, 10);
+		}
+	}
+
+	/**
+	 * Parses supported type of <code>java.time</code>. Values in basic form
+	 * without fraction of second are read directly, others are passed to
+	 * <code>parse</code> method of the type.
+	 *
+	 * @param value
+	 *          the value
+	 * @param clazz
+	 *          the clazz
+	 * @return the object
+	 */
+	protected static Object parseTemporal(String value, Class<?> clazz)
+	{
+		int length = value.length();
+		if (LocalDateTime.class.equals(clazz))
+		{
+			return length == 19 && isDateTime(value) ? LocalDateTime.of(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2), digits(value, 11, 2), digits(value, 14, 2),
+					digits(value, 17, 2)) : LocalDateTime.parse(value);
+		}
+		else if (OffsetDateTime.class.equals(clazz))
+		{
+			ZoneOffset offset = length >= 20 ? parseOffset(value) : null;
+			return offset != null && isDateTime(value) ? OffsetDateTime.of(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2), digits(value, 11, 2),
+					digits(value, 14, 2), digits(value, 17, 2), 0, offset) : OffsetDateTime.parse(value);
+		}
+		else if (Instant.class.equals(clazz))
+		{
+			if (length == 20 && value.charAt(19) == 'Z' && isDateTime(value))
+			{
+				long days = epochDay(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2));
+				return Instant.ofEpochSecond(days * 86400L + digits(value, 11, 2) * 3600 + digits(value, 14, 2) * 60 + digits(value, 17, 2));
+			}
+			return Instant.parse(value);
+		}
+		return length == 10 && isDate(value) ? LocalDate.of(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2)) : LocalDate.parse(value);
+	}
+
+	/**
+	 * Parses zone offset <code>Z</code> or <code>+HH:mm</code> following
+	 * <code>yyyy-MM-dd'T'HH:mm:ss</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return the zone offset or <code>null</code>, if it is in other form
+	 */
+	private static ZoneOffset parseOffset(String value)
+	{
+		char sign = value.charAt(19);
+		if (value.length() == 20 && sign == 'Z')
+		{
+			return ZoneOffset.UTC;
+		}
+		else if (value.length() != 25 || (sign != '+' && sign != '-') || value.charAt(22) != ':')
+		{
+			return null;
+		}
+		int hours = digits(value, 20, 2);
+		int minutes = digits(value, 23, 2);
+		if (hours < 0 || hours > 17 || minutes < 0 || minutes > 59)
+		{
+			return null;
+		}
+		int seconds = hours * 3600 + minutes * 60;
+		return ZoneOffset.ofTotalSeconds(sign == '-' ? -seconds : seconds);
+	}
+
+	/**
+	 * Writes epoch <code>millis</code> in default format and time zone. Text of
+	 * last written second is reused, if offset of default time zone is still
+	 * the same.
+	 *
+	 * @param out
+	 *          the out
+	 * @param millis
+	 *          the millis
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void write(Output out, long millis) throws IOException
+	{
+		long current = Math.floorDiv(millis, 1000L);
+		TimeZone zone = TimeZone.getDefault();
+		int currentOffset = zone.getOffset(millis);
+		if (current != second || currentOffset != offset)
+		{
+			long local = millis + currentOffset;
+			if (local < GREGORIAN_CUTOVER || local >= MAX_MILLIS)
+			{
+				out.write(fallback(zone).format(new Date(millis)));
+				return;
+			}
+			long days = Math.floorDiv(local, MILLIS_PER_DAY);
+			int secondOfDay = (int) ((local - days * MILLIS_PER_DAY) / 1000);
+			fillDate(text, days);
+			fillTime(text, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, 0, false);
+			second = current;
+			offset = currentOffset;
+		}
+		out.write(text, 0, text.length);
+	}
+
+	/**
+	 * Parses <code>value</code> in default format and time zone. Value in
+	 * exact form of the format is read directly, if local time is not close to
+	 * change of zone offset.
+	 *
+	 * @param value
+	 *          the value
+	 * @return the date
+	 * @throws ParseException
+	 *           the parse exception
+	 */
+	private Date parse(String value) throws ParseException
+	{
+		TimeZone zone = TimeZone.getDefault();
+		if (value.length() == 19 && isDateTime(value) && digits(value, 0, 4) > 1582)
+		{
+			long local = epochDay(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2)) * MILLIS_PER_DAY
+					+ (digits(value, 11, 2) * 3600 + digits(value, 14, 2) * 60 + digits(value, 17, 2)) * 1000L;
+			int offset = zone.getOffset(local - 2 * MILLIS_PER_DAY);
+			if (offset == zone.getOffset(local + 2 * MILLIS_PER_DAY) && offset == zone.getOffset(local - offset))
+			{
+				return new Date(local - offset);
+			}
+		}
+		return (Date) fallback(zone).parseObject(value);
+	}
+
+	/**
+	 * Gets the <code>SimpleDateFormat</code> of default format for values, that
+	 * fast paths do not cover.
+	 *
+	 * @param zone
+	 *          the zone
+	 * @return the simple date format
+	 */
+	private SimpleDateFormat fallback(TimeZone zone)
+	{
+		if (fallback == null)
+		{
+			fallback = new SimpleDateFormat(CommonUtils.DATE_FORMAT_JSON);
+		}
+		fallback.setTimeZone(zone);
+		return fallback;
+	}
+
+	/**
+	 * Fills <code>yyyy-MM-dd</code> of epoch <code>days</code>.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @param days
+	 *          the days
+	 * @return true, if year has four digits
+	 */
+	private static boolean fillDate(char[] buffer, long days)
+	{
+		long z = days + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		int dayOfEra = (int) (z - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int mp = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+		int month = mp < 10 ? mp + 3 : mp - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return year >= 0 && year <= 9999 && fillDate(buffer, (int) year, month, day);
+	}
+
+	/**
+	 * Fills <code>yyyy-MM-dd</code>.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @param year
+	 *          the year
+	 * @param month
+	 *          the month
+	 * @param day
+	 *          the day
+	 * @return true, if year has four digits
+	 */
+	private static boolean fillDate(char[] buffer, int year, int month, int day)
+	{
+		if (year < 0 || year > 9999)
+		{
+			return false;
+		}
+		fill(buffer, 0, year / 100);
+		fill(buffer, 2, year % 100);
+		buffer[4] = '-';
+		fill(buffer, 5, month);
+		buffer[7] = '-';
+		fill(buffer, 8, day);
+		return true;
+	}
+
+	/**
+	 * Fills <code>'T'HH:mm:ss</code> with optional fraction of second after
+	 * date.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @param hour
+	 *          the hour
+	 * @param minute
+	 *          the minute
+	 * @param second
+	 *          the second
+	 * @param nano
+	 *          the nano
+	 * @param groups
+	 *          if fraction is written in groups of three digits, otherwise
+	 *          trailing zeros are omitted
+	 * @return the total length
+	 */
+	private static int fillTime(char[] buffer, int hour, int minute, int second, int nano, boolean groups)
+	{
+		buffer[10] = 'T';
+		fill(buffer, 11, hour);
+		buffer[13] = ':';
+		fill(buffer, 14, minute);
+		buffer[16] = ':';
+		fill(buffer, 17, second);
+		if (nano == 0)
+		{
+			return 19;
+		}
+		buffer[19] = '.';
+		int value = nano;
+		for (int i = 28; i > 19; i--)
+		{
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		int length = 29;
+		if (groups)
+		{
+			length = nano % 1000000 == 0 ? 23 : nano % 1000 == 0 ? 26 : 29;
+		}
+		else
+		{
+			while (buffer[length - 1] == '0')
+			{
+				length--;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Fills two digits of <code>value</code> at <code>offset</code>.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @param offset
+	 *          the offset
+	 * @param value
+	 *          the value
+	 */
+	private static void fill(char[] buffer, int offset, int value)
+	{
+		buffer[offset] = (char) ('0' + value / 10);
+		buffer[offset + 1] = (char) ('0' + value % 10);
+	}
+
+	/**
+	 * Checks, if <code>value</code> starts with valid
+	 * <code>yyyy-MM-dd</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return true, if is date
+	 */
+	private static boolean isDate(String value)
+	{
+		if (value.charAt(4) != '-' || value.charAt(7) != '-')
+		{
+			return false;
+		}
+		int year = digits(value, 0, 4);
+		int month = digits(value, 5, 2);
+		int day = digits(value, 8, 2);
+		if (year < 0 || month < 1 || month > 12 || day < 1)
+		{
+			return false;
+		}
+		int length = month == 2 ? (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28) : 30 + ((month + (month >> 3)) & 1);
+		return day <= length;
+	}
+
+	/**
+	 * Checks, if <code>value</code> starts with valid
+	 * <code>yyyy-MM-dd'T'HH:mm:ss</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return true, if is date time
+	 */
+	private static boolean isDateTime(String value)
+	{
+		if (!isDate(value) || value.charAt(10) != 'T' || value.charAt(13) != ':' || value.charAt(16) != ':')
+		{
+			return false;
+		}
+		int hour = digits(value, 11, 2);
+		int minute = digits(value, 14, 2);
+		int second = digits(value, 17, 2);
+		return hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60;
+	}
+
+	/**
+	 * Reads <code>count</code> decimal digits.
+	 *
+	 * @param value
+	 *          the value
+	 * @param offset
+	 *          the offset
+	 * @param count
+	 *          the count
+	 * @return the number or <code>-1</code>, if any character is not digit
+	 */
+	private static int digits(String value, int offset, int count)
+	{
+		int result = 0;
+		for (int i = offset; i < offset + count; i++)
+		{
+			int digit = value.charAt(i) - '0';
+			if (digit < 0 || digit > 9)
+			{
+				return -1;
+			}
+			result = result * 10 + digit;
+		}
+		return result;
+	}
+
+	/**
+	 * Computes epoch day of date in proleptic Gregorian calendar.
+	 *
+	 * @param year
+	 *          the year
+	 * @param month
+	 *          the month
+	 * @param day
+	 *          the day
+	 * @return the long
+	 */
+	private static long epochDay(int year, int month, int day)
+	{
+		int y = month <= 2 ? year - 1 : year;
+		int era = (y >= 0 ? y : y - 399) / 400;
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+}
@@ -0,0 +1,793 @@
+package cz.tvrzna.jackie;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import cz.tvrzna.jackie.ClassDescriptor.Property;
+import cz.tvrzna.jackie.Tokenizer.Token;
+
+/**
+ * The Class DeserializationMapper.
+ *
+ * @author michalt
+ */
+public class DeserializationMapper
+{
+	private DeserializationMapper()
+	{
+	}
+
+	/**
+	 * Convert from.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param clazz
+	 *          the clazz
+	 * @param subClazz
+	 *          the sub clazz
+	 * @param subClazz2
+	 *          the sub clazz 2
+	 * @param config
+	 *          the config
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> T convertToObject(Object object, Class<T> clazz, Class<?> subClazz, Class<?> subClazz2, Config config) throws Exception
+	{
+		Class<T> tmpClazz = clazz;
+		if (Object.class.equals(tmpClazz) && object != null && object.getClass() != null)
+		{
+			tmpClazz = (Class<T>) object.getClass();
+		}
+
+		if (ObjectWrapper.class.isAssignableFrom(object.getClass()))
+		{
+			return ((ObjectWrapper<T>) object).getValue();
+		}
+
+		Adapter<?> adapter = config.getAdapter(clazz);
+		if (adapter != null && object instanceof String)
+		{
+			return "null".equals(object) ? null : (T) adapter.deserialize((String) object);
+		}
+		else if (ClassDescriptor.of(tmpClazz).isSimple())
+		{
+			return (T) deserializeValue((String) object, tmpClazz, config);
+		}
+		else if (Collection.class.isAssignableFrom(tmpClazz))
+		{
+			Class<?> lstSubClazz = subClazz;
+			if (lstSubClazz == null)
+			{
+				lstSubClazz = Object.class;
+			}
+			return (T) convertFromList((List<Object>) object, lstSubClazz, config);
+		}
+		else if (tmpClazz.isArray())
+		{
+			Class<?> arrSubClazz = tmpClazz.getComponentType();
+			List<?> list = convertFromList((List<Object>) object, arrSubClazz, config);
+			if (CommonUtils.PRIMITIVE_CLASSES.contains(arrSubClazz))
+			{
+				return CommonUtils.convertArrayToPrimitive(list, arrSubClazz);
+			}
+			return (T) list.toArray((T[]) Array.newInstance(arrSubClazz, 0));
+		}
+		else if (Map.class.isAssignableFrom(tmpClazz))
+		{
+			Class<?> keyClazz = subClazz;
+			Class<?> valueClazz = subClazz2;
+			if (keyClazz == null || valueClazz == null)
+			{
+				keyClazz = Object.class;
+				valueClazz = Object.class;
+			}
+			return (T) convertFromMap((Map<String, Object>) object, keyClazz, valueClazz, config);
+		}
+		return convertFromMapToObject((Map<String, Object>) object, tmpClazz, config);
+	}
+
+	/**
+	 * Reads value from <code>tokenizer</code> straight into instance of
+	 * <code>clazz</code>. Intermediate <code>Map</code> or <code>List</code> is
+	 * built only for values bound to <code>Object</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param subClazz
+	 *          the sub clazz
+	 * @param subClazz2
+	 *          the sub clazz 2
+	 * @param config
+	 *          the config
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 * @since 0.5.0
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> T readObject(Tokenizer tokenizer, Class<T> clazz, Class<?> subClazz, Class<?> subClazz2, Config config) throws Exception
+	{
+		if (Object.class.equals(clazz))
+		{
+			if (tokenizer.peek() == Token.EOF)
+			{
+				return null;
+			}
+			return convertToObject(Deserializator.deserializeValue(tokenizer, config), clazz, subClazz, subClazz2, config);
+		}
+
+		Adapter<?> adapter = config.getAdapter(clazz);
+		if (adapter != null)
+		{
+			return readAdapted(tokenizer, clazz, adapter);
+		}
+
+		boolean simple = ClassDescriptor.of(clazz).isSimple();
+		switch (tokenizer.peek())
+		{
+			case STRING:
+			case LITERAL:
+				tokenizer.next();
+				if (simple)
+				{
+					return (T) deserializeValue(tokenizer, clazz, config);
+				}
+				else if (tokenizer.textEquals("null"))
+				{
+					return null;
+				}
+				throw new Exception("Value could not be converted to " + clazz.getName() + ".");
+			case START_OBJECT:
+				tokenizer.next();
+				if (Map.class.isAssignableFrom(clazz))
+				{
+					Class<?> keyClazz = subClazz;
+					Class<?> valueClazz = subClazz2;
+					if (keyClazz == null || valueClazz == null)
+					{
+						keyClazz = Object.class;
+						valueClazz = Object.class;
+					}
+					return (T) readMap(tokenizer, keyClazz, valueClazz, config);
+				}
+				else if (!simple && !clazz.isArray() && !Collection.class.isAssignableFrom(clazz))
+				{
+					return readFields(tokenizer, clazz, config);
+				}
+				throw new Exception("Object could not be converted to " + clazz.getName() + ".");
+			case START_ARRAY:
+				tokenizer.next();
+				if (Collection.class.isAssignableFrom(clazz))
+				{
+					Class<?> lstSubClazz = subClazz;
+					if (lstSubClazz == null)
+					{
+						lstSubClazz = Object.class;
+					}
+					return (T) readList(tokenizer, lstSubClazz, config);
+				}
+				else if (clazz.isArray())
+				{
+					Class<?> arrSubClazz = clazz.getComponentType();
+					List<?> list = readList(tokenizer, arrSubClazz, config);
+					if (CommonUtils.PRIMITIVE_CLASSES.contains(arrSubClazz))
+					{
+						return CommonUtils.convertArrayToPrimitive(list, arrSubClazz);
+					}
+					return (T) list.toArray((T[]) Array.newInstance(arrSubClazz, 0));
+				}
+				throw new Exception("Array could not be converted to " + clazz.getName() + ".");
+			case EOF:
+				return null;
+			default:
+				return simple ? (T) deserializeValue("", clazz, config) : null;
+		}
+	}
+
+	/**
+	 * Reads value of <code>clazz</code> by adapter registered in config. Value
+	 * <code>null</code> is returned without calling adapter.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param adapter
+	 *          the adapter
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T readAdapted(Tokenizer tokenizer, Class<T> clazz, Adapter<?> adapter) throws Exception
+	{
+		Token token = tokenizer.peek();
+		if (token == Token.EOF)
+		{
+			return null;
+		}
+		else if (token != Token.STRING && token != Token.LITERAL)
+		{
+			throw new Exception("Adapter of " + clazz.getName() + " requires value.");
+		}
+		tokenizer.next();
+		return tokenizer.textEquals("null") ? null : (T) adapter.deserialize(tokenizer.text());
+	}
+
+	/**
+	 * Reads object fields, opening bracket is already consumed. Values of
+	 * unknown keys are skipped. Keys of class with codec are resolved by codec,
+	 * so fields of class are not looked up by reflection.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static <T> T readFields(Tokenizer tokenizer, Class<T> clazz, Config config) throws Exception
+	{
+		ClassDescriptor descriptor = ClassDescriptor.of(clazz);
+		GeneratedCodec codec = descriptor.getCodec(config);
+		T result = codec != null ? clazz.cast(codec.newInstance()) : descriptor.<T> newInstance();
+
+		while (true)
+		{
+			switch (tokenizer.nextName())
+			{
+				case EOF:
+				case END_OBJECT:
+					return result;
+				case STRING:
+				case LITERAL:
+					if (tokenizer.peek() != Token.COLON)
+					{
+						break;
+					}
+					if (codec != null)
+					{
+						int index = codec.indexOf(tokenizer.name());
+						tokenizer.next();
+						if (index < 0)
+						{
+							tokenizer.skipValue();
+						}
+						else
+						{
+							codec.readField(result, index, tokenizer, config);
+						}
+						break;
+					}
+					Property property = descriptor.getProperty(tokenizer.name());
+					tokenizer.next();
+					if (property == null)
+					{
+						tokenizer.skipValue();
+					}
+					else
+					{
+						fillField(result, tokenizer, property, config);
+					}
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Reads map, opening bracket is already consumed.
+	 *
+	 * @param <K>
+	 *          the key type
+	 * @param <V>
+	 *          the value type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @param config
+	 *          the config
+	 * @return the map
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Map<K, V> readMap(Tokenizer tokenizer, Class<K> keyClazz, Class<V> valueClazz, Config config) throws Exception
+	{
+		Map<K, V> result = new LinkedHashMap<>();
+
+		while (true)
+		{
+			switch (tokenizer.nextName())
+			{
+				case EOF:
+				case END_OBJECT:
+					return result;
+				case STRING:
+				case LITERAL:
+					if (tokenizer.peek() != Token.COLON)
+					{
+						break;
+					}
+					K key = (K) ((String.class.equals(keyClazz) || Object.class.equals(keyClazz)) && !tokenizer.textEquals("null") ? tokenizer.name() : deserializeValue(tokenizer.text(), keyClazz, config));
+					tokenizer.next();
+					result.put(key, readObject(tokenizer, valueClazz, null, null, config));
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Reads list, opening bracket is already consumed. Each item is added, when
+	 * it is followed by <code>,</code> or <code>]</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the list
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static <T> List<T> readList(Tokenizer tokenizer, Class<T> clazz, Config config) throws Exception
+	{
+		List<T> result = new ArrayList<>();
+
+		while (true)
+		{
+			switch (tokenizer.peek())
+			{
+				case EOF:
+					return result;
+				case END_ARRAY:
+					tokenizer.next();
+					return result;
+				case START_OBJECT:
+				case START_ARRAY:
+				case STRING:
+				case LITERAL:
+					T value = readObject(tokenizer, clazz, null, null, config);
+					while (true)
+					{
+						Token token = tokenizer.next();
+						if (token == Token.EOF)
+						{
+							return result;
+						}
+						else if (token == Token.COMMA)
+						{
+							result.add(value);
+							break;
+						}
+						else if (token == Token.END_ARRAY)
+						{
+							result.add(value);
+							return result;
+						}
+					}
+					break;
+				default:
+					tokenizer.next();
+			}
+		}
+	}
+
+	/**
+	 * Deserialize value of last token. Numbers are parsed directly from scratch
+	 * buffer of <code>tokenizer</code>.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the object
+	 * @throws ParseException
+	 *           the parse exception
+	 */
+	private static Object deserializeValue(Tokenizer tokenizer, Class<?> clazz, Config config) throws ParseException
+	{
+		if (tokenizer.textEquals("null"))
+		{
+			return null;
+		}
+		char[] text = tokenizer.textBuffer();
+		int length = tokenizer.textLength();
+		if (Integer.class.equals(clazz) || int.class.equals(clazz))
+		{
+			return NumberParser.parseInt(text, 0, length);
+		}
+		else if (Long.class.equals(clazz) || long.class.equals(clazz))
+		{
+			return NumberParser.parseLong(text, 0, length);
+		}
+		else if (Double.class.equals(clazz) || double.class.equals(clazz))
+		{
+			return NumberParser.parseDouble(text, 0, length);
+		}
+		else if (Float.class.equals(clazz) || float.class.equals(clazz))
+		{
+			return NumberParser.parseFloat(text, 0, length);
+		}
+		else if (Short.class.equals(clazz) || short.class.equals(clazz))
+		{
+			return NumberParser.parseShort(text, 0, length);
+		}
+		else if (BigDecimal.class.equals(clazz))
+		{
+			return new BigDecimal(text, 0, length);
+		}
+		return deserializeValue(tokenizer.text(), clazz, config);
+	}
+
+	/**
+	 * Deserialize value.
+	 *
+	 * @param value
+	 *          the value
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the object
+	 * @throws ParseException
+	 *           the parse exception
+	 */
+	@SuppressWarnings(
+	{ "unchecked", "rawtypes" })
+	private static Object deserializeValue(String value, Class<?> clazz, Config config) throws ParseException
+	{
+		if ("null".equals(value))
+		{
+			return null;
+		}
+		else if (Boolean.class.equals(clazz) || boolean.class.equals(clazz))
+		{
+			return Boolean.parseBoolean(value);
+		}
+		else if (Short.class.equals(clazz) || short.class.equals(clazz))
+		{
+			return Short.parseShort(value);
+		}
+		else if (Integer.class.equals(clazz) || int.class.equals(clazz))
+		{
+			return Integer.parseInt(value);
+		}
+		else if (Long.class.equals(clazz) || long.class.equals(clazz))
+		{
+			return Long.parseLong(value);
+		}
+		else if (Float.class.equals(clazz) || float.class.equals(clazz))
+		{
+			return Float.parseFloat(value);
+		}
+		else if (Double.class.equals(clazz) || double.class.equals(clazz))
+		{
+			return Double.parseDouble(value);
+		}
+		else if (BigInteger.class.equals(clazz))
+		{
+			return new BigInteger(value);
+		}
+		else if (BigDecimal.class.equals(clazz))
+		{
+			return new BigDecimal(value);
+		}
+		else if (Date.class.equals(clazz))
+		{
+			return DateCodec.parseDate(value, config);
+		}
+		else if (DateCodec.isTemporal(clazz))
+		{
+			return DateCodec.parseTemporal(value, clazz);
+		}
+		else if (Enum.class.isAssignableFrom(clazz))
+		{
+			return Enum.valueOf((Class<? extends Enum>) clazz, value);
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Convert from.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static <T> T convertToObject(Object object, Class<T> clazz, Config config) throws Exception
+	{
+		return convertToObject(object, clazz, null, null, config);
+	}
+
+	/**
+	 * Convert from.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param clazz
+	 *          the clazz
+	 * @param subClazz
+	 *          the sub clazz
+	 * @param config
+	 *          the config
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static <T> T convertToObject(Object object, Class<T> clazz, Class<?> subClazz, Config config) throws Exception
+	{
+		return convertToObject(object, clazz, subClazz, null, config);
+	}
+
+	/**
+	 * Convert from map to object.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param map
+	 *          the map
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the t
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static <T> T convertFromMapToObject(Map<String, Object> map, Class<T> clazz, Config config) throws Exception
+	{
+		ClassDescriptor descriptor = ClassDescriptor.of(clazz);
+		T result = descriptor.newInstance();
+
+		for (Property property : descriptor.getProperties())
+		{
+			fillField(result, map, property, config);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Convert from map.
+	 *
+	 * @param <K>
+	 *          the key type
+	 * @param <V>
+	 *          the value type
+	 * @param map
+	 *          the map
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @param config
+	 *          the config
+	 * @return the map
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Map<K, V> convertFromMap(Map<String, Object> map, Class<K> keyClazz, Class<V> valueClazz, Config config) throws Exception
+	{
+		Map<K, V> result = new LinkedHashMap<>();
+		for (Entry<String, Object> entry : map.entrySet())
+		{
+			result.put((K) deserializeValue(entry.getKey(), keyClazz, config), convertToObject(entry.getValue(), valueClazz, config));
+		}
+		return result;
+	}
+
+	/**
+	 * Convert from list.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param lst
+	 *          the lst
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the list
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static <T> List<T> convertFromList(List<Object> lst, Class<T> clazz, Config config) throws Exception
+	{
+		List<T> result = new ArrayList<>();
+		for (Object object : lst)
+		{
+			result.add(convertToObject(object, clazz, config));
+		}
+		return result;
+	}
+
+	/**
+	 * Fill field with value read from <code>tokenizer</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param result
+	 *          the result
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param property
+	 *          the property
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static <T> void fillField(T result, Tokenizer tokenizer, Property property, Config config) throws Exception
+	{
+		Class<?> clazz = property.getType();
+		if (property.isPrimitive() && config.getAdapter(clazz) == null && fillPrimitive(result, tokenizer, property.getAccessor(), clazz))
+		{
+			return;
+		}
+
+		Object value = readValue(tokenizer, property, config);
+		if (value != null || !clazz.isPrimitive())
+		{
+			property.getAccessor().set(result, value);
+		}
+	}
+
+	/**
+	 * Reads value of <code>property</code> from <code>tokenizer</code>, using
+	 * adapter of property, if it is declared.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param property
+	 *          the property
+	 * @param config
+	 *          the config
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static Object readValue(Tokenizer tokenizer, Property property, Config config) throws Exception
+	{
+		Adapter<?> adapter = property.getAdapter();
+		if (adapter != null)
+		{
+			Token token = tokenizer.peek();
+			if (token != Token.STRING && token != Token.LITERAL)
+			{
+				throw new Exception("Adapter of field " + property.getName() + " requires value.");
+			}
+			tokenizer.next();
+			return adapter.deserialize(tokenizer.text());
+		}
+		return readObject(tokenizer, property.getType(), property.getSubClazz(), property.getSubClazz2(), config);
+	}
+
+	/**
+	 * Fills numeric primitive field without boxing. Value <code>null</code>
+	 * leaves field untouched.
+	 *
+	 * @param result
+	 *          the result
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param accessor
+	 *          the accessor
+	 * @param clazz
+	 *          the clazz
+	 * @return true, if value was consumed
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static boolean fillPrimitive(Object result, Tokenizer tokenizer, Accessor accessor, Class<?> clazz) throws Exception
+	{
+		Token token = tokenizer.peek();
+		if ((token != Token.STRING && token != Token.LITERAL) || (clazz != int.class && clazz != long.class && clazz != double.class && clazz != float.class))
+		{
+			return false;
+		}
+		tokenizer.next();
+		if (tokenizer.textEquals("null"))
+		{
+			return true;
+		}
+		char[] text = tokenizer.textBuffer();
+		int length = tokenizer.textLength();
+		if (clazz == int.class)
+		{
+			accessor.setInt(result, NumberParser.parseInt(text, 0, length));
+		}
+		else if (clazz == long.class)
+		{
+			accessor.setLong(result, NumberParser.parseLong(text, 0, length));
+		}
+		else if (clazz == double.class)
+		{
+			accessor.setDouble(result, NumberParser.parseDouble(text, 0, length));
+		}
+		else
+		{
+			accessor.setFloat(result, NumberParser.parseFloat(text, 0, length));
+		}
+		return true;
+	}
+
+	/**
+	 * Fill field.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param result
+	 *          the result
+	 * @param map
+	 *          the map
+	 * @param property
+	 *          the property
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T, A> void fillField(T result, Map<String, Object> map, Property property, Config config) throws Exception
+	{
+		Object value = map.get(property.getName());
+		Class<A> clazz = (Class<A>) property.getType();
+
+		if (value == null)
+		{
+			return;
+		}
+
+		Adapter<A> adapter = (Adapter<A>) property.getAdapter();
+		property.getAccessor().set(result, adapter == null ? convertToObject(value, clazz, property.getSubClazz(), property.getSubClazz2(), config) : adapter.deserialize((String) value));
+	}
+}
@@ -0,0 +1,291 @@
+package cz.tvrzna.jackie;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cz.tvrzna.jackie.Tokenizer.Token;
+
+/**
+ * The Class Deserializator.
+ *
+ * @author michalt
+ */
+public class Deserializator
+{
+	private Deserializator()
+	{
+	}
+
+	/**
+	 * Deserialize.
+	 *
+	 * @param input
+	 *          the input
+	 * @param config
+	 *          the config
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static Object deserialize(String input, Config config) throws Exception
+	{
+		return deserialize(new CharTokenizer(input), config);
+	}
+
+	/**
+	 * Deserialize.
+	 *
+	 * @param input the input
+	 * @param config the config
+	 * @return the object
+	 * @throws Exception the exception
+	 */
+	protected static Object deserialize(InputStream input, Config config) throws Exception
+	{
+		Tokenizer tokenizer = new Utf8Tokenizer(input);
+		try
+		{
+			return deserialize(tokenizer, config);
+		}
+		finally
+		{
+			tokenizer.release();
+		}
+	}
+
+	/**
+	 * Deserialize.
+	 *
+	 * @param tokenizer the tokenizer
+	 * @param config the config
+	 * @return the object
+	 * @throws Exception the exception
+	 */
+	protected static Object deserialize(Tokenizer tokenizer, Config config) throws Exception
+	{
+		if (tokenizer.peek() == Token.EOF)
+		{
+			return null;
+		}
+		return deserializeValue(tokenizer, config);
+	}
+
+	/**
+	 * Deserialize to map, opening bracket is already consumed.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @return the map
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static Map<String, Object> deserializeToMap(Tokenizer tokenizer, Config config) throws Exception
+	{
+		Map<String, Object> result = new LinkedHashMap<>();
+
+		while (true)
+		{
+			switch (tokenizer.nextName())
+			{
+				case EOF:
+				case END_OBJECT:
+					return result;
+				case STRING:
+				case LITERAL:
+					String key = tokenizer.name();
+					if (tokenizer.peek() == Token.COLON)
+					{
+						tokenizer.next();
+						result.put(key, deserializeValue(tokenizer, config));
+					}
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Deserialize to list, opening bracket is already consumed. Each item is
+	 * added, when it is followed by <code>,</code> or <code>]</code>.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @return the list
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static List<Object> deserializeToList(Tokenizer tokenizer, Config config) throws Exception
+	{
+		List<Object> result = new ArrayList<>();
+
+		while (true)
+		{
+			switch (tokenizer.peek())
+			{
+				case EOF:
+					return result;
+				case END_ARRAY:
+					tokenizer.next();
+					return result;
+				case START_OBJECT:
+				case START_ARRAY:
+				case STRING:
+				case LITERAL:
+					Object value = deserializeValue(tokenizer, config);
+					while (true)
+					{
+						Token token = tokenizer.next();
+						if (token == Token.EOF)
+						{
+							return result;
+						}
+						else if (token == Token.COMMA)
+						{
+							result.add(value);
+							break;
+						}
+						else if (token == Token.END_ARRAY)
+						{
+							result.add(value);
+							return result;
+						}
+					}
+					break;
+				default:
+					tokenizer.next();
+			}
+		}
+	}
+
+	/**
+	 * Deserialize value. If there is no value, empty <code>String</code> is
+	 * returned and following token is not consumed.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static Object deserializeValue(Tokenizer tokenizer, Config config) throws Exception
+	{
+		switch (tokenizer.peek())
+		{
+			case START_OBJECT:
+				tokenizer.next();
+				return deserializeToMap(tokenizer, config);
+			case START_ARRAY:
+				tokenizer.next();
+				return deserializeToList(tokenizer, config);
+			case STRING:
+				tokenizer.next();
+				return tokenizer.text();
+			case LITERAL:
+				tokenizer.next();
+				return deserializeLiteral(tokenizer, config);
+			default:
+				return "";
+		}
+	}
+
+	/**
+	 * Deserialize unquoted literal. If <code>ObjectWrapper</code> is used,
+	 * numbers and booleans are wrapped.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @return the object
+	 */
+	private static Object deserializeLiteral(Tokenizer tokenizer, Config config)
+	{
+		return deserializeLiteral(tokenizer.textBuffer(), tokenizer.textLength(), config);
+	}
+
+	/**
+	 * Deserialize unquoted literal stored in first <code>length</code> chars of
+	 * <code>text</code>. If <code>ObjectWrapper</code> is used, numbers and
+	 * booleans are wrapped.
+	 *
+	 * @param text
+	 *          the text
+	 * @param length
+	 *          the length
+	 * @param config
+	 *          the config
+	 * @return the object
+	 */
+	protected static Object deserializeLiteral(char[] text, int length, Config config)
+	{
+		if (config.isUseObjectWrapper())
+		{
+			int decimal = numericType(text, length);
+			if (decimal > 0)
+			{
+				return new ObjectWrapper<>(new BigDecimal(text, 0, length));
+			}
+			else if (decimal == 0)
+			{
+				if (length < 19)
+				{
+					return new ObjectWrapper<>(BigInteger.valueOf(NumberParser.parseLong(text, 0, length)));
+				}
+				return new ObjectWrapper<>(new BigInteger(new String(text, 0, length)));
+			}
+			else if (length == 4 && text[0] == 't' && text[1] == 'r' && text[2] == 'u' && text[3] == 'e')
+			{
+				return new ObjectWrapper<>(Boolean.TRUE);
+			}
+			else if (length == 5 && text[0] == 'f' && text[1] == 'a' && text[2] == 'l' && text[3] == 's' && text[4] == 'e')
+			{
+				return new ObjectWrapper<>(Boolean.FALSE);
+			}
+		}
+		return new String(text, 0, length);
+	}
+
+	/**
+	 * Checks, if literal is numeric, in a single pass.
+	 *
+	 * @param value
+	 *          the value
+	 * @param length
+	 *          the length
+	 * @return <code>-1</code> if not numeric, <code>1</code> if it contains
+	 *         decimal separator, otherwise <code>0</code>
+	 */
+	private static int numericType(char[] value, int length)
+	{
+		if (length == 0)
+		{
+			return -1;
+		}
+		int result = 0;
+		for (int i = 0; i < length; i++)
+		{
+			char c = value[i];
+			if (c == '.' || c == ',')
+			{
+				result = 1;
+			}
+			else if (!Character.isDigit(c))
+			{
+				return -1;
+			}
+		}
+		return result;
+	}
+}
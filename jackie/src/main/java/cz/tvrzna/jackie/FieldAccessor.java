@@ -0,0 +1,133 @@
+package cz.tvrzna.jackie;
+
+import java.lang.reflect.Field;
+
+/**
+ * The Class FieldAccessor. Accessor, that uses <code>Field</code> directly.
+ * It is fallback for environments, where method handles of field could not be
+ * created. Field is made accessible, if it is permitted, otherwise only access
+ * allowed by its modifiers works and other access fails, when value is read or
+ * written.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class FieldAccessor extends Accessor
+{
+	private final Field field;
+	private final boolean accessible;
+
+	/**
+	 * Instantiates a new field accessor.
+	 *
+	 * @param field
+	 *          the field
+	 */
+	protected FieldAccessor(Field field)
+	{
+		this.field = field;
+		this.accessible = makeAccessible(field);
+	}
+
+	/**
+	 * Checks if field was made accessible.
+	 *
+	 * @return true, if is accessible
+	 */
+	protected boolean isAccessible()
+	{
+		return accessible;
+	}
+
+	/**
+	 * Makes field accessible, if module or security manager permits it.
+	 *
+	 * @param field
+	 *          the field
+	 * @return true, if field is accessible
+	 */
+	private static boolean makeAccessible(Field field)
+	{
+		try
+		{
+			field.setAccessible(true);
+			return true;
+		}
+		catch (RuntimeException e)
+		{
+			return false;
+		}
+	}
+
+	@Override
+	protected Object get(Object target) throws Exception
+	{
+		return field.get(target);
+	}
+
+	@Override
+	protected int getInt(Object target) throws Exception
+	{
+		return field.getInt(target);
+	}
+
+	@Override
+	protected long getLong(Object target) throws Exception
+	{
+		return field.getLong(target);
+	}
+
+	@Override
+	protected double getDouble(Object target) throws Exception
+	{
+		return field.getDouble(target);
+	}
+
+	@Override
+	protected float getFloat(Object target) throws Exception
+	{
+		return field.getFloat(target);
+	}
+
+	@Override
+	protected boolean getBoolean(Object target) throws Exception
+	{
+		return field.getBoolean(target);
+	}
+
+	@Override
+	protected char getChar(Object target) throws Exception
+	{
+		return field.getChar(target);
+	}
+
+	@Override
+	protected void set(Object target, Object value) throws Exception
+	{
+		field.set(target, value);
+	}
+
+	@Override
+	protected void setInt(Object target, int value) throws Exception
+	{
+		field.setInt(target, value);
+	}
+
+	@Override
+	protected void setLong(Object target, long value) throws Exception
+	{
+		field.setLong(target, value);
+	}
+
+	@Override
+	protected void setDouble(Object target, double value) throws Exception
+	{
+		field.setDouble(target, value);
+	}
+
+	@Override
+	protected void setFloat(Object target, float value) throws Exception
+	{
+		field.setFloat(target, value);
+	}
+}
@@ -0,0 +1,797 @@
+package cz.tvrzna.jackie;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+import cz.tvrzna.jackie.ClassDescriptor.Property;
+import cz.tvrzna.jackie.Tokenizer.Token;
+
+/**
+ * The Class GeneratedCodec. Base of codecs, that {@link CodecGenerator}
+ * creates for single class at runtime, or <code>jackie-processor</code>
+ * generates at compile time. Subclass reads and writes each field directly,
+ * this class provides helpers, that do the rest by index of property.
+ * Helpers are <code>protected final</code>, so they are accessible to
+ * subclass defined in package of described class.
+ * <p>
+ * Codecs generated at compile time are registered as services of this class
+ * and need public constructor without parameters. They describe their fields
+ * by {@link #declare(int, String, Class, Class, Class, Adapter)}, so neither
+ * codec nor objects read and written by it touch reflection, and native image
+ * needs no reflection configuration for them. Only fields declared by
+ * {@link #declare(int, String)} are accessed by reflection. Services are
+ * looked up by class loader of described class, provider, that fails to
+ * load, is skipped. Codec, whose fields do not match its class, fails every
+ * use of that class.
+ * </p>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public abstract class GeneratedCodec
+{
+	private static final Map<ClassLoader, Reference<Map<Class<?>, Object>>> LOADED = new WeakHashMap<>();
+	private static final ClassValue<GeneratedCodec> PROVIDED = new ClassValue<GeneratedCodec>()
+	{
+		@Override
+		protected GeneratedCodec computeValue(Class<?> type)
+		{
+			Object result = load(type.getClassLoader()).get(type);
+			if (result instanceof MismatchException)
+			{
+				throw new IllegalStateException("Codec of " + type.getName() + " does not match its class.", (MismatchException) result);
+			}
+			return (GeneratedCodec) result;
+		}
+	};
+
+	private final Class<?> type;
+	private final String[] names;
+	private final Property[] properties;
+	private final Property[] resolved;
+	private final Map<String, Integer> indexes = new HashMap<>();
+
+	/**
+	 * Instantiates a new codec of <code>type</code>, that uses indexes of
+	 * properties in {@link ClassDescriptor}.
+	 *
+	 * @param type
+	 *          the type
+	 */
+	protected GeneratedCodec(Class<?> type)
+	{
+		this(type, ClassDescriptor.of(type).getProperties());
+	}
+
+	/**
+	 * Instantiates a new codec of <code>type</code>, that uses indexes of
+	 * <code>fields</code>. Properties, that are not listed, are neither read
+	 * nor written.
+	 *
+	 * @param type
+	 *          the type
+	 * @param fields
+	 *          the names of fields
+	 * @throws IllegalArgumentException
+	 *           if any of fields is not property of type
+	 */
+	protected GeneratedCodec(Class<?> type, String... fields)
+	{
+		this(type, find(type, fields));
+	}
+
+	/**
+	 * Instantiates a new codec of <code>type</code> with
+	 * <code>properties</code>.
+	 *
+	 * @param type
+	 *          the type
+	 * @param properties
+	 *          the properties
+	 */
+	private GeneratedCodec(Class<?> type, Property[] properties)
+	{
+		this(type, properties.length);
+		for (int i = 0; i < properties.length; i++)
+		{
+			names[i] = properties[i].getName();
+			this.properties[i] = resolved[i] = properties[i];
+			indexes.put(names[i], i);
+		}
+	}
+
+	/**
+	 * Instantiates a new codec of <code>type</code>, that has
+	 * <code>count</code> fields. Each field has to be declared by subclass
+	 * constructor. Neither <code>type</code> nor its fields are looked up by
+	 * reflection.
+	 *
+	 * @param type
+	 *          the type
+	 * @param count
+	 *          the count of fields
+	 */
+	protected GeneratedCodec(Class<?> type, int count)
+	{
+		this.type = type;
+		this.names = new String[count];
+		this.properties = new Property[count];
+		this.resolved = new Property[count];
+	}
+
+	/**
+	 * Declares field with <code>index</code>, that codec reads and writes
+	 * directly.
+	 *
+	 * @param index
+	 *          the index
+	 * @param name
+	 *          the name, that is used in JSON
+	 * @param fieldType
+	 *          the type of field
+	 * @param subClazz
+	 *          the first type argument of field or <code>null</code>
+	 * @param subClazz2
+	 *          the second type argument of field or <code>null</code>
+	 * @param adapter
+	 *          the adapter declared by field or <code>null</code>
+	 */
+	protected final void declare(int index, String name, Class<?> fieldType, Class<?> subClazz, Class<?> subClazz2, Adapter<?> adapter)
+	{
+		names[index] = name;
+		properties[index] = new Property(index, name, fieldType, subClazz, subClazz2, adapter);
+		indexes.put(name, index);
+	}
+
+	/**
+	 * Declares field with <code>index</code>, that codec could not access
+	 * directly. Such field is read and written by its accessor, that is looked
+	 * up by reflection on first use.
+	 *
+	 * @param index
+	 *          the index
+	 * @param name
+	 *          the name, that is used in JSON
+	 */
+	protected final void declare(int index, String name)
+	{
+		names[index] = name;
+		indexes.put(name, index);
+	}
+
+	/**
+	 * Finds properties of <code>type</code> by names of <code>fields</code>.
+	 *
+	 * @param type
+	 *          the type
+	 * @param fields
+	 *          the names of fields
+	 * @return the properties
+	 * @throws MismatchException
+	 *           if any of fields is not property of type
+	 */
+	private static Property[] find(Class<?> type, String... fields)
+	{
+		Property[] all = ClassDescriptor.of(type).getProperties();
+		Property[] result = new Property[fields.length];
+		for (int i = 0; i < fields.length; i++)
+		{
+			for (Property property : all)
+			{
+				if (property.getField().getName().equals(fields[i]))
+				{
+					result[i] = property;
+				}
+			}
+			if (result[i] == null)
+			{
+				throw new MismatchException(type, "Field " + fields[i] + " is not property of " + type.getName() + ".");
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the codec of <code>type</code>, that is registered as service.
+	 * Codec is resolved once per class and kept in <code>ClassValue</code>, so
+	 * it does not prevent unloading of described class.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the codec or <code>null</code>
+	 * @throws IllegalStateException
+	 *           if codec of type does not match its class
+	 */
+	protected static GeneratedCodec getProvided(Class<?> type)
+	{
+		return PROVIDED.get(type);
+	}
+
+	/**
+	 * Loads codecs registered as services, that are visible to
+	 * <code>loader</code>. Codecs of each loader are loaded once and softly
+	 * cached, while classes of that loader are being resolved. Provider, that
+	 * could not be loaded or instantiated, is skipped. Provider, whose fields
+	 * do not match its class, is kept as its {@link MismatchException}.
+	 *
+	 * @param loader
+	 *          the loader
+	 * @return the codecs or mismatches by type
+	 */
+	private static Map<Class<?>, Object> load(ClassLoader loader)
+	{
+		synchronized (LOADED)
+		{
+			Reference<Map<Class<?>, Object>> reference = LOADED.get(loader);
+			Map<Class<?>, Object> result = reference != null ? reference.get() : null;
+			if (result == null)
+			{
+				result = new HashMap<>();
+				Iterator<GeneratedCodec> it = ServiceLoader.load(GeneratedCodec.class, loader).iterator();
+				while (true)
+				{
+					try
+					{
+						if (!it.hasNext())
+						{
+							break;
+						}
+						GeneratedCodec codec = it.next();
+						result.put(codec.getType(), codec);
+					}
+					catch (ServiceConfigurationError e)
+					{
+						if (e.getCause() instanceof MismatchException)
+						{
+							MismatchException mismatch = (MismatchException) e.getCause();
+							result.put(mismatch.getType(), mismatch);
+						}
+						// Otherwise broken provider must not disable other codecs.
+					}
+				}
+				LOADED.put(loader, new SoftReference<>(result));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Gets the index of field with <code>name</code>, that is used in JSON.
+	 *
+	 * @param name
+	 *          the name
+	 * @return the index or <code>-1</code>, if codec has no such field
+	 */
+	protected int indexOf(String name)
+	{
+		Integer result = indexes.get(name);
+		return result != null ? result : -1;
+	}
+
+	/**
+	 * Gets the property with <code>index</code> including its accessor.
+	 * Property of field declared without type is looked up by reflection on
+	 * first use.
+	 *
+	 * @param index
+	 *          the index
+	 * @return the property
+	 * @throws IllegalStateException
+	 *           if type has no such property
+	 */
+	private Property resolve(int index)
+	{
+		Property result = resolved[index];
+		if (result == null)
+		{
+			result = ClassDescriptor.of(type).getProperty(names[index]);
+			if (result == null)
+			{
+				throw new IllegalStateException("Codec of " + type.getName() + " does not match its class.",
+						new MismatchException(type, "Property " + names[index] + " does not exist in " + type.getName() + "."));
+			}
+			resolved[index] = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the type, that codec reads and writes.
+	 *
+	 * @return the type
+	 */
+	public Class<?> getType()
+	{
+		return type;
+	}
+
+	/**
+	 * Creates new instance of type. Codec generated at compile time overrides it
+	 * by constructor call.
+	 *
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected Object newInstance() throws Exception
+	{
+		return ClassDescriptor.of(type).newInstance();
+	}
+
+	/**
+	 * Writes all fields of <code>object</code> as entries of JSON object.
+	 * Brackets are written by caller.
+	 *
+	 * @param object
+	 *          the object
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent of object
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract int writeFields(Object object, Output out, Config config, int indent) throws Exception;
+
+	/**
+	 * Reads value of property with <code>index</code> from
+	 * <code>tokenizer</code> into <code>object</code>.
+	 *
+	 * @param object
+	 *          the object
+	 * @param index
+	 *          the index
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected abstract void readField(Object object, int index, Tokenizer tokenizer, Config config) throws Exception;
+
+	/**
+	 * Writes property with <code>index</code> read by its accessor.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param object
+	 *          the object
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeProperty(Output out, Config config, int indent, int count, int index, Object object) throws Exception
+	{
+		return Serializator.serializeProperty(out, object, resolve(index), count, config, indent);
+	}
+
+	/**
+	 * Writes value of property with <code>index</code>. Value <code>null</code>
+	 * is skipped.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeValue(Output out, Config config, int indent, int count, int index, Object value) throws Exception
+	{
+		return Serializator.serializePropertyValue(out, properties[index], value, count, config, indent);
+	}
+
+	/**
+	 * Writes <code>int</code> value of property with <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeInt(Output out, Config config, int indent, int count, int index, int value) throws Exception
+	{
+		if (config.getAdapter(int.class) != null)
+		{
+			return writeValue(out, config, indent, count, index, Integer.valueOf(value));
+		}
+		Serializator.startProperty(out, properties[index], count, config, indent);
+		NumberWriter.writeInt(out, value);
+		return count + 1;
+	}
+
+	/**
+	 * Writes <code>long</code> value of property with <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeLong(Output out, Config config, int indent, int count, int index, long value) throws Exception
+	{
+		if (config.getAdapter(long.class) != null)
+		{
+			return writeValue(out, config, indent, count, index, Long.valueOf(value));
+		}
+		Serializator.startProperty(out, properties[index], count, config, indent);
+		NumberWriter.writeLong(out, value);
+		return count + 1;
+	}
+
+	/**
+	 * Writes <code>double</code> value of property with <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeDouble(Output out, Config config, int indent, int count, int index, double value) throws Exception
+	{
+		if (config.getAdapter(double.class) != null)
+		{
+			return writeValue(out, config, indent, count, index, Double.valueOf(value));
+		}
+		Serializator.startProperty(out, properties[index], count, config, indent);
+		NumberWriter.writeDouble(out, value);
+		return count + 1;
+	}
+
+	/**
+	 * Writes <code>float</code> value of property with <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeFloat(Output out, Config config, int indent, int count, int index, float value) throws Exception
+	{
+		if (config.getAdapter(float.class) != null)
+		{
+			return writeValue(out, config, indent, count, index, Float.valueOf(value));
+		}
+		Serializator.startProperty(out, properties[index], count, config, indent);
+		NumberWriter.writeFloat(out, value);
+		return count + 1;
+	}
+
+	/**
+	 * Writes <code>boolean</code> value of property with <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeBoolean(Output out, Config config, int indent, int count, int index, boolean value) throws Exception
+	{
+		if (config.getAdapter(boolean.class) != null)
+		{
+			return writeValue(out, config, indent, count, index, Boolean.valueOf(value));
+		}
+		Serializator.startProperty(out, properties[index], count, config, indent);
+		out.write(value ? "true" : "false");
+		return count + 1;
+	}
+
+	/**
+	 * Writes <code>char</code> value of property with <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @param count
+	 *          the count of already written entries
+	 * @param index
+	 *          the index
+	 * @param value
+	 *          the value
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int writeChar(Output out, Config config, int indent, int count, int index, char value) throws Exception
+	{
+		if (config.getAdapter(char.class) != null)
+		{
+			return writeValue(out, config, indent, count, index, Character.valueOf(value));
+		}
+		Serializator.startProperty(out, properties[index], count, config, indent);
+		Serializator.serializeChar(out, value, config);
+		return count + 1;
+	}
+
+	/**
+	 * Reads property with <code>index</code> and sets it by its accessor.
+	 *
+	 * @param object
+	 *          the object
+	 * @param index
+	 *          the index
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final void readProperty(Object object, int index, Tokenizer tokenizer, Config config) throws Exception
+	{
+		DeserializationMapper.fillField(object, tokenizer, resolve(index), config);
+	}
+
+	/**
+	 * Reads value of property with <code>index</code>, using adapter of
+	 * property, if it is declared.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @param index
+	 *          the index
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final Object readValue(Tokenizer tokenizer, Config config, int index) throws Exception
+	{
+		return DeserializationMapper.readValue(tokenizer, properties[index], config);
+	}
+
+	/**
+	 * Reads <code>int</code> value of property with <code>index</code>. Value
+	 * <code>null</code> keeps <code>current</code> value.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @param index
+	 *          the index
+	 * @param current
+	 *          the current value
+	 * @return the int
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final int readInt(Tokenizer tokenizer, Config config, int index, int current) throws Exception
+	{
+		if (nextNumber(tokenizer, config, int.class))
+		{
+			return tokenizer.textEquals("null") ? current : NumberParser.parseInt(tokenizer.textBuffer(), 0, tokenizer.textLength());
+		}
+		Object value = readValue(tokenizer, config, index);
+		return value != null ? (Integer) value : current;
+	}
+
+	/**
+	 * Reads <code>long</code> value of property with <code>index</code>. Value
+	 * <code>null</code> keeps <code>current</code> value.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @param index
+	 *          the index
+	 * @param current
+	 *          the current value
+	 * @return the long
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final long readLong(Tokenizer tokenizer, Config config, int index, long current) throws Exception
+	{
+		if (nextNumber(tokenizer, config, long.class))
+		{
+			return tokenizer.textEquals("null") ? current : NumberParser.parseLong(tokenizer.textBuffer(), 0, tokenizer.textLength());
+		}
+		Object value = readValue(tokenizer, config, index);
+		return value != null ? (Long) value : current;
+	}
+
+	/**
+	 * Reads <code>double</code> value of property with <code>index</code>.
+	 * Value <code>null</code> keeps <code>current</code> value.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @param index
+	 *          the index
+	 * @param current
+	 *          the current value
+	 * @return the double
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final double readDouble(Tokenizer tokenizer, Config config, int index, double current) throws Exception
+	{
+		if (nextNumber(tokenizer, config, double.class))
+		{
+			return tokenizer.textEquals("null") ? current : NumberParser.parseDouble(tokenizer.textBuffer(), 0, tokenizer.textLength());
+		}
+		Object value = readValue(tokenizer, config, index);
+		return value != null ? (Double) value : current;
+	}
+
+	/**
+	 * Reads <code>float</code> value of property with <code>index</code>. Value
+	 * <code>null</code> keeps <code>current</code> value.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @param index
+	 *          the index
+	 * @param current
+	 *          the current value
+	 * @return the float
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected final float readFloat(Tokenizer tokenizer, Config config, int index, float current) throws Exception
+	{
+		if (nextNumber(tokenizer, config, float.class))
+		{
+			return tokenizer.textEquals("null") ? current : NumberParser.parseFloat(tokenizer.textBuffer(), 0, tokenizer.textLength());
+		}
+		Object value = readValue(tokenizer, config, index);
+		return value != null ? (Float) value : current;
+	}
+
+	/**
+	 * Consumes next token, if it is value, that could be parsed as number
+	 * directly. Adapter registered for <code>type</code> is applied by
+	 * {@link #readValue(Tokenizer, Config, int)} instead.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 * @param type
+	 *          the type
+	 * @return true, if token was consumed
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static boolean nextNumber(Tokenizer tokenizer, Config config, Class<?> type) throws Exception
+	{
+		Token token = tokenizer.peek();
+		if ((token != Token.STRING && token != Token.LITERAL) || config.getAdapter(type) != null)
+		{
+			return false;
+		}
+		tokenizer.next();
+		return true;
+	}
+
+	/**
+	 * The Class MismatchException. Thrown, when fields listed by codec do not
+	 * match its class, which means, that codec was not regenerated after class
+	 * has changed.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	private static class MismatchException extends IllegalArgumentException
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Class<?> type;
+
+		/**
+		 * Instantiates a new mismatch exception.
+		 *
+		 * @param type
+		 *          the type
+		 * @param message
+		 *          the message
+		 */
+		private MismatchException(Class<?> type, String message)
+		{
+			super(message);
+			this.type = type;
+		}
+
+		/**
+		 * Gets the type, that codec describes.
+		 *
+		 * @return the type
+		 */
+		private Class<?> getType()
+		{
+			return type;
+		}
+	}
+}
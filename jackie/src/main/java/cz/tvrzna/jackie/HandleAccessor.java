@@ -0,0 +1,285 @@
+package cz.tvrzna.jackie;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * The Class HandleAccessor. Accessor, that uses method handles of field
+ * getter and setter. Handles are adapted to exact types of accessor methods
+ * once, so each call is single <code>invokeExact</code> without access check
+ * and primitive values stay unboxed. Handles are created by private lookup in
+ * declaring class, where it is available, so field needs not be accessible.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class HandleAccessor extends Accessor
+{
+	private static final Method PRIVATE_LOOKUP_IN = getPrivateLookupIn();
+
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	private final MethodHandle primitiveGetter;
+	private final MethodHandle primitiveSetter;
+
+	/**
+	 * Instantiates a new handle accessor.
+	 *
+	 * @param field
+	 *          the field
+	 * @throws IllegalAccessException
+	 *           if field is not accessible
+	 */
+	protected HandleAccessor(Field field) throws IllegalAccessException
+	{
+		MethodHandles.Lookup lookup = lookup(field.getDeclaringClass());
+		MethodHandle get = lookup.unreflectGetter(field);
+		MethodHandle set = lookup.unreflectSetter(field);
+		this.getter = get.asType(MethodType.methodType(Object.class, Object.class));
+		this.setter = set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+		Class<?> type = field.getType();
+		if (type.isPrimitive())
+		{
+			Class<?> widened = type == short.class || type == byte.class ? int.class : type;
+			this.primitiveGetter = get.asType(MethodType.methodType(widened, Object.class));
+			this.primitiveSetter = set.asType(MethodType.methodType(void.class, Object.class, type));
+		}
+		else
+		{
+			this.primitiveGetter = null;
+			this.primitiveSetter = null;
+		}
+	}
+
+	@Override
+	protected Object get(Object target) throws Exception
+	{
+		try
+		{
+			return (Object) getter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected int getInt(Object target) throws Exception
+	{
+		try
+		{
+			return (int) primitiveGetter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected long getLong(Object target) throws Exception
+	{
+		try
+		{
+			return (long) primitiveGetter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected double getDouble(Object target) throws Exception
+	{
+		try
+		{
+			return (double) primitiveGetter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected float getFloat(Object target) throws Exception
+	{
+		try
+		{
+			return (float) primitiveGetter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected boolean getBoolean(Object target) throws Exception
+	{
+		try
+		{
+			return (boolean) primitiveGetter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected char getChar(Object target) throws Exception
+	{
+		try
+		{
+			return (char) primitiveGetter.invokeExact(target);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected void set(Object target, Object value) throws Exception
+	{
+		try
+		{
+			setter.invokeExact(target, value);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected void setInt(Object target, int value) throws Exception
+	{
+		try
+		{
+			primitiveSetter.invokeExact(target, value);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected void setLong(Object target, long value) throws Exception
+	{
+		try
+		{
+			primitiveSetter.invokeExact(target, value);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected void setDouble(Object target, double value) throws Exception
+	{
+		try
+		{
+			primitiveSetter.invokeExact(target, value);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	@Override
+	protected void setFloat(Object target, float value) throws Exception
+	{
+		try
+		{
+			primitiveSetter.invokeExact(target, value);
+		}
+		catch (Throwable e)
+		{
+			throw propagate(e);
+		}
+	}
+
+	/**
+	 * Gets the lookup with private access to <code>clazz</code>. Before Java 9
+	 * lookup of this class is returned, that has access only to fields made
+	 * accessible.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the lookup
+	 * @throws IllegalAccessException
+	 *           if private access is not permitted
+	 */
+	private static MethodHandles.Lookup lookup(Class<?> clazz) throws IllegalAccessException
+	{
+		if (PRIVATE_LOOKUP_IN == null)
+		{
+			return MethodHandles.lookup();
+		}
+		try
+		{
+			return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, clazz, MethodHandles.lookup());
+		}
+		catch (InvocationTargetException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof IllegalAccessException)
+			{
+				throw (IllegalAccessException) cause;
+			}
+			else if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+			throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Gets the method <code>MethodHandles.privateLookupIn</code>, that exists
+	 * since Java 9.
+	 *
+	 * @return the method or <code>null</code>
+	 */
+	private static Method getPrivateLookupIn()
+	{
+		try
+		{
+			return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+		}
+		catch (NoSuchMethodException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Converts throwable of handle invocation to exception, errors are thrown
+	 * as they are.
+	 *
+	 * @param e
+	 *          the e
+	 * @return the exception
+	 */
+	private static Exception propagate(Throwable e)
+	{
+		if (e instanceof Error)
+		{
+			throw (Error) e;
+		}
+		return e instanceof Exception ? (Exception) e : new Exception(e);
+	}
+}
@@ -0,0 +1,909 @@
+package cz.tvrzna.jackie;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Main <code>Jackie</code> class, that provides converting of objects to JSON
+ * as <code>String</code> and JSON <code>String</code> to objects.
+ *
+ * @author michalt
+ */
+public class Jackie
+{
+
+	private Config config = new Config();
+
+	/**
+	 * Converts single object into JSON as <code>String</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @return the string
+	 */
+	public <T> String toJson(T object)
+	{
+		try
+		{
+			return Serializator.serialize(object, config, 0);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts single object into JSON written to <code>OutputStream</code> as
+	 * UTF-8. Stream is flushed, but it is not closed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param os
+	 *          the os
+	 * @since 0.5.0
+	 */
+	public <T> void toJson(T object, OutputStream os)
+	{
+		try
+		{
+			Serializator.serialize(os, object, config, 0);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts items of <code>iterator</code> into JSON list written to
+	 * <code>OutputStream</code> as UTF-8. Items are pulled and written one by
+	 * one and stream is flushed after each chunk of output, so reader may
+	 * process the list while it is being produced. Stream is not closed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param iterator
+	 *          the iterator
+	 * @param os
+	 *          the os
+	 * @since 0.5.0
+	 */
+	public <T> void toJson(Iterator<T> iterator, OutputStream os)
+	{
+		try
+		{
+			Serializator.serialize(os, iterator, config);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts items of <code>stream</code> into JSON list written to
+	 * <code>OutputStream</code> as UTF-8. Items are consumed lazily, see
+	 * {@link #toJson(Iterator, OutputStream)}. Neither of streams is closed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param stream
+	 *          the stream
+	 * @param os
+	 *          the os
+	 * @since 0.5.0
+	 */
+	public <T> void toJson(Stream<T> stream, OutputStream os)
+	{
+		toJson(stream.iterator(), os);
+	}
+
+	/**
+	 * Converts single object into JSON written to
+	 * <code>WritableByteChannel</code> as UTF-8. Output is encoded into pooled
+	 * direct buffers, that are passed to channel by gathering writes. Channel is
+	 * not closed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param channel
+	 *          the channel
+	 * @since 0.5.0
+	 */
+	public <T> void toJson(T object, WritableByteChannel channel)
+	{
+		try
+		{
+			Serializator.serialize(channel, object, config);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts single object into JSON written to file as UTF-8. File is
+	 * created or truncated.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param path
+	 *          the path
+	 * @since 0.5.0
+	 */
+	public <T> void toJson(T object, Path path)
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+		{
+			Serializator.serialize(channel, object, config);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts single object into JSON as UTF-8 encoded <code>byte[]</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @return the byte[]
+	 * @since 0.5.0
+	 */
+	public <T> byte[] toJsonBytes(T object)
+	{
+		try
+		{
+			return Serializator.serializeToBytes(object, config);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts single object into JSON put into <code>buffer</code> as UTF-8.
+	 * Bytes are written from current position, that is moved after them. If
+	 * JSON does not fit, position is left unchanged, but bytes after it may be
+	 * overwritten by part of JSON.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param object
+	 *          the object
+	 * @param buffer
+	 *          the buffer
+	 * @throws java.nio.BufferOverflowException
+	 *           if JSON does not fit into remaining space of buffer
+	 * @since 0.5.0
+	 */
+	public <T> void toJson(T object, ByteBuffer buffer)
+	{
+		try
+		{
+			Serializator.serialize(buffer, object, config);
+		}
+		catch (RuntimeException e)
+		{
+			throw e;
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts single object or array from JSON to instance of
+	 * <code>clazz</code>. <br>
+	 * If <code>clazz</code> is going to be a <code>List</code>, @see
+	 * Jackie#fromJson(String, Class, Class) to define the Type of list. <br>
+	 * If <code>clazz</code> is going to be <code>Map</code>, @see
+	 * Jackie#fromJson(String, Class, Class, Class) to define key and value
+	 * classes, if you want to avoid to be used <code>String</code> and
+	 * <code>Object</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param clazz
+	 *          the clazz
+	 * @return the t
+	 */
+	public <T> T fromJson(String json, Class<T> clazz)
+	{
+		return fromJson(json, clazz, null, null);
+	}
+
+	/**
+	 * Converts List or array from JSON. If it converts list,
+	 * <code>subClazz</code> needs to be defined as generic type of List.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param clazz
+	 *          the clazz
+	 * @param subClazz
+	 *          the sub clazz
+	 * @return the t
+	 */
+	public <T> T fromJson(String json, Class<T> clazz, Class<?> subClazz)
+	{
+		return fromJson(json, clazz, subClazz, null);
+	}
+
+	/**
+	 * Converts Map from JSON. It needs to have defined <code>keyClazz</code> as
+	 * class of Key attribute and <code>valueClazz</code> as class of Value
+	 * attribute.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param clazz
+	 *          the clazz
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the t
+	 */
+	public <T> T fromJson(String json, Class<T> clazz, Class<?> keyClazz, Class<?> valueClazz)
+	{
+		if (json == null)
+		{
+			return null;
+		}
+		return fromJson(new CharTokenizer(json), clazz, keyClazz, valueClazz);
+	}
+
+	/**
+	 * Converts List&lt;clazz&gt; from JSON.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> fromJsonList(String json, Class<T> clazz)
+	{
+		return fromJson(json, List.class, clazz);
+	}
+
+	/**
+	 * Converts Map&lt;keyClazz, valueClazz&gt; from JSON.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param <U>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the map
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T, U> Map<T, U> fromJsonMap(String json, Class<T> keyClazz, Class<U> valueClazz)
+	{
+		return fromJson(json, Map.class, keyClazz, valueClazz);
+	}
+
+	/**
+	 * Converts single object or array from JSON to instance of
+	 * <code>clazz</code>. <br>
+	 * If <code>clazz</code> is going to be a <code>List</code>, @see
+	 * Jackie#fromJson(InputStream, Class, Class) to define the Type of list. <br>
+	 * If <code>clazz</code> is going to be <code>Map</code>, @see
+	 * Jackie#fromJson(InputStream, Class, Class, Class) to define key and value
+	 * classes, if you want to avoid to be used <code>String</code> and
+	 * <code>Object</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param clazz
+	 *          the clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(InputStream inputStream, Class<T> clazz)
+	{
+		return fromJson(inputStream, clazz, null, null);
+	}
+
+	/**
+	 * Converts List or array from JSON. If it converts list,
+	 * <code>subClazz</code> needs to be defined as generic type of List.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param clazz
+	 *          the clazz
+	 * @param subClazz
+	 *          the sub clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(InputStream inputStream, Class<T> clazz, Class<?> subClazz)
+	{
+		return fromJson(inputStream, clazz, subClazz, null);
+	}
+
+	/**
+	 * Converts Map from JSON. It needs to have defined <code>keyClazz</code> as
+	 * class of Key attribute and <code>valueClazz</code> as class of Value
+	 * attribute.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param clazz
+	 *          the clazz
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(InputStream inputStream, Class<T> clazz, Class<?> keyClazz, Class<?> valueClazz)
+	{
+		if (inputStream == null)
+		{
+			return null;
+		}
+		return fromJson(new Utf8Tokenizer(inputStream), clazz, keyClazz, valueClazz);
+	}
+
+	/**
+	 * Converts List&lt;clazz&gt; from JSON.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 * @since 0.5.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> fromJsonList(InputStream inputStream, Class<T> clazz)
+	{
+		return fromJson(inputStream, List.class, clazz);
+	}
+
+	/**
+	 * Converts Map&lt;keyClazz, valueClazz&gt; from JSON.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param <U>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the map
+	 * @since 0.5.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T, U> Map<T, U> fromJsonMap(InputStream inputStream, Class<T> keyClazz, Class<U> valueClazz)
+	{
+		return fromJson(inputStream, Map.class, keyClazz, valueClazz);
+	}
+
+	/**
+	 * Converts single object or array from UTF-8 encoded JSON in part of
+	 * <code>byte[]</code> to instance of <code>clazz</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @param clazz
+	 *          the clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(byte[] json, int offset, int length, Class<T> clazz)
+	{
+		return fromJson(json, offset, length, clazz, null, null);
+	}
+
+	/**
+	 * Converts List or Map from UTF-8 encoded JSON in part of
+	 * <code>byte[]</code>. For List <code>keyClazz</code> is generic type of
+	 * List, for Map <code>keyClazz</code> and <code>valueClazz</code> are classes
+	 * of Key and Value attributes.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @param clazz
+	 *          the clazz
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(byte[] json, int offset, int length, Class<T> clazz, Class<?> keyClazz, Class<?> valueClazz)
+	{
+		if (json == null)
+		{
+			return null;
+		}
+		return fromJson(new Utf8Tokenizer(json, offset, length), clazz, keyClazz, valueClazz);
+	}
+
+	/**
+	 * Converts single object or array from UTF-8 encoded JSON in remaining bytes
+	 * of <code>ByteBuffer</code> to instance of <code>clazz</code>. Position of
+	 * <code>buffer</code> is not changed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param buffer
+	 *          the buffer
+	 * @param clazz
+	 *          the clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(ByteBuffer buffer, Class<T> clazz)
+	{
+		return fromJson(buffer, clazz, null, null);
+	}
+
+	/**
+	 * Converts List or Map from UTF-8 encoded JSON in remaining bytes of
+	 * <code>ByteBuffer</code>. For List <code>keyClazz</code> is generic type of
+	 * List, for Map <code>keyClazz</code> and <code>valueClazz</code> are classes
+	 * of Key and Value attributes. Position of <code>buffer</code> is not
+	 * changed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param buffer
+	 *          the buffer
+	 * @param clazz
+	 *          the clazz
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the t
+	 * @since 0.5.0
+	 */
+	public <T> T fromJson(ByteBuffer buffer, Class<T> clazz, Class<?> keyClazz, Class<?> valueClazz)
+	{
+		if (buffer == null)
+		{
+			return null;
+		}
+		return fromJson(new Utf8Tokenizer(buffer), clazz, keyClazz, valueClazz);
+	}
+
+	/**
+	 * Extracts all values selected by <code>path</code> from JSON and converts
+	 * them to instances of <code>clazz</code>. Parts of document outside of the
+	 * path are skipped without being built.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param path
+	 *          the path, e.g. <code>$.items[*].price</code>
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 * @see JackiePath
+	 * @since 0.5.0
+	 */
+	public <T> List<T> extract(String json, String path, Class<T> clazz)
+	{
+		return extract(json, JackiePath.compile(path), clazz);
+	}
+
+	/**
+	 * Extracts all values selected by compiled <code>path</code> from JSON and
+	 * converts them to instances of <code>clazz</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param json
+	 *          the json
+	 * @param path
+	 *          the path
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 * @since 0.5.0
+	 */
+	public <T> List<T> extract(String json, JackiePath path, Class<T> clazz)
+	{
+		return extract(new CharTokenizer(json), path, clazz);
+	}
+
+	/**
+	 * Extracts all values selected by <code>path</code> from UTF-8 encoded JSON
+	 * and converts them to instances of <code>clazz</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param path
+	 *          the path, e.g. <code>$.items[*].price</code>
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 * @since 0.5.0
+	 */
+	public <T> List<T> extract(InputStream inputStream, String path, Class<T> clazz)
+	{
+		return extract(inputStream, JackiePath.compile(path), clazz);
+	}
+
+	/**
+	 * Extracts all values selected by compiled <code>path</code> from UTF-8
+	 * encoded JSON and converts them to instances of <code>clazz</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param inputStream
+	 *          the input stream
+	 * @param path
+	 *          the path
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 * @since 0.5.0
+	 */
+	public <T> List<T> extract(InputStream inputStream, JackiePath path, Class<T> clazz)
+	{
+		if (inputStream == null)
+		{
+			return new ArrayList<>();
+		}
+		return extract(new Utf8Tokenizer(inputStream), path, clazz);
+	}
+
+	/**
+	 * Creates pull parser over UTF-8 encoded JSON in <code>inputStream</code>.
+	 * Stream is read in blocks, so document of any size is processed in constant
+	 * memory.
+	 *
+	 * @param inputStream
+	 *          the input stream
+	 * @return the jackie reader
+	 * @since 0.5.0
+	 */
+	public JackieReader reader(InputStream inputStream)
+	{
+		return new JackieReader(new Utf8Tokenizer(inputStream), config);
+	}
+
+	/**
+	 * Creates pull parser over JSON in <code>String</code>.
+	 *
+	 * @param json
+	 *          the json
+	 * @return the jackie reader
+	 * @since 0.5.0
+	 */
+	public JackieReader reader(String json)
+	{
+		return new JackieReader(new CharTokenizer(json), config);
+	}
+
+	/**
+	 * Creates non-blocking parser, that is fed with chunks of UTF-8 encoded JSON
+	 * and passes tokens to <code>listener</code> as soon as they are complete.
+	 *
+	 * @param listener
+	 *          the listener
+	 * @return the jackie feeder
+	 * @since 0.5.0
+	 */
+	public JackieFeeder feeder(JackieFeeder.Listener listener)
+	{
+		return new JackieFeeder(listener, config);
+	}
+
+	/**
+	 * Creates non-blocking parser, that is fed with chunks of UTF-8 encoded JSON
+	 * and passes each complete top-level value converted to instance of
+	 * <code>clazz</code> to <code>consumer</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @param consumer
+	 *          the consumer
+	 * @return the jackie feeder
+	 * @since 0.5.0
+	 */
+	public <T> JackieFeeder feeder(Class<T> clazz, Consumer<? super T> consumer)
+	{
+		return new JackieFeeder(clazz, consumer, config);
+	}
+
+	/**
+	 * Reads instance of <code>clazz</code> from <code>tokenizer</code>, that is
+	 * released afterwards.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param keyClazz
+	 *          the key clazz
+	 * @param valueClazz
+	 *          the value clazz
+	 * @return the t
+	 */
+	private <T> T fromJson(Tokenizer tokenizer, Class<T> clazz, Class<?> keyClazz, Class<?> valueClazz)
+	{
+		try
+		{
+			return DeserializationMapper.readObject(tokenizer, clazz, keyClazz, valueClazz, config);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+		finally
+		{
+			tokenizer.release();
+		}
+	}
+
+	/**
+	 * Extracts values selected by <code>path</code> from <code>tokenizer</code>,
+	 * that is released afterwards.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param path
+	 *          the path
+	 * @param clazz
+	 *          the clazz
+	 * @return the list
+	 */
+	private <T> List<T> extract(Tokenizer tokenizer, JackiePath path, Class<T> clazz)
+	{
+		try
+		{
+			return path.extract(tokenizer, clazz, config);
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+		finally
+		{
+			tokenizer.release();
+		}
+	}
+
+	/**
+	 * Uses custom date format for each date operation. If default date format
+	 * should be used, just set <code>null</code>.
+	 *
+	 * @param customDateFormat
+	 *          the custom date format
+	 * @return the jackie
+	 * @since 0.3.0
+	 */
+	public Jackie withCustomDateFormat(DateFormat customDateFormat)
+	{
+		config.setDateFormat(customDateFormat);
+		return this;
+	}
+
+	/**
+	 * Printing to JSON with pretty print.
+	 *
+	 * @return the jackie
+	 * @since 0.3.0
+	 */
+	public Jackie withPrettyPrint()
+	{
+		return withPrettyPrint(true);
+	}
+
+	/**
+	 * Printing to JSON with or without pretty print.
+	 *
+	 * @param prettyPrint
+	 *          the pretty print
+	 * @return the jackie
+	 * @since 0.3.0
+	 */
+	public Jackie withPrettyPrint(boolean prettyPrint)
+	{
+		config.setPrettyPrint(prettyPrint);
+		return this;
+	}
+
+	/**
+	 * Escapes all non-ASCII characters as <code>\\uXXXX</code> sequences, so
+	 * output contains only ASCII.
+	 *
+	 * @return the jackie
+	 * @since 0.5.0
+	 */
+	public Jackie withEscapeUnicode()
+	{
+		return withEscapeUnicode(true);
+	}
+
+	/**
+	 * Escapes or keeps non-ASCII characters.
+	 *
+	 * @param escapeUnicode
+	 *          the escape unicode
+	 * @return the jackie
+	 * @since 0.5.0
+	 */
+	public Jackie withEscapeUnicode(boolean escapeUnicode)
+	{
+		config.setEscapeUnicode(escapeUnicode);
+		return this;
+	}
+
+	/**
+	 * Sets custom symbol for new line. Works only with pretty print. If is set to
+	 * <code>null</code>, it uses default <code>\n</code>.
+	 *
+	 * @param symbol
+	 *          the symbol
+	 * @return the jackie
+	 * @since 0.4.0
+	 */
+	public Jackie withLineIndent(String symbol)
+	{
+		config.setPrettyLineSymbol(symbol);
+		return this;
+	}
+
+	/**
+	 * Sets custom symbol for tab indentation. Works only with pretty print. If is
+	 * set to <code>null</code>, it uses default <code>\t</code>.
+	 *
+	 * @param symbol
+	 *          the symbol
+	 * @return the jackie
+	 * @since 0.4.0
+	 */
+	public Jackie withTabIndent(String symbol)
+	{
+		config.setPrettyIndentSymbol(symbol);
+		return this;
+	}
+
+	/**
+	 * Generates codec for each serialized class, that reads and writes fields
+	 * without reflection. Requires Java 9 or newer, otherwise classes are
+	 * serialized by reflection as usual.
+	 *
+	 * @return the jackie
+	 * @since 0.5.0
+	 */
+	public Jackie withGeneratedCodecs()
+	{
+		return withGeneratedCodecs(true);
+	}
+
+	/**
+	 * Generates or does not generate codecs for serialized classes.
+	 *
+	 * @param generateCodecs
+	 *          the generate codecs
+	 * @return the jackie
+	 * @since 0.5.0
+	 */
+	public Jackie withGeneratedCodecs(boolean generateCodecs)
+	{
+		config.setGenerateCodecs(generateCodecs);
+		return this;
+	}
+
+	/**
+	 * Uses <code>adapter</code> for each value of <code>clazz</code> or its
+	 * subclass, or for each implementation, if <code>clazz</code> is interface,
+	 * including items of collections and values of maps. Adapter declared by
+	 * {@link cz.tvrzna.jackie.annotations.JackieAdapter} on field takes
+	 * precedence. Order of matching is described by
+	 * {@link Config#setAdapter(Class, Adapter)}.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @param adapter
+	 *          the adapter
+	 * @return the jackie
+	 * @since 0.5.0
+	 */
+	public <T> Jackie withAdapter(Class<T> clazz, Adapter<T> adapter)
+	{
+		config.setAdapter(clazz, adapter);
+		return this;
+	}
+
+	/**
+	 * Gets the config.
+	 *
+	 * @return the config
+	 * @since 0.4.0
+	 */
+	protected Config getConfig()
+	{
+		return config;
+	}
+
+}
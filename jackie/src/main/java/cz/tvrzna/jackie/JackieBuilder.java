@@ -0,0 +1,410 @@
+package cz.tvrzna.jackie;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import cz.tvrzna.jackie.Tokenizer.Token;
+
+/**
+ * This class allows creation of anonymous JSON objects.
+ *
+ * @author michalt
+ */
+public class JackieBuilder
+{
+	private JackieBuilder()
+	{
+	}
+
+	/**
+	 * Creates the <code>JackieElement</code>.
+	 *
+	 * @return the jackie element
+	 */
+	public static JackieElement create()
+	{
+		return new JackieElement();
+	}
+
+	/**
+	 * From string. Returned element is lazy, only positions of values are
+	 * indexed at first. Each value is parsed, when it is accessed for the first
+	 * time.
+	 *
+	 * @param json the json
+	 * @return the jackie element
+	 */
+	public static JackieElement fromString(String json)
+	{
+		Config config = new Config();
+		config.setUseObjectWrapper(true);
+		char[] source = json.toCharArray();
+		try
+		{
+			CharTokenizer tokenizer = new CharTokenizer(source, 0, source.length);
+			if (tokenizer.peek() == Token.START_OBJECT)
+			{
+				return new LazyJackieElement(source, tokenizer, config);
+			}
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+		Jackie jackie = new Jackie();
+		jackie.getConfig().setUseObjectWrapper(true);
+		JackieElement result = new JackieElement();
+		result.putAll(jackie.fromJson(json, JackieElement.class));
+		return result;
+	}
+
+	/**
+	 * The Class JackieElement.
+	 *
+	 * @author michalt
+	 */
+	public static class JackieElement extends LinkedHashMap<String, Object>
+	{
+		private static final long serialVersionUID = -790430865279217546L;
+
+		/**
+		 * Adds the value of <code>Object</code>.
+		 *
+		 * @param name
+		 *          the name
+		 * @param value
+		 *          the value
+		 * @return the jackie element
+		 */
+		public JackieElement add(String name, Object value)
+		{
+			put(name, value);
+			return this;
+		}
+
+		/**
+		 * Adds the child as <code>JackieElement</code> to be processed as object.
+		 *
+		 * @param name
+		 *          the name
+		 * @param childElementFunction
+		 *          the child element function
+		 * @return the jackie element
+		 */
+		public JackieElement add(String name, Consumer<JackieElement> childElementFunction)
+		{
+			JackieElement childElement = new JackieElement();
+			childElementFunction.accept(childElement);
+			put(name, childElement);
+			return this;
+		}
+
+		/**
+		 * To string.
+		 *
+		 * @return the string
+		 */
+		@Override
+		public String toString()
+		{
+			Jackie jackie = new Jackie();
+			return jackie.toJson(this);
+		}
+	}
+
+	/**
+	 * The Class LazyJackieElement. Holds position of each value in source, until
+	 * the value is accessed. Methods, that expose all values at once, parse
+	 * whole element first.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	private static class LazyJackieElement extends JackieElement
+	{
+		private static final long serialVersionUID = 6032184511297860574L;
+
+		private final transient char[] source;
+		private final transient Config config;
+		private transient boolean resolved;
+
+		/**
+		 * Instantiates a new lazy jackie element. Object is indexed from current
+		 * position of <code>tokenizer</code>, that points at opening bracket.
+		 *
+		 * @param source
+		 *          the source
+		 * @param tokenizer
+		 *          the tokenizer
+		 * @param config
+		 *          the config
+		 * @throws Exception
+		 *           the exception
+		 */
+		private LazyJackieElement(char[] source, CharTokenizer tokenizer, Config config) throws Exception
+		{
+			this.source = source;
+			this.config = config;
+			tokenizer.next();
+			index(tokenizer);
+		}
+
+		/**
+		 * Indexes keys of object, opening bracket is already consumed. Values are
+		 * skipped the same way, as <code>Deserializator</code> reads them.
+		 *
+		 * @param tokenizer
+		 *          the tokenizer
+		 * @throws Exception
+		 *           the exception
+		 */
+		private void index(CharTokenizer tokenizer) throws Exception
+		{
+			while (true)
+			{
+				switch (tokenizer.nextName())
+				{
+					case EOF:
+					case END_OBJECT:
+						return;
+					case STRING:
+					case LITERAL:
+						String key = tokenizer.name();
+						if (tokenizer.peek() == Token.COLON)
+						{
+							tokenizer.next();
+							tokenizer.peekChar();
+							int start = tokenizer.position();
+							tokenizer.skipValue();
+							super.put(key, new Slice(start, tokenizer.position()));
+						}
+						break;
+					default:
+						break;
+				}
+			}
+		}
+
+		/**
+		 * Parses value of <code>key</code>, if it was not parsed yet.
+		 *
+		 * @param key
+		 *          the key
+		 * @return the value
+		 */
+		private Object resolve(Object key)
+		{
+			Object value = super.get(key);
+			if (value instanceof Slice)
+			{
+				value = parse((Slice) value);
+				super.put((String) key, value);
+			}
+			return value;
+		}
+
+		/**
+		 * Parses all values, that were not parsed yet.
+		 */
+		private void resolveAll()
+		{
+			if (resolved)
+			{
+				return;
+			}
+			for (Map.Entry<String, Object> entry : super.entrySet())
+			{
+				if (entry.getValue() instanceof Slice)
+				{
+					entry.setValue(parse((Slice) entry.getValue()));
+				}
+			}
+			resolved = true;
+		}
+
+		/**
+		 * Parses value at <code>slice</code>. Nested object becomes lazy element as
+		 * well.
+		 *
+		 * @param slice
+		 *          the slice
+		 * @return the object
+		 */
+		private Object parse(Slice slice)
+		{
+			try
+			{
+				CharTokenizer tokenizer = new CharTokenizer(source, slice.start, slice.end);
+				if (tokenizer.peek() == Token.START_OBJECT)
+				{
+					return new LazyJackieElement(source, tokenizer, config);
+				}
+				return DeserializationMapper.convertToObject(Deserializator.deserializeValue(tokenizer, config), Object.class, config);
+			}
+			catch (Exception e)
+			{
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public Object get(Object key)
+		{
+			return resolve(key);
+		}
+
+		@Override
+		public Object getOrDefault(Object key, Object defaultValue)
+		{
+			return containsKey(key) ? resolve(key) : defaultValue;
+		}
+
+		@Override
+		public Object put(String key, Object value)
+		{
+			resolve(key);
+			return super.put(key, value);
+		}
+
+		@Override
+		public Object remove(Object key)
+		{
+			resolve(key);
+			return super.remove(key);
+		}
+
+		@Override
+		public boolean remove(Object key, Object value)
+		{
+			resolve(key);
+			return super.remove(key, value);
+		}
+
+		@Override
+		public Object replace(String key, Object value)
+		{
+			resolve(key);
+			return super.replace(key, value);
+		}
+
+		@Override
+		public boolean replace(String key, Object oldValue, Object newValue)
+		{
+			resolve(key);
+			return super.replace(key, oldValue, newValue);
+		}
+
+		@Override
+		public Object putIfAbsent(String key, Object value)
+		{
+			resolve(key);
+			return super.putIfAbsent(key, value);
+		}
+
+		@Override
+		public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction)
+		{
+			resolve(key);
+			return super.computeIfAbsent(key, mappingFunction);
+		}
+
+		@Override
+		public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction)
+		{
+			resolve(key);
+			return super.computeIfPresent(key, remappingFunction);
+		}
+
+		@Override
+		public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction)
+		{
+			resolve(key);
+			return super.compute(key, remappingFunction);
+		}
+
+		@Override
+		public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction)
+		{
+			resolve(key);
+			return super.merge(key, value, remappingFunction);
+		}
+
+		@Override
+		public boolean containsValue(Object value)
+		{
+			resolveAll();
+			return super.containsValue(value);
+		}
+
+		@Override
+		public Collection<Object> values()
+		{
+			resolveAll();
+			return super.values();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet()
+		{
+			resolveAll();
+			return super.entrySet();
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super String, ? super Object> action)
+		{
+			resolveAll();
+			super.forEach(action);
+		}
+
+		@Override
+		public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function)
+		{
+			resolveAll();
+			super.replaceAll(function);
+		}
+
+		@Override
+		public Object clone()
+		{
+			resolveAll();
+			return super.clone();
+		}
+
+		/**
+		 * Replaces lazy element by regular one, when it is serialized.
+		 *
+		 * @return the object
+		 */
+		private Object writeReplace()
+		{
+			JackieElement result = new JackieElement();
+			result.putAll(this);
+			return result;
+		}
+	}
+
+	/**
+	 * The Class Slice. Position of value in source, that was not parsed yet.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	private static class Slice
+	{
+		private final int start;
+		private final int end;
+
+		private Slice(int start, int end)
+		{
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
@@ -0,0 +1,1017 @@
+package cz.tvrzna.jackie;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import cz.tvrzna.jackie.ClassDescriptor.Property;
+import cz.tvrzna.jackie.JackieReader.Token;
+
+/**
+ * The Class JackieFeeder. Non-blocking parser, that is fed with chunks of UTF-8
+ * encoded JSON as they arrive and emits tokens or bound objects as soon as they
+ * are complete. Whole parsing state is kept in fields of this class, so feeding
+ * never blocks and any chunk boundary is allowed, even inside of string or
+ * multi-byte character. Input may contain any number of top-level values, e.g.
+ * newline delimited JSON. Instance is obtained by
+ * <code>Jackie.feeder(...)</code> methods and it is not thread-safe.
+ * <p>
+ * Bound objects are built level by level as their tokens arrive. Each opened
+ * object creates instance of its type and each completed value is set into
+ * field of its parent found by <code>ClassDescriptor</code>, so no
+ * intermediate tree is held. Only values bound to <code>Object</code> are
+ * collected into <code>Map</code> or <code>List</code> until they complete.
+ * Values of unknown fields are skipped.
+ * </p>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class JackieFeeder
+{
+	private static final int BUFFER_SIZE = 8192;
+	private static final char REPLACEMENT = '\uFFFD';
+
+	/**
+	 * The Interface Listener, that receives tokens.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	public interface Listener
+	{
+		/**
+		 * Called for each token. Text of <code>FIELD_NAME</code> or value is
+		 * available through <code>feeder</code>.
+		 *
+		 * @param token
+		 *          the token
+		 * @param feeder
+		 *          the feeder
+		 */
+		void onToken(Token token, JackieFeeder feeder);
+	}
+
+	/**
+	 * The Enum State.
+	 *
+	 * @author michalt
+	 */
+	private enum State
+	{
+		VALUE, STRING, ESCAPE, UNICODE, LITERAL
+	}
+
+	/**
+	 * The Enum Binding. Describes, how values of object or array are bound.
+	 *
+	 * @author michalt
+	 */
+	private enum Binding
+	{
+		RAW, FIELDS, MAP, LIST, ARRAY
+	}
+
+	/**
+	 * The Class Frame. Object or array being bound at single level and type it
+	 * is bound to.
+	 *
+	 * @author michalt
+	 */
+	private static class Frame
+	{
+		private Binding binding;
+		private Object container;
+		private Class<?> type;
+		private Class<?> subType;
+		private Class<?> subType2;
+		private Adapter<?> adapter;
+		private ClassDescriptor descriptor;
+		private Property property;
+		private String key;
+	}
+
+	private final Config config;
+	private final Listener listener;
+	private final Class<?> clazz;
+	private final Consumer<Object> consumer;
+
+	private State state = State.VALUE;
+	private char quote;
+	private final char[] unicode = new char[4];
+	private int unicodeLength;
+	private int utf8Remaining;
+	private int utf8CodePoint;
+
+	private char[] text = new char[64];
+	private int textLength;
+
+	private boolean[] objects = new boolean[16];
+	private Frame[] frames;
+	private Frame scalar;
+	private int skipped;
+	private int depth;
+	private boolean afterName;
+
+	private byte[] buffer;
+
+	/**
+	 * Instantiates a new feeder, that emits tokens to <code>listener</code>.
+	 *
+	 * @param listener
+	 *          the listener
+	 * @param config
+	 *          the config
+	 */
+	protected JackieFeeder(Listener listener, Config config)
+	{
+		this.config = config;
+		this.listener = listener;
+		this.clazz = null;
+		this.consumer = null;
+	}
+
+	/**
+	 * Instantiates a new feeder, that emits each top-level value converted to
+	 * instance of <code>clazz</code> to <code>consumer</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @param consumer
+	 *          the consumer
+	 * @param config
+	 *          the config
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> JackieFeeder(Class<T> clazz, Consumer<? super T> consumer, Config config)
+	{
+		this.config = config;
+		this.listener = null;
+		this.clazz = clazz;
+		this.consumer = (Consumer<Object>) consumer;
+		this.frames = new Frame[objects.length];
+		this.scalar = new Frame();
+	}
+
+	/**
+	 * Feeds all remaining bytes of <code>chunk</code>. Position of
+	 * <code>chunk</code> is moved to its limit.
+	 *
+	 * @param chunk
+	 *          the chunk
+	 */
+	public void feed(ByteBuffer chunk)
+	{
+		if (chunk.hasArray())
+		{
+			int offset = chunk.arrayOffset() + chunk.position();
+			feed(chunk.array(), offset, chunk.remaining());
+			chunk.position(chunk.limit());
+			return;
+		}
+		if (buffer == null)
+		{
+			buffer = new byte[BUFFER_SIZE];
+		}
+		while (chunk.hasRemaining())
+		{
+			int length = Math.min(chunk.remaining(), buffer.length);
+			chunk.get(buffer, 0, length);
+			feed(buffer, 0, length);
+		}
+	}
+
+	/**
+	 * Feeds <code>length</code> bytes of <code>data</code> starting at
+	 * <code>offset</code>.
+	 *
+	 * @param data
+	 *          the data
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 */
+	public void feed(byte[] data, int offset, int length)
+	{
+		try
+		{
+			process(data, offset, offset + length);
+		}
+		catch (RuntimeException e)
+		{
+			throw e;
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Signals end of input. Pending literal at top level is emitted. If input
+	 * ends inside of value, exception is thrown.
+	 */
+	public void end()
+	{
+		try
+		{
+			if (state == State.LITERAL)
+			{
+				finishLiteral();
+			}
+			if (state != State.VALUE || depth > 0)
+			{
+				throw new IllegalStateException("Unexpected end of input.");
+			}
+		}
+		catch (RuntimeException e)
+		{
+			throw e;
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Gets the text of current <code>FIELD_NAME</code> or value.
+	 *
+	 * @return the text
+	 */
+	public String getText()
+	{
+		return new String(text, 0, textLength);
+	}
+
+	/**
+	 * Checks, if text of current token equals to <code>value</code> without
+	 * creating new <code>String</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return true, if successful
+	 */
+	public boolean textEquals(String value)
+	{
+		if (value.length() != textLength)
+		{
+			return false;
+		}
+		for (int i = 0; i < textLength; i++)
+		{
+			if (text[i] != value.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the depth of nested objects and arrays.
+	 *
+	 * @return the depth
+	 */
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	/**
+	 * Runs the state machine over bytes from <code>pos</code> to
+	 * <code>limit</code>.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @param limit
+	 *          the limit
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void process(byte[] data, int pos, int limit) throws Exception
+	{
+		while (pos < limit)
+		{
+			switch (state)
+			{
+				case VALUE:
+					pos = processValue(data, pos);
+					break;
+				case STRING:
+					pos = processString(data, pos, limit);
+					break;
+				case ESCAPE:
+					pos = processEscape(data, pos);
+					break;
+				case UNICODE:
+					pos = processUnicode(data, pos);
+					break;
+				case LITERAL:
+					pos = processLiteral(data, pos, limit);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Processes byte in place of next token.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @return the new position
+	 * @throws Exception
+	 *           the exception
+	 */
+	private int processValue(byte[] data, int pos) throws Exception
+	{
+		int c = data[pos] & 0xFF;
+		switch (c)
+		{
+			case '{':
+				push(true);
+				emit(Token.START_OBJECT);
+				break;
+			case '}':
+				emit(Token.END_OBJECT);
+				pop();
+				break;
+			case '[':
+				push(false);
+				emit(Token.START_ARRAY);
+				break;
+			case ']':
+				emit(Token.END_ARRAY);
+				pop();
+				break;
+			case ',':
+			case ':':
+				break;
+			case '"':
+			case '\'':
+				quote = (char) c;
+				textLength = 0;
+				state = State.STRING;
+				break;
+			default:
+				if (c > ' ')
+				{
+					textLength = 0;
+					state = State.LITERAL;
+					return pos;
+				}
+		}
+		return pos + 1;
+	}
+
+	/**
+	 * Processes content of quoted string. ASCII runs are copied in tight loop.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @param limit
+	 *          the limit
+	 * @return the new position
+	 * @throws Exception
+	 *           the exception
+	 */
+	private int processString(byte[] data, int pos, int limit) throws Exception
+	{
+		if (utf8Remaining > 0)
+		{
+			return processContinuation(data, pos);
+		}
+		if (textLength == text.length)
+		{
+			ensureText(1);
+		}
+		char[] t = text;
+		int n = textLength;
+		int end = Math.min(limit, pos + t.length - n);
+		while (pos < end)
+		{
+			int b = data[pos];
+			if (b == quote)
+			{
+				textLength = n;
+				state = State.VALUE;
+				finishString();
+				return pos + 1;
+			}
+			else if (b == '\\')
+			{
+				textLength = n;
+				state = State.ESCAPE;
+				return pos + 1;
+			}
+			else if (b < 0)
+			{
+				textLength = n;
+				startMultiByte(b & 0xFF);
+				return pos + 1;
+			}
+			t[n++] = (char) b;
+			pos++;
+		}
+		textLength = n;
+		return pos;
+	}
+
+	/**
+	 * Processes character following backslash.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @return the new position
+	 */
+	private int processEscape(byte[] data, int pos)
+	{
+		int c = data[pos] & 0xFF;
+		state = State.STRING;
+		if (c == 'u')
+		{
+			unicodeLength = 0;
+			state = State.UNICODE;
+			return pos + 1;
+		}
+		int unescaped = Tokenizer.unescape(c);
+		if (unescaped < 0)
+		{
+			append('\\');
+			return pos;
+		}
+		append((char) unescaped);
+		return pos + 1;
+	}
+
+	/**
+	 * Processes hexadecimal digit of <code>\\u</code> escape sequence. If
+	 * sequence is not valid, it is kept as it is.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @return the new position
+	 */
+	private int processUnicode(byte[] data, int pos)
+	{
+		char c = (char) (data[pos] & 0xFF);
+		if (Character.digit(c, 16) < 0)
+		{
+			append('\\');
+			append('u');
+			for (int i = 0; i < unicodeLength; i++)
+			{
+				append(unicode[i]);
+			}
+			state = State.STRING;
+			return pos;
+		}
+		unicode[unicodeLength++] = c;
+		if (unicodeLength == unicode.length)
+		{
+			append((char) Integer.parseInt(new String(unicode), 16));
+			state = State.STRING;
+		}
+		return pos + 1;
+	}
+
+	/**
+	 * Processes content of unquoted literal, that ends with structural character
+	 * or whitespace.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @param limit
+	 *          the limit
+	 * @return the new position
+	 * @throws Exception
+	 *           the exception
+	 */
+	private int processLiteral(byte[] data, int pos, int limit) throws Exception
+	{
+		if (utf8Remaining > 0)
+		{
+			return processContinuation(data, pos);
+		}
+		boolean name = depth > 0 && objects[depth - 1] && !afterName;
+		while (pos < limit)
+		{
+			int b = data[pos];
+			if (b < 0)
+			{
+				startMultiByte(b & 0xFF);
+				return pos + 1;
+			}
+			else if (b <= ' ' || Tokenizer.isLiteralEnd(b, name))
+			{
+				state = State.VALUE;
+				finishLiteral();
+				return pos;
+			}
+			append((char) b);
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Processes continuation byte of multi-byte sequence.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @return the new position
+	 */
+	private int processContinuation(byte[] data, int pos)
+	{
+		int b = data[pos] & 0xFF;
+		if ((b & 0xC0) != 0x80)
+		{
+			utf8Remaining = 0;
+			append(REPLACEMENT);
+			return pos;
+		}
+		utf8CodePoint = (utf8CodePoint << 6) | (b & 0x3F);
+		if (--utf8Remaining == 0)
+		{
+			if (utf8CodePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT)
+			{
+				if (utf8CodePoint > Character.MAX_CODE_POINT)
+				{
+					append(REPLACEMENT);
+				}
+				else
+				{
+					append(Character.highSurrogate(utf8CodePoint));
+					append(Character.lowSurrogate(utf8CodePoint));
+				}
+			}
+			else
+			{
+				append((char) utf8CodePoint);
+			}
+		}
+		return pos + 1;
+	}
+
+	/**
+	 * Starts multi-byte sequence with <code>lead</code> byte.
+	 *
+	 * @param lead
+	 *          the lead
+	 */
+	private void startMultiByte(int lead)
+	{
+		if (lead >= 0xF8 || lead < 0xC0)
+		{
+			append(REPLACEMENT);
+		}
+		else if (lead >= 0xF0)
+		{
+			utf8CodePoint = lead & 0x07;
+			utf8Remaining = 3;
+		}
+		else if (lead >= 0xE0)
+		{
+			utf8CodePoint = lead & 0x0F;
+			utf8Remaining = 2;
+		}
+		else
+		{
+			utf8CodePoint = lead & 0x1F;
+			utf8Remaining = 1;
+		}
+	}
+
+	/**
+	 * Emits completed quoted string as field name or value.
+	 *
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void finishString() throws Exception
+	{
+		if (depth > 0 && objects[depth - 1] && !afterName)
+		{
+			afterName = true;
+			emit(Token.FIELD_NAME);
+			return;
+		}
+		afterName = false;
+		emit(Token.STRING);
+	}
+
+	/**
+	 * Emits completed unquoted literal as field name or value.
+	 *
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void finishLiteral() throws Exception
+	{
+		state = State.VALUE;
+		if (utf8Remaining > 0)
+		{
+			utf8Remaining = 0;
+			append(REPLACEMENT);
+		}
+		if (depth > 0 && objects[depth - 1] && !afterName)
+		{
+			afterName = true;
+			emit(Token.FIELD_NAME);
+			return;
+		}
+		afterName = false;
+		emit(JackieReader.classifyLiteral(text, textLength));
+	}
+
+	/**
+	 * Passes token to listener or binds it into value of top-level object.
+	 *
+	 * @param token
+	 *          the token
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void emit(Token token) throws Exception
+	{
+		if (listener != null)
+		{
+			listener.onToken(token, this);
+			return;
+		}
+		if (skipped > 0)
+		{
+			if (depth == skipped && (token == Token.END_OBJECT || token == Token.END_ARRAY))
+			{
+				skipped = 0;
+			}
+			return;
+		}
+
+		switch (token)
+		{
+			case START_OBJECT:
+			case START_ARRAY:
+				start(token == Token.START_OBJECT);
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				if (depth > 0)
+				{
+					add(complete(frames[depth - 1]), depth - 1);
+				}
+				break;
+			case FIELD_NAME:
+				Frame frame = frames[depth - 1];
+				String name = NameCache.local().get(text, textLength);
+				if (frame.binding == Binding.FIELDS)
+				{
+					frame.property = frame.descriptor.getProperty(name);
+				}
+				else
+				{
+					frame.key = name;
+				}
+				break;
+			default:
+				bindValue(token);
+		}
+	}
+
+	/**
+	 * Resolves type of value at <code>level</code> from container, that it
+	 * belongs to, and stores it into <code>frame</code>. Type of value, that
+	 * belongs to container bound to <code>Object</code>, is <code>null</code>.
+	 *
+	 * @param frame
+	 *          the frame
+	 * @param level
+	 *          the level
+	 * @return false, if value belongs to unknown field
+	 */
+	private boolean expect(Frame frame, int level)
+	{
+		frame.subType = null;
+		frame.subType2 = null;
+		frame.adapter = null;
+		if (level == 0)
+		{
+			frame.type = clazz;
+			return true;
+		}
+		Frame parent = frames[level - 1];
+		switch (parent.binding)
+		{
+			case FIELDS:
+				Property property = parent.property;
+				if (property == null)
+				{
+					return false;
+				}
+				frame.type = property.getType();
+				frame.subType = property.getSubClazz();
+				frame.subType2 = property.getSubClazz2();
+				frame.adapter = property.getAdapter();
+				break;
+			case MAP:
+				frame.type = parent.subType2;
+				break;
+			case LIST:
+				frame.type = parent.subType;
+				break;
+			case ARRAY:
+				frame.type = parent.type.getComponentType();
+				break;
+			default:
+				frame.type = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Starts binding of object or array at current depth. Instance of its type
+	 * is created at once, so its values are set into it as they complete.
+	 *
+	 * @param object
+	 *          the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void start(boolean object) throws Exception
+	{
+		Frame frame = frames[depth - 1];
+		if (frame == null)
+		{
+			frame = new Frame();
+			frames[depth - 1] = frame;
+		}
+		if (!expect(frame, depth - 1))
+		{
+			skipped = depth;
+			return;
+		}
+		frame.property = null;
+		frame.key = null;
+
+		Class<?> type = frame.type;
+		if (type == null || Object.class.equals(type))
+		{
+			frame.binding = Binding.RAW;
+			frame.container = object ? new LinkedHashMap<String, Object>() : new ArrayList<Object>();
+		}
+		else if (frame.adapter != null || config.getAdapter(type) != null)
+		{
+			throw new Exception("Adapter of " + type.getName() + " requires value.");
+		}
+		else if (object && Map.class.isAssignableFrom(type))
+		{
+			frame.binding = Binding.MAP;
+			frame.container = new LinkedHashMap<Object, Object>();
+			if (frame.subType == null || frame.subType2 == null)
+			{
+				frame.subType = Object.class;
+				frame.subType2 = Object.class;
+			}
+		}
+		else if (object && !ClassDescriptor.of(type).isSimple() && !type.isArray() && !Collection.class.isAssignableFrom(type))
+		{
+			ClassDescriptor descriptor = ClassDescriptor.of(type);
+			GeneratedCodec codec = descriptor.getCodec(config);
+			frame.binding = Binding.FIELDS;
+			frame.descriptor = descriptor;
+			frame.container = codec != null ? codec.newInstance() : descriptor.newInstance();
+		}
+		else if (object)
+		{
+			throw new Exception("Object could not be converted to " + type.getName() + ".");
+		}
+		else if (Collection.class.isAssignableFrom(type))
+		{
+			frame.binding = Binding.LIST;
+			frame.container = new ArrayList<Object>();
+			if (frame.subType == null)
+			{
+				frame.subType = Object.class;
+			}
+		}
+		else if (type.isArray())
+		{
+			frame.binding = Binding.ARRAY;
+			frame.container = new ArrayList<Object>();
+		}
+		else
+		{
+			throw new Exception("Array could not be converted to " + type.getName() + ".");
+		}
+	}
+
+	/**
+	 * Completes object or array bound by <code>frame</code>. Content collected
+	 * for <code>Object</code> is converted, unless it belongs to another such
+	 * content.
+	 *
+	 * @param frame
+	 *          the frame
+	 * @return the object
+	 * @throws Exception
+	 *           the exception
+	 */
+	private Object complete(Frame frame) throws Exception
+	{
+		Object container = frame.container;
+		frame.container = null;
+		frame.descriptor = null;
+		if (frame.binding == Binding.RAW)
+		{
+			return frame.type != null ? DeserializationMapper.convertToObject(container, frame.type, frame.subType, frame.subType2, config) : container;
+		}
+		else if (frame.binding == Binding.ARRAY)
+		{
+			Class<?> component = frame.type.getComponentType();
+			List<?> list = (List<?>) container;
+			if (CommonUtils.PRIMITIVE_CLASSES.contains(component))
+			{
+				return CommonUtils.convertArrayToPrimitive(list, component);
+			}
+			return list.toArray((Object[]) Array.newInstance(component, 0));
+		}
+		return container;
+	}
+
+	/**
+	 * Converts string or literal value to type resolved from its container.
+	 *
+	 * @param token
+	 *          the token
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void bindValue(Token token) throws Exception
+	{
+		Frame frame = scalar;
+		if (!expect(frame, depth))
+		{
+			return;
+		}
+		Class<?> type = frame.type;
+		Object value;
+		if (type == null || Object.class.equals(type))
+		{
+			value = token == Token.STRING ? getText() : Deserializator.deserializeLiteral(text, textLength, config);
+		}
+		else if (frame.adapter != null)
+		{
+			value = frame.adapter.deserialize(getText());
+		}
+		else if (config.getAdapter(type) != null || ClassDescriptor.of(type).isSimple())
+		{
+			value = DeserializationMapper.convertToObject(getText(), type, frame.subType, frame.subType2, config);
+		}
+		else if (textEquals("null"))
+		{
+			value = null;
+		}
+		else
+		{
+			throw new Exception("Value could not be converted to " + type.getName() + ".");
+		}
+		add(value, depth);
+	}
+
+	/**
+	 * Sets completed value into container at <code>level</code> or hands it to
+	 * consumer, if it is top-level value.
+	 *
+	 * @param value
+	 *          the value
+	 * @param level
+	 *          the level
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	private void add(Object value, int level) throws Exception
+	{
+		if (level == 0)
+		{
+			consumer.accept(value);
+			return;
+		}
+		Frame parent = frames[level - 1];
+		switch (parent.binding)
+		{
+			case FIELDS:
+				Property property = parent.property;
+				parent.property = null;
+				if (value != null || !property.getType().isPrimitive())
+				{
+					property.getAccessor().set(parent.container, value);
+				}
+				break;
+			case MAP:
+				String name = parent.key;
+				Class<?> keyType = parent.subType;
+				Object key = (String.class.equals(keyType) || Object.class.equals(keyType)) && !"null".equals(name) ? name : DeserializationMapper.convertToObject(name, keyType, config);
+				((Map<Object, Object>) parent.container).put(key, value);
+				parent.key = null;
+				break;
+			default:
+				if (parent.binding == Binding.RAW && objects[level - 1])
+				{
+					((Map<String, Object>) parent.container).put(parent.key, value);
+					parent.key = null;
+				}
+				else
+				{
+					((List<Object>) parent.container).add(value);
+				}
+		}
+	}
+
+	/**
+	 * Enters object or array.
+	 *
+	 * @param object
+	 *          the object
+	 */
+	private void push(boolean object)
+	{
+		if (depth == objects.length)
+		{
+			int length = depth << 1;
+			boolean[] newObjects = new boolean[length];
+			System.arraycopy(objects, 0, newObjects, 0, depth);
+			objects = newObjects;
+			if (frames != null)
+			{
+				Frame[] newFrames = new Frame[length];
+				System.arraycopy(frames, 0, newFrames, 0, depth);
+				frames = newFrames;
+			}
+		}
+		objects[depth++] = object;
+		afterName = false;
+	}
+
+	/**
+	 * Leaves object or array.
+	 */
+	private void pop()
+	{
+		if (depth > 0)
+		{
+			depth--;
+		}
+		afterName = false;
+	}
+
+	/**
+	 * Appends single character into text buffer.
+	 *
+	 * @param c
+	 *          the c
+	 */
+	private void append(char c)
+	{
+		ensureText(1);
+		text[textLength++] = c;
+	}
+
+	/**
+	 * Ensures text buffer fits at least <code>required</code> more chars.
+	 *
+	 * @param required
+	 *          the required
+	 */
+	private void ensureText(int required)
+	{
+		if (textLength + required > text.length)
+		{
+			char[] newText = new char[Math.max(text.length << 1, textLength + required)];
+			System.arraycopy(text, 0, newText, 0, textLength);
+			text = newText;
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package cz.tvrzna.jackie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.tvrzna.jackie.Tokenizer.Token;
+
+/**
+ * The Class JackiePath. Compiled path, that selects values from JSON
+ * document. Supported syntax is subset of JSONPath:
+ * <ul>
+ * <li><code>$</code> - root value</li>
+ * <li><code>.name</code> or <code>['name']</code> - value of object key</li>
+ * <li><code>[3]</code> - item of array</li>
+ * <li><code>.*</code> or <code>[*]</code> - all values of object or array</li>
+ * </ul>
+ * Path is immutable and may be shared among threads.
+ *
+ * <pre>
+ * JackiePath path = JackiePath.compile("$.items[*].price");
+ * List&lt;BigDecimal&gt; prices = jackie.extract(json, path, BigDecimal.class);
+ * </pre>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class JackiePath
+{
+	private static final int WILDCARD = -1;
+	private static final int NAME = -2;
+
+	private final String path;
+	private final String[] names;
+	private final int[] indexes;
+
+	private JackiePath(String path, String[] names, int[] indexes)
+	{
+		this.path = path;
+		this.names = names;
+		this.indexes = indexes;
+	}
+
+	/**
+	 * Compiles the path.
+	 *
+	 * @param path
+	 *          the path
+	 * @return the jackie path
+	 * @throws IllegalArgumentException
+	 *           if path is not valid
+	 */
+	public static JackiePath compile(String path)
+	{
+		if (path == null || !path.startsWith("$"))
+		{
+			throw new IllegalArgumentException("Path " + path + " has to start with $.");
+		}
+		List<String> names = new ArrayList<>();
+		List<Integer> indexes = new ArrayList<>();
+		int i = 1;
+		while (i < path.length())
+		{
+			char c = path.charAt(i);
+			if (c == '.')
+			{
+				int start = ++i;
+				while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[')
+				{
+					i++;
+				}
+				String name = path.substring(start, i);
+				if (name.isEmpty())
+				{
+					throw new IllegalArgumentException("Path " + path + " contains empty name at " + start + ".");
+				}
+				names.add("*".equals(name) ? null : name);
+				indexes.add("*".equals(name) ? WILDCARD : NAME);
+			}
+			else if (c == '[')
+			{
+				int end = path.indexOf(']', i);
+				if (end < 0)
+				{
+					throw new IllegalArgumentException("Path " + path + " has unclosed bracket at " + i + ".");
+				}
+				String content = path.substring(i + 1, end).trim();
+				if ("*".equals(content))
+				{
+					names.add(null);
+					indexes.add(WILDCARD);
+				}
+				else if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"') && content.charAt(content.length() - 1) == content.charAt(0))
+				{
+					names.add(content.substring(1, content.length() - 1));
+					indexes.add(NAME);
+				}
+				else
+				{
+					try
+					{
+						int index = Integer.parseInt(content);
+						if (index < 0)
+						{
+							throw new NumberFormatException();
+						}
+						names.add(null);
+						indexes.add(index);
+					}
+					catch (NumberFormatException e)
+					{
+						throw new IllegalArgumentException("Path " + path + " contains invalid index " + content + ".");
+					}
+				}
+				i = end + 1;
+			}
+			else
+			{
+				throw new IllegalArgumentException("Path " + path + " contains unexpected character at " + i + ".");
+			}
+		}
+
+		int[] result = new int[indexes.size()];
+		for (int j = 0; j < result.length; j++)
+		{
+			result[j] = indexes.get(j);
+		}
+		return new JackiePath(path, names.toArray(new String[names.size()]), result);
+	}
+
+	/**
+	 * Extracts all values, that match the path, from <code>tokenizer</code>.
+	 * Values outside of the path are skipped without being built.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @return the list
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected <T> List<T> extract(Tokenizer tokenizer, Class<T> clazz, Config config) throws Exception
+	{
+		List<T> result = new ArrayList<>();
+		if (tokenizer.peek() != Token.EOF)
+		{
+			extract(tokenizer, 0, clazz, config, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Matches next value with step <code>level</code>.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param level
+	 *          the level
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @param result
+	 *          the result
+	 * @throws Exception
+	 *           the exception
+	 */
+	private <T> void extract(Tokenizer tokenizer, int level, Class<T> clazz, Config config, List<T> result) throws Exception
+	{
+		if (level == indexes.length)
+		{
+			result.add(DeserializationMapper.readObject(tokenizer, clazz, null, null, config));
+			return;
+		}
+
+		Token token = tokenizer.peek();
+		if (token == Token.START_OBJECT && indexes[level] != NAME && indexes[level] != WILDCARD)
+		{
+			tokenizer.skipValue();
+		}
+		else if (token == Token.START_OBJECT)
+		{
+			tokenizer.next();
+			extractFromObject(tokenizer, level, clazz, config, result);
+		}
+		else if (token == Token.START_ARRAY && indexes[level] != NAME)
+		{
+			tokenizer.next();
+			extractFromArray(tokenizer, level, clazz, config, result);
+		}
+		else
+		{
+			tokenizer.skipValue();
+		}
+	}
+
+	/**
+	 * Matches keys of object, opening bracket is already consumed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param level
+	 *          the level
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @param result
+	 *          the result
+	 * @throws Exception
+	 *           the exception
+	 */
+	private <T> void extractFromObject(Tokenizer tokenizer, int level, Class<T> clazz, Config config, List<T> result) throws Exception
+	{
+		while (true)
+		{
+			switch (tokenizer.nextName())
+			{
+				case EOF:
+				case END_OBJECT:
+					return;
+				case STRING:
+				case LITERAL:
+					boolean matches = names[level] == null || tokenizer.textEquals(names[level]);
+					if (tokenizer.peek() == Token.COLON)
+					{
+						tokenizer.next();
+						if (matches)
+						{
+							extract(tokenizer, level + 1, clazz, config, result);
+						}
+						else
+						{
+							tokenizer.skipValue();
+						}
+					}
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Matches items of array, opening bracket is already consumed.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param level
+	 *          the level
+	 * @param clazz
+	 *          the clazz
+	 * @param config
+	 *          the config
+	 * @param result
+	 *          the result
+	 * @throws Exception
+	 *           the exception
+	 */
+	private <T> void extractFromArray(Tokenizer tokenizer, int level, Class<T> clazz, Config config, List<T> result) throws Exception
+	{
+		int index = 0;
+		while (true)
+		{
+			switch (tokenizer.peek())
+			{
+				case EOF:
+					return;
+				case END_ARRAY:
+					tokenizer.next();
+					return;
+				case START_OBJECT:
+				case START_ARRAY:
+				case STRING:
+				case LITERAL:
+					if (indexes[level] == WILDCARD || indexes[level] == index)
+					{
+						extract(tokenizer, level + 1, clazz, config, result);
+					}
+					else
+					{
+						tokenizer.skipValue();
+					}
+					if (!tokenizer.skipToSeparator())
+					{
+						return;
+					}
+					index++;
+					break;
+				default:
+					tokenizer.next();
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return path;
+	}
+}
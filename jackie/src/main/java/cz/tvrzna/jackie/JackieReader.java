@@ -0,0 +1,376 @@
+package cz.tvrzna.jackie;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * The Class JackieReader. Pull parser, that reads JSON token by token without
+ * building whole document in memory. Instance is obtained by
+ * <code>Jackie.reader(...)</code> methods.
+ *
+ * <pre>
+ * try (JackieReader reader = jackie.reader(inputStream))
+ * {
+ * 	reader.next(); // START_OBJECT
+ * 	while (reader.next() == Token.FIELD_NAME)
+ * 	{
+ * 		if ("id".equals(reader.getName()))
+ * 		{
+ * 			reader.next();
+ * 			id = reader.getLong();
+ * 		}
+ * 		else
+ * 		{
+ * 			reader.skipValue();
+ * 		}
+ * 	}
+ * }
+ * </pre>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class JackieReader implements AutoCloseable
+{
+	/**
+	 * The Enum Token.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	public enum Token
+	{
+		START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, FIELD_NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+
+	private final Tokenizer tokenizer;
+	private final Config config;
+	private boolean[] objects = new boolean[16];
+	private int depth;
+	private boolean afterName;
+	private Token current;
+
+	/**
+	 * Instantiates a new jackie reader.
+	 *
+	 * @param tokenizer
+	 *          the tokenizer
+	 * @param config
+	 *          the config
+	 */
+	protected JackieReader(Tokenizer tokenizer, Config config)
+	{
+		this.tokenizer = tokenizer;
+		this.config = config;
+	}
+
+	/**
+	 * Reads next token. Separators are consumed silently.
+	 *
+	 * @return the token
+	 */
+	public Token next()
+	{
+		try
+		{
+			while (true)
+			{
+				boolean expectName = depth > 0 && objects[depth - 1] && !afterName;
+				Tokenizer.Token token = expectName ? tokenizer.nextName() : tokenizer.next();
+				switch (token)
+				{
+					case EOF:
+						return current = Token.END_DOCUMENT;
+					case COMMA:
+					case COLON:
+						continue;
+					case START_OBJECT:
+						push(true);
+						return current = Token.START_OBJECT;
+					case START_ARRAY:
+						push(false);
+						return current = Token.START_ARRAY;
+					case END_OBJECT:
+						pop();
+						return current = Token.END_OBJECT;
+					case END_ARRAY:
+						pop();
+						return current = Token.END_ARRAY;
+					case STRING:
+						if (expectName)
+						{
+							return current = readName();
+						}
+						afterName = false;
+						return current = Token.STRING;
+					default:
+						if (expectName)
+						{
+							return current = readName();
+						}
+						afterName = false;
+						return current = classifyLiteral();
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Skips next value including all nested objects and arrays. It is usually
+	 * called after <code>FIELD_NAME</code>, that is not wanted.
+	 */
+	public void skipValue()
+	{
+		try
+		{
+			tokenizer.skipValue();
+			afterName = false;
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads next value into instance of <code>clazz</code>, the same way as
+	 * <code>Jackie.fromJson</code> does.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @return the t
+	 */
+	public <T> T readValue(Class<T> clazz)
+	{
+		try
+		{
+			T result = DeserializationMapper.readObject(tokenizer, clazz, null, null, config);
+			afterName = false;
+			return result;
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Gets the current token.
+	 *
+	 * @return the current token
+	 */
+	public Token getCurrentToken()
+	{
+		return current;
+	}
+
+	/**
+	 * Gets the depth of nested objects and arrays.
+	 *
+	 * @return the depth
+	 */
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	/**
+	 * Gets the name of current <code>FIELD_NAME</code>.
+	 *
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return tokenizer.name();
+	}
+
+	/**
+	 * Gets the current value as <code>String</code>. For <code>NULL</code> it
+	 * returns <code>null</code>.
+	 *
+	 * @return the string
+	 */
+	public String getString()
+	{
+		if (current == Token.NULL)
+		{
+			return null;
+		}
+		return tokenizer.text();
+	}
+
+	/**
+	 * Checks, if text of current token equals to <code>value</code> without
+	 * creating new <code>String</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return true, if successful
+	 */
+	public boolean textEquals(String value)
+	{
+		return tokenizer.textEquals(value);
+	}
+
+	/**
+	 * Gets the current value as boolean.
+	 *
+	 * @return the boolean
+	 */
+	public boolean getBoolean()
+	{
+		return tokenizer.textEquals("true");
+	}
+
+	/**
+	 * Gets the current value as int.
+	 *
+	 * @return the int
+	 */
+	public int getInt()
+	{
+		return NumberParser.parseInt(tokenizer.textBuffer(), 0, tokenizer.textLength());
+	}
+
+	/**
+	 * Gets the current value as long.
+	 *
+	 * @return the long
+	 */
+	public long getLong()
+	{
+		return NumberParser.parseLong(tokenizer.textBuffer(), 0, tokenizer.textLength());
+	}
+
+	/**
+	 * Gets the current value as double.
+	 *
+	 * @return the double
+	 */
+	public double getDouble()
+	{
+		return NumberParser.parseDouble(tokenizer.textBuffer(), 0, tokenizer.textLength());
+	}
+
+	/**
+	 * Gets the current value as <code>BigDecimal</code>.
+	 *
+	 * @return the big decimal
+	 */
+	public BigDecimal getBigDecimal()
+	{
+		return new BigDecimal(tokenizer.textBuffer(), 0, tokenizer.textLength());
+	}
+
+	/**
+	 * Gets the current value as <code>BigInteger</code>.
+	 *
+	 * @return the big integer
+	 */
+	public BigInteger getBigInteger()
+	{
+		return new BigInteger(tokenizer.text());
+	}
+
+	/**
+	 * Releases buffers held by reader. Underlying input is not closed.
+	 */
+	@Override
+	public void close()
+	{
+		tokenizer.release();
+	}
+
+	/**
+	 * Finishes field name by consuming following colon.
+	 *
+	 * @return the token
+	 * @throws Exception
+	 *           the exception
+	 */
+	private Token readName() throws Exception
+	{
+		if (tokenizer.peek() == Tokenizer.Token.COLON)
+		{
+			tokenizer.next();
+		}
+		afterName = true;
+		return Token.FIELD_NAME;
+	}
+
+	/**
+	 * Classifies unquoted literal.
+	 *
+	 * @return the token
+	 */
+	private Token classifyLiteral()
+	{
+		return classifyLiteral(tokenizer.textBuffer(), tokenizer.textLength());
+	}
+
+	/**
+	 * Classifies unquoted literal stored in first <code>length</code> chars of
+	 * <code>text</code>.
+	 *
+	 * @param text
+	 *          the text
+	 * @param length
+	 *          the length
+	 * @return the token
+	 */
+	protected static Token classifyLiteral(char[] text, int length)
+	{
+		if (length == 4 && text[0] == 'n' && text[1] == 'u' && text[2] == 'l' && text[3] == 'l')
+		{
+			return Token.NULL;
+		}
+		else if ((length == 4 && text[0] == 't' && text[1] == 'r' && text[2] == 'u' && text[3] == 'e')
+				|| (length == 5 && text[0] == 'f' && text[1] == 'a' && text[2] == 'l' && text[3] == 's' && text[4] == 'e'))
+		{
+			return Token.BOOLEAN;
+		}
+		char c = length > 0 ? text[0] : 0;
+		if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.')
+		{
+			return Token.NUMBER;
+		}
+		return Token.STRING;
+	}
+
+
+	/**
+	 * Enters object or array.
+	 *
+	 * @param object
+	 *          the object
+	 */
+	private void push(boolean object)
+	{
+		if (depth == objects.length)
+		{
+			boolean[] newObjects = new boolean[depth << 1];
+			System.arraycopy(objects, 0, newObjects, 0, depth);
+			objects = newObjects;
+		}
+		objects[depth++] = object;
+		afterName = false;
+	}
+
+	/**
+	 * Leaves object or array.
+	 */
+	private void pop()
+	{
+		if (depth > 0)
+		{
+			depth--;
+		}
+		afterName = false;
+	}
+}
@@ -0,0 +1,69 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The Class Layout. Pretty print sequences of single {@link Config}. Line
+ * break followed by indentation is prepared for each depth up to
+ * {@link #CACHED_DEPTH} as <code>char[]</code> and UTF-8 <code>byte[]</code>,
+ * so it is written by single copy. Layout is immutable, {@link Config} creates
+ * new one after any of its pretty print options changes.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class Layout
+{
+	private static final int CACHED_DEPTH = 16;
+
+	private final char[][] lineChars = new char[CACHED_DEPTH][];
+	private final byte[][] lineBytes = new byte[CACHED_DEPTH][];
+	private final char[] indentChars;
+	private final byte[] indentBytes;
+
+	/**
+	 * Instantiates a new layout of <code>config</code>.
+	 *
+	 * @param config
+	 *          the config
+	 */
+	protected Layout(Config config)
+	{
+		String indent = config.getPrettyIndentSymbol();
+		this.indentChars = indent.toCharArray();
+		this.indentBytes = indent.getBytes(StandardCharsets.UTF_8);
+		StringBuilder sb = new StringBuilder(config.getPrettyLineSymbol());
+		for (int depth = 0; depth < CACHED_DEPTH; depth++)
+		{
+			String line = sb.toString();
+			lineChars[depth] = line.toCharArray();
+			lineBytes[depth] = line.getBytes(StandardCharsets.UTF_8);
+			sb.append(indent);
+		}
+	}
+
+	/**
+	 * Writes line break and indentation of <code>depth</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param depth
+	 *          the depth
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected void writeLine(Output out, int depth) throws IOException
+	{
+		if (depth < CACHED_DEPTH)
+		{
+			out.write(lineChars[depth], lineBytes[depth]);
+			return;
+		}
+		out.write(lineChars[CACHED_DEPTH - 1], lineBytes[CACHED_DEPTH - 1]);
+		for (int i = CACHED_DEPTH - 1; i < depth; i++)
+		{
+			out.write(indentChars, indentBytes);
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package cz.tvrzna.jackie;
+
+/**
+ * The Class NameCache. Bounded table of object keys, so recurring keys are
+ * resolved to single shared <code>String</code> without allocation. Slots are
+ * found by open addressing on hash, candidates are compared with raw chars.
+ * Each thread has its own cache, that lives across documents.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class NameCache
+{
+	private static final int SIZE = 512;
+	private static final int MAX_PROBES = 4;
+	private static final int MAX_LENGTH = 64;
+	private static final ThreadLocal<NameCache> LOCAL = ThreadLocal.withInitial(NameCache::new);
+
+	private final String[] names = new String[SIZE];
+
+	private NameCache()
+	{
+	}
+
+	/**
+	 * Gets the cache of current thread.
+	 *
+	 * @return the name cache
+	 */
+	protected static NameCache local()
+	{
+		return LOCAL.get();
+	}
+
+	/**
+	 * Gets the shared <code>String</code> of first <code>length</code> chars of
+	 * <code>text</code>. Long keys are not cached. When probed slots are taken,
+	 * the first of them is replaced.
+	 *
+	 * @param text
+	 *          the text
+	 * @param length
+	 *          the length
+	 * @return the string
+	 */
+	protected String get(char[] text, int length)
+	{
+		if (length > MAX_LENGTH)
+		{
+			return new String(text, 0, length);
+		}
+		int hash = 0;
+		for (int i = 0; i < length; i++)
+		{
+			hash = 31 * hash + text[i];
+		}
+		int home = (hash ^ (hash >>> 16)) & (SIZE - 1);
+		int index = home;
+		for (int probe = 0; probe < MAX_PROBES; probe++)
+		{
+			String name = names[index];
+			if (name == null)
+			{
+				return names[index] = new String(text, 0, length);
+			}
+			else if (name.hashCode() == hash && matches(name, text, length))
+			{
+				return name;
+			}
+			index = (index + 1) & (SIZE - 1);
+		}
+		return names[home] = new String(text, 0, length);
+	}
+
+	/**
+	 * Compares cached name with raw chars.
+	 *
+	 * @param name
+	 *          the name
+	 * @param text
+	 *          the text
+	 * @param length
+	 *          the length
+	 * @return true, if successful
+	 */
+	private static boolean matches(String name, char[] text, int length)
+	{
+		if (name.length() != length)
+		{
+			return false;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			if (name.charAt(i) != text[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,408 @@
+package cz.tvrzna.jackie;
+
+import java.math.BigInteger;
+
+/**
+ * The Class NumberParser. Parses numbers directly from <code>char[]</code>
+ * without creating <code>String</code>. Plain decimal input is handled by fast
+ * paths, anything else is passed to JDK parsers, so results and exceptions are
+ * always the same as of <code>Long.parseLong</code> or
+ * <code>Double.parseDouble</code>.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class NumberParser
+{
+	private static final int MIN_EXP10 = -348;
+	private static final int MAX_EXP10 = 347;
+	private static final long[] POWERS_HI = new long[MAX_EXP10 - MIN_EXP10 + 1];
+	private static final long[] POWERS_LO = new long[MAX_EXP10 - MIN_EXP10 + 1];
+	private static final double[] DOUBLE_POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+			1e21, 1e22 };
+	private static final float[] FLOAT_POWERS = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
+	static
+	{
+		BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		for (int e = MIN_EXP10; e <= MAX_EXP10; e++)
+		{
+			BigInteger mantissa;
+			if (e >= 0)
+			{
+				BigInteger power = BigInteger.TEN.pow(e);
+				int shift = power.bitLength() - 128;
+				mantissa = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+			}
+			else
+			{
+				BigInteger power = BigInteger.TEN.pow(-e);
+				mantissa = BigInteger.ONE.shiftLeft(127 + power.bitLength()).divide(power);
+			}
+			POWERS_HI[e - MIN_EXP10] = mantissa.shiftRight(64).longValue();
+			POWERS_LO[e - MIN_EXP10] = mantissa.and(mask).longValue();
+		}
+	}
+
+	private NumberParser()
+	{
+	}
+
+	/**
+	 * Parses int.
+	 *
+	 * @param text
+	 *          the text
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @return the int
+	 */
+	protected static int parseInt(char[] text, int offset, int length)
+	{
+		if (length > 0 && length < 10)
+		{
+			long value = parseSmall(text, offset, length);
+			if (value != Long.MIN_VALUE)
+			{
+				return (int) value;
+			}
+		}
+		return Integer.parseInt(new String(text, offset, length));
+	}
+
+	/**
+	 * Parses short.
+	 *
+	 * @param text
+	 *          the text
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @return the short
+	 */
+	protected static short parseShort(char[] text, int offset, int length)
+	{
+		if (length > 0 && length < 10)
+		{
+			long value = parseSmall(text, offset, length);
+			if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+			{
+				return (short) value;
+			}
+		}
+		return Short.parseShort(new String(text, offset, length));
+	}
+
+	/**
+	 * Parses long.
+	 *
+	 * @param text
+	 *          the text
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @return the long
+	 */
+	protected static long parseLong(char[] text, int offset, int length)
+	{
+		if (length > 0 && length < 19)
+		{
+			long value = parseSmall(text, offset, length);
+			if (value != Long.MIN_VALUE)
+			{
+				return value;
+			}
+		}
+		return Long.parseLong(new String(text, offset, length));
+	}
+
+	/**
+	 * Parses signed integer of at most 18 digits, that can not overflow.
+	 *
+	 * @param text
+	 *          the text
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @return the value or <code>Long.MIN_VALUE</code>, if input is not plain
+	 *         integer
+	 */
+	private static long parseSmall(char[] text, int offset, int length)
+	{
+		int i = offset;
+		int end = offset + length;
+		char c = text[i];
+		boolean negative = c == '-';
+		if (negative || c == '+')
+		{
+			if (++i == end)
+			{
+				return Long.MIN_VALUE;
+			}
+		}
+		long value = 0;
+		for (; i < end; i++)
+		{
+			int digit = text[i] - '0';
+			if (digit < 0 || digit > 9)
+			{
+				return Long.MIN_VALUE;
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses double. Short decimals are computed exactly in double arithmetic,
+	 * others by Eisel-Lemire algorithm. Input, that none of them decides, is
+	 * passed to <code>Double.parseDouble</code>.
+	 *
+	 * @param text
+	 *          the text
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @return the double
+	 */
+	protected static double parseDouble(char[] text, int offset, int length)
+	{
+		int end = offset + length;
+		int i = offset;
+		boolean negative = false;
+		if (i < end && (text[i] == '-' || text[i] == '+'))
+		{
+			negative = text[i++] == '-';
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exp10 = 0;
+		boolean any = false;
+		for (; i < end; i++)
+		{
+			int digit = text[i] - '0';
+			if (digit < 0 || digit > 9)
+			{
+				break;
+			}
+			any = true;
+			if (mantissa != 0 || digit != 0)
+			{
+				mantissa = mantissa * 10 + digit;
+				digits++;
+			}
+		}
+		if (i < end && text[i] == '.')
+		{
+			for (i++; i < end; i++)
+			{
+				int digit = text[i] - '0';
+				if (digit < 0 || digit > 9)
+				{
+					break;
+				}
+				any = true;
+				if (mantissa != 0 || digit != 0)
+				{
+					mantissa = mantissa * 10 + digit;
+					digits++;
+				}
+				exp10--;
+			}
+		}
+		if (i < end && (text[i] == 'e' || text[i] == 'E') && any)
+		{
+			i++;
+			boolean negativeExp = false;
+			if (i < end && (text[i] == '-' || text[i] == '+'))
+			{
+				negativeExp = text[i++] == '-';
+			}
+			int exp = 0;
+			int start = i;
+			for (; i < end; i++)
+			{
+				int digit = text[i] - '0';
+				if (digit < 0 || digit > 9)
+				{
+					break;
+				}
+				if (exp < 100000)
+				{
+					exp = exp * 10 + digit;
+				}
+			}
+			if (i == start)
+			{
+				any = false;
+			}
+			exp10 += negativeExp ? -exp : exp;
+		}
+
+		if (any && i == end && digits <= 19)
+		{
+			if (mantissa == 0)
+			{
+				return negative ? -0.0 : 0.0;
+			}
+			if (mantissa > 0 && mantissa <= (1L << 53) && exp10 >= -22 && exp10 <= 22)
+			{
+				double value = exp10 < 0 ? mantissa / DOUBLE_POWERS[-exp10] : mantissa * DOUBLE_POWERS[exp10];
+				return negative ? -value : value;
+			}
+			long bits = eiselLemire(mantissa, exp10);
+			if (bits >= 0)
+			{
+				double value = Double.longBitsToDouble(bits);
+				return negative ? -value : value;
+			}
+		}
+		return Double.parseDouble(new String(text, offset, length));
+	}
+
+	/**
+	 * Parses float. Short decimals are computed exactly in float arithmetic,
+	 * others are passed to <code>Float.parseFloat</code>.
+	 *
+	 * @param text
+	 *          the text
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @return the float
+	 */
+	protected static float parseFloat(char[] text, int offset, int length)
+	{
+		int end = offset + length;
+		int i = offset;
+		boolean negative = false;
+		if (i < end && (text[i] == '-' || text[i] == '+'))
+		{
+			negative = text[i++] == '-';
+		}
+		long mantissa = 0;
+		int exp10 = 0;
+		boolean any = false;
+		boolean dot = false;
+		for (; i < end && mantissa <= (1 << 24); i++)
+		{
+			char c = text[i];
+			if (c == '.' && !dot)
+			{
+				dot = true;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9)
+			{
+				break;
+			}
+			any = true;
+			mantissa = mantissa * 10 + digit;
+			if (dot)
+			{
+				exp10--;
+			}
+		}
+		if (any && i == end && mantissa <= (1 << 24) && exp10 >= -10)
+		{
+			float value = (float) mantissa / FLOAT_POWERS[-exp10];
+			return negative ? -value : value;
+		}
+		return Float.parseFloat(new String(text, offset, length));
+	}
+
+	/**
+	 * Computes bits of <code>mantissa * 10^exp10</code> by Eisel-Lemire
+	 * algorithm.
+	 *
+	 * @param mantissa
+	 *          the non-zero mantissa
+	 * @param exp10
+	 *          the exp 10
+	 * @return bits of double or <code>-1</code>, if result can not be decided
+	 */
+	private static long eiselLemire(long mantissa, int exp10)
+	{
+		if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10)
+		{
+			return -1;
+		}
+		int clz = Long.numberOfLeadingZeros(mantissa);
+		long man = mantissa << clz;
+		long exp2 = ((217706L * exp10) >> 16) + 64 + 1023 - clz;
+
+		long powerHi = POWERS_HI[exp10 - MIN_EXP10];
+		long xHi = multiplyHigh(man, powerHi);
+		long xLo = man * powerHi;
+		if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + man, man) < 0)
+		{
+			long powerLo = POWERS_LO[exp10 - MIN_EXP10];
+			long yHi = multiplyHigh(man, powerLo);
+			long yLo = man * powerLo;
+			long mergedHi = xHi;
+			long mergedLo = xLo + yHi;
+			if (Long.compareUnsigned(mergedLo, xLo) < 0)
+			{
+				mergedHi++;
+			}
+			if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && Long.compareUnsigned(yLo + man, man) < 0)
+			{
+				return -1;
+			}
+			xHi = mergedHi;
+			xLo = mergedLo;
+		}
+
+		long msb = xHi >>> 63;
+		long result = xHi >>> (msb + 9);
+		exp2 -= 1 ^ msb;
+		if (xLo == 0 && (xHi & 0x1FF) == 0 && (result & 3) == 1)
+		{
+			return -1;
+		}
+		result += result & 1;
+		result >>>= 1;
+		if ((result >>> 53) > 0)
+		{
+			result >>>= 1;
+			exp2++;
+		}
+		if (exp2 <= 0 || exp2 >= 0x7FF)
+		{
+			return -1;
+		}
+		return exp2 << 52 | result & 0x000FFFFFFFFFFFFFL;
+	}
+
+	/**
+	 * Computes high 64 bits of unsigned 128-bit product.
+	 *
+	 * @param x
+	 *          the x
+	 * @param y
+	 *          the y
+	 * @return the long
+	 */
+	protected static long multiplyHigh(long x, long y)
+	{
+		long x0 = x & 0xFFFFFFFFL;
+		long x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL;
+		long y1 = y >>> 32;
+		long p00 = x0 * y0;
+		long p01 = x0 * y1;
+		long p10 = x1 * y0;
+		long p11 = x1 * y1;
+		long middle = (p00 >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+		return p11 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+	}
+}
@@ -0,0 +1,525 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * The Class NumberWriter. Formats numbers directly into scratch buffer of
+ * {@link Output} without creating <code>String</code>. Integers are written by
+ * two digits at once, <code>double</code> and <code>float</code> are converted
+ * to shortest decimal, that rounds back to the same value, by Schubfach
+ * algorithm. Output has the same format as <code>Double.toString</code> or
+ * <code>Float.toString</code>.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class NumberWriter
+{
+	private static final int K_MIN = -324;
+	private static final int K_MAX = 292;
+	private static final long[] G1 = new long[K_MAX - K_MIN + 1];
+	private static final long[] G0 = new long[K_MAX - K_MIN + 1];
+	private static final long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+	private static final long MASK_32 = 0xFFFFFFFFL;
+	private static final char[] TENS = new char[100];
+	private static final char[] ONES = new char[100];
+
+	private static final int DOUBLE_Q_MIN = -1074;
+	private static final long DOUBLE_C_MIN = 1L << 52;
+	private static final long DOUBLE_C_TINY = 3;
+	private static final int FLOAT_Q_MIN = -149;
+	private static final int FLOAT_C_MIN = 1 << 23;
+	private static final int FLOAT_C_TINY = 8;
+
+	static
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			TENS[i] = (char) ('0' + i / 10);
+			ONES[i] = (char) ('0' + i % 10);
+		}
+		BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+		for (int k = K_MIN; k <= K_MAX; k++)
+		{
+			int e = -k;
+			int shift = 125 - flog2pow10(e);
+			BigInteger g;
+			if (e >= 0)
+			{
+				BigInteger power = BigInteger.TEN.pow(e);
+				g = shift >= 0 ? power.shiftLeft(shift) : power.shiftRight(-shift);
+			}
+			else
+			{
+				g = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(-e));
+			}
+			g = g.add(BigInteger.ONE);
+			G1[k - K_MIN] = g.shiftRight(63).longValue();
+			G0[k - K_MIN] = g.and(mask).longValue();
+		}
+	}
+
+	private NumberWriter()
+	{
+	}
+
+	/**
+	 * Writes int.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void writeInt(Output out, int value) throws IOException
+	{
+		writeLong(out, value);
+	}
+
+	/**
+	 * Writes long.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void writeLong(Output out, long value) throws IOException
+	{
+		char[] buffer = out.scratch;
+		int start = fillDigits(buffer, buffer.length, value);
+		out.write(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * Writes double.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void writeDouble(Output out, double value) throws IOException
+	{
+		long bits = Double.doubleToRawLongBits(value);
+		long t = bits & (DOUBLE_C_MIN - 1);
+		int bq = (int) (bits >>> 52) & 0x7FF;
+		if (bq == 0x7FF)
+		{
+			out.write(Double.toString(value));
+			return;
+		}
+		if (bits < 0)
+		{
+			out.write('-');
+		}
+		if (bq != 0)
+		{
+			int mq = -DOUBLE_Q_MIN + 1 - bq;
+			long c = DOUBLE_C_MIN | t;
+			if (0 < mq && mq < 53)
+			{
+				long f = c >> mq;
+				if (f << mq == c)
+				{
+					writeDecimal(out, f, 0);
+					return;
+				}
+			}
+			toDecimal(out, -mq, c, 0);
+		}
+		else if (t == 0)
+		{
+			out.write("0.0");
+		}
+		else if (t < DOUBLE_C_TINY)
+		{
+			toDecimal(out, DOUBLE_Q_MIN, 10 * t, -1);
+		}
+		else
+		{
+			toDecimal(out, DOUBLE_Q_MIN, t, 0);
+		}
+	}
+
+	/**
+	 * Writes float.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void writeFloat(Output out, float value) throws IOException
+	{
+		int bits = Float.floatToRawIntBits(value);
+		int t = bits & (FLOAT_C_MIN - 1);
+		int bq = (bits >>> 23) & 0xFF;
+		if (bq == 0xFF)
+		{
+			out.write(Float.toString(value));
+			return;
+		}
+		if (bits < 0)
+		{
+			out.write('-');
+		}
+		if (bq != 0)
+		{
+			int mq = -FLOAT_Q_MIN + 1 - bq;
+			int c = FLOAT_C_MIN | t;
+			if (0 < mq && mq < 24)
+			{
+				int f = c >> mq;
+				if (f << mq == c)
+				{
+					writeDecimal(out, f, 0);
+					return;
+				}
+			}
+			toDecimal(out, -mq, c, 0);
+		}
+		else if (t == 0)
+		{
+			out.write("0.0");
+		}
+		else if (t < FLOAT_C_TINY)
+		{
+			toDecimal(out, FLOAT_Q_MIN, 10 * t, -1);
+		}
+		else
+		{
+			toDecimal(out, FLOAT_Q_MIN, t, 0);
+		}
+	}
+
+	/**
+	 * Finds shortest decimal of double <code>c * 2^q</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param q
+	 *          the binary exponent
+	 * @param c
+	 *          the significand
+	 * @param dk
+	 *          the correction of decimal exponent
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void toDecimal(Output out, int q, long c, int dk) throws IOException
+	{
+		int odd = (int) c & 1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN)
+		{
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		}
+		else
+		{
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 2;
+		long g1 = G1[k - K_MIN];
+		long g0 = G0[k - K_MIN];
+
+		long vb = rop(g1, g0, cb << h);
+		long vbl = rop(g1, g0, cbl << h);
+		long vbr = rop(g1, g0, cbr << h);
+
+		long s = vb >> 2;
+		if (s >= 100)
+		{
+			long sp10 = 10 * NumberParser.multiplyHigh(s, 115292150460684698L << 4);
+			long tp10 = sp10 + 10;
+			boolean upin = vbl + odd <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + odd <= vbr;
+			if (upin != wpin)
+			{
+				writeDecimal(out, upin ? sp10 : tp10, k);
+				return;
+			}
+		}
+		long t = s + 1;
+		boolean uin = vbl + odd <= s << 2;
+		boolean win = (t << 2) + odd <= vbr;
+		if (uin != win)
+		{
+			writeDecimal(out, uin ? s : t, k + dk);
+			return;
+		}
+		long cmp = vb - (s + t << 1);
+		writeDecimal(out, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+	}
+
+	/**
+	 * Finds shortest decimal of float <code>c * 2^q</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param q
+	 *          the binary exponent
+	 * @param c
+	 *          the significand
+	 * @param dk
+	 *          the correction of decimal exponent
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void toDecimal(Output out, int q, int c, int dk) throws IOException
+	{
+		int odd = c & 1;
+		long cb = (long) c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN)
+		{
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		}
+		else
+		{
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 33;
+		long g = G1[k - K_MIN] + 1;
+
+		int vb = rop(g, cb << h);
+		int vbl = rop(g, cbl << h);
+		int vbr = rop(g, cbr << h);
+
+		int s = vb >> 2;
+		if (s >= 100)
+		{
+			int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+			int tp10 = sp10 + 10;
+			boolean upin = vbl + odd <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + odd <= vbr;
+			if (upin != wpin)
+			{
+				writeDecimal(out, upin ? sp10 : tp10, k);
+				return;
+			}
+		}
+		int t = s + 1;
+		boolean uin = vbl + odd <= s << 2;
+		boolean win = (t << 2) + odd <= vbr;
+		if (uin != win)
+		{
+			writeDecimal(out, uin ? s : t, k + dk);
+			return;
+		}
+		int cmp = vb - (s + t << 1);
+		writeDecimal(out, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+	}
+
+	/**
+	 * Computes <code>g * cp / 2^127</code> rounded to odd.
+	 *
+	 * @param g1
+	 *          the high bits of g
+	 * @param g0
+	 *          the low bits of g
+	 * @param cp
+	 *          the cp
+	 * @return the long
+	 */
+	private static long rop(long g1, long g0, long cp)
+	{
+		long x1 = NumberParser.multiplyHigh(g0, cp);
+		long y0 = g1 * cp;
+		long y1 = NumberParser.multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | (z & MASK_63) + MASK_63 >>> 63;
+	}
+
+	/**
+	 * Computes <code>g * cp / 2^95</code> rounded to odd.
+	 *
+	 * @param g
+	 *          the g
+	 * @param cp
+	 *          the cp
+	 * @return the int
+	 */
+	private static int rop(long g, long cp)
+	{
+		long x1 = NumberParser.multiplyHigh(g, cp);
+		long vbp = x1 >>> 31;
+		return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+	}
+
+	/**
+	 * Writes decimal <code>f * 10^e</code> in format of
+	 * <code>Double.toString</code>. Plain notation is used for values from
+	 * <code>10^-3</code> to <code>10^7</code>, others are written in scientific
+	 * notation.
+	 *
+	 * @param out
+	 *          the out
+	 * @param f
+	 *          the positive significand
+	 * @param e
+	 *          the decimal exponent
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void writeDecimal(Output out, long f, int e) throws IOException
+	{
+		while (f % 10 == 0)
+		{
+			f /= 10;
+			e++;
+		}
+		char[] buffer = out.scratch;
+		int start = fillDigits(buffer, buffer.length, f);
+		int length = buffer.length - start;
+		int exp = length + e - 1;
+		if (exp >= 0 && exp < 7)
+		{
+			if (length <= exp + 1)
+			{
+				out.write(buffer, start, length);
+				for (int i = length; i <= exp; i++)
+				{
+					out.write('0');
+				}
+				out.write(".0");
+			}
+			else
+			{
+				out.write(buffer, start, exp + 1);
+				out.write('.');
+				out.write(buffer, start + exp + 1, length - exp - 1);
+			}
+		}
+		else if (exp < 0 && exp >= -3)
+		{
+			out.write('0');
+			out.write('.');
+			for (int i = exp + 1; i < 0; i++)
+			{
+				out.write('0');
+			}
+			out.write(buffer, start, length);
+		}
+		else
+		{
+			out.write(buffer[start]);
+			out.write('.');
+			if (length > 1)
+			{
+				out.write(buffer, start + 1, length - 1);
+			}
+			else
+			{
+				out.write('0');
+			}
+			out.write('E');
+			writeInt(out, exp);
+		}
+	}
+
+	/**
+	 * Fills digits of <code>value</code> into <code>buffer</code>, so they end
+	 * before <code>end</code>. Two digits are resolved by single division.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @param end
+	 *          the end
+	 * @param value
+	 *          the value
+	 * @return the index of first character
+	 */
+	private static int fillDigits(char[] buffer, int end, long value)
+	{
+		int pos = end;
+		boolean negative = value < 0;
+		long i = negative ? value : -value;
+		while (i <= Integer.MIN_VALUE)
+		{
+			long q = i / 100;
+			int r = (int) (q * 100 - i);
+			i = q;
+			buffer[--pos] = ONES[r];
+			buffer[--pos] = TENS[r];
+		}
+		int j = (int) i;
+		while (j <= -100)
+		{
+			int q = j / 100;
+			int r = q * 100 - j;
+			j = q;
+			buffer[--pos] = ONES[r];
+			buffer[--pos] = TENS[r];
+		}
+		if (j <= -10)
+		{
+			buffer[--pos] = ONES[-j];
+			buffer[--pos] = TENS[-j];
+		}
+		else
+		{
+			buffer[--pos] = (char) ('0' - j);
+		}
+		if (negative)
+		{
+			buffer[--pos] = '-';
+		}
+		return pos;
+	}
+
+	/**
+	 * Computes <code>floor(log10(2^e))</code>.
+	 *
+	 * @param e
+	 *          the e
+	 * @return the int
+	 */
+	private static int flog10pow2(int e)
+	{
+		return (int) (e * 661971961083L >> 41);
+	}
+
+	/**
+	 * Computes <code>floor(log10(3/4 * 2^e))</code>.
+	 *
+	 * @param e
+	 *          the e
+	 * @return the int
+	 */
+	private static int flog10threeQuartersPow2(int e)
+	{
+		return (int) (e * 661971961083L + -274743187321L >> 41);
+	}
+
+	/**
+	 * Computes <code>floor(log2(10^e))</code>.
+	 *
+	 * @param e
+	 *          the e
+	 * @return the int
+	 */
+	private static int flog2pow10(int e)
+	{
+		return (int) (e * 913124641741L >> 38);
+	}
+}
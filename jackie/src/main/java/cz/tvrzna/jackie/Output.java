@@ -0,0 +1,98 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+
+/**
+ * The Class Output. Sink of serialized JSON. Implementations write either
+ * characters or UTF-8 encoded bytes into their own reusable buffer, so
+ * <code>Serializator</code> never works with <code>Writer</code> nor
+ * intermediate <code>String</code> values.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public abstract class Output
+{
+	protected final char[] scratch = new char[32];
+
+	/**
+	 * Writes single character.
+	 *
+	 * @param c
+	 *          the c
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void write(char c) throws IOException;
+
+	/**
+	 * Writes part of <code>String</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void write(String value, int offset, int length) throws IOException;
+
+	/**
+	 * Writes part of <code>char[]</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void write(char[] value, int offset, int length) throws IOException;
+
+	/**
+	 * Writes text, that is already prepared in both forms. Character outputs
+	 * copy <code>chars</code>, byte outputs copy <code>bytes</code>.
+	 *
+	 * @param chars
+	 *          the chars
+	 * @param bytes
+	 *          the same text as UTF-8 bytes
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void write(char[] chars, byte[] bytes) throws IOException;
+
+	/**
+	 * Writes whole <code>String</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected void write(String value) throws IOException
+	{
+		write(value, 0, value.length());
+	}
+
+	/**
+	 * Passes buffered content to underlying sink, if there is any.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected void flush() throws IOException
+	{
+	}
+
+	/**
+	 * Releases buffers held by output. Output must not be used afterwards.
+	 */
+	protected void release()
+	{
+	}
+}
@@ -0,0 +1,1029 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.BaseStream;
+
+import cz.tvrzna.jackie.ClassDescriptor.Property;
+
+/**
+ * The Class Serializator.
+ *
+ * @author michalt
+ */
+public class Serializator
+{
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final String[] ESCAPES = new String[128];
+
+	static
+	{
+		for (int c = 0; c < 0x20; c++)
+		{
+			ESCAPES[c] = "\\u00" + HEX[c >> 4] + HEX[c & 0xF];
+		}
+		ESCAPES['\t'] = "\\t";
+		ESCAPES['\r'] = "\\r";
+		ESCAPES['\n'] = "\\n";
+		ESCAPES['\f'] = "\\f";
+		ESCAPES['\b'] = "\\b";
+		ESCAPES['"'] = "\\\"";
+		ESCAPES['\\'] = "\\\\";
+	}
+
+	private Serializator()
+	{
+	}
+
+	/**
+	 * Serialize <code>object</code> to <code>String</code>.
+	 *
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @return the string
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static String serialize(Object object, Config config, int indent) throws Exception
+	{
+		CharOutput out = new CharOutput();
+		try
+		{
+			serialize(out, object, config, indent);
+			return out.toString();
+		}
+		finally
+		{
+			out.release();
+		}
+	}
+
+	/**
+	 * Serialize <code>object</code> to UTF-8 encoded <code>byte[]</code>.
+	 *
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @return the byte[]
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static byte[] serializeToBytes(Object object, Config config) throws Exception
+	{
+		Utf8Output out = new Utf8Output();
+		try
+		{
+			serialize(out, object, config, 0);
+			return out.toByteArray();
+		}
+		finally
+		{
+			out.release();
+		}
+	}
+
+	/**
+	 * Serialize <code>object</code> to <code>OutputStream</code> as UTF-8.
+	 * Stream is flushed, but not closed.
+	 *
+	 * @param os
+	 *          the os
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static void serialize(OutputStream os, Object object, Config config, int indent) throws Exception
+	{
+		Utf8Output out = new Utf8Output(os);
+		try
+		{
+			serialize(out, object, config, indent);
+			out.flush();
+		}
+		finally
+		{
+			out.release();
+		}
+	}
+
+	/**
+	 * Serialize items of <code>iterator</code> to <code>OutputStream</code> as
+	 * UTF-8 list. Stream is flushed after each full chunk of output, so memory
+	 * use does not depend on count of items. Stream is not closed.
+	 *
+	 * @param os
+	 *          the os
+	 * @param iterator
+	 *          the iterator
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	protected static void serialize(OutputStream os, Iterator<?> iterator, Config config) throws Exception
+	{
+		Utf8Output out = new Utf8Output(os, true);
+		try
+		{
+			serializeList(out, (Iterator<Object>) iterator, config, 0);
+			out.flush();
+		}
+		finally
+		{
+			out.release();
+		}
+	}
+
+	/**
+	 * Serialize <code>object</code> to <code>WritableByteChannel</code> as
+	 * UTF-8. Channel is not closed.
+	 *
+	 * @param channel
+	 *          the channel
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static void serialize(WritableByteChannel channel, Object object, Config config) throws Exception
+	{
+		ChannelOutput out = new ChannelOutput(channel);
+		try
+		{
+			serialize(out, object, config, 0);
+			out.flush();
+		}
+		finally
+		{
+			out.release();
+		}
+	}
+
+	/**
+	 * Serialize <code>object</code> into <code>ByteBuffer</code> as UTF-8,
+	 * starting at its position. If JSON does not fit into remaining space,
+	 * position is moved back to its original value, so no partial JSON is left
+	 * before it. Bytes after position may be already overwritten.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @throws BufferOverflowException
+	 *           if JSON does not fit into remaining space of buffer
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static void serialize(ByteBuffer buffer, Object object, Config config) throws Exception
+	{
+		int position = buffer.position();
+		Utf8Output out = new Utf8Output(buffer);
+		try
+		{
+			serialize(out, object, config, 0);
+			out.flush();
+		}
+		catch (BufferOverflowException e)
+		{
+			// Buffer is cast, because ByteBuffer.position(int) does not exist in Java 8
+			((Buffer) buffer).position(position);
+			throw e;
+		}
+		finally
+		{
+			out.release();
+		}
+	}
+
+	/**
+	 * Serialize <code>object</code>. Object graph is walked directly, fields of
+	 * objects are read through accessors cached per class. Items of
+	 * <code>Collection</code> are pulled one by one, while they are written.
+	 * Other classes, including these implementing <code>Iterable</code> or
+	 * <code>Iterator</code>, are written by their fields.
+	 *
+	 * @param out
+	 *          the out
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	private static void serialize(Output out, Object object, Config config, int indent) throws Exception
+	{
+		if (object == null)
+		{
+			out.write("null");
+			return;
+		}
+		Class<?> clazz = object.getClass();
+		Adapter<Object> adapter = (Adapter<Object>) config.getAdapter(clazz);
+		if (adapter != null)
+		{
+			serializeAdapted(out, adapter.serialize(object), config);
+		}
+		else if (ClassDescriptor.of(clazz).isSimple())
+		{
+			serializeValue(out, object, config);
+		}
+		else if (object instanceof Map)
+		{
+			serializeMap(out, (Map<Object, Object>) object, config, indent);
+		}
+		else if (object instanceof Collection)
+		{
+			serializeList(out, ((Collection<Object>) object).iterator(), config, indent);
+		}
+		else if (clazz.isArray())
+		{
+			serializeArray(out, object, config, indent);
+		}
+		else
+		{
+			serializeFields(out, object, config, indent);
+		}
+	}
+
+	/**
+	 * Serialize value.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @param config
+	 *          the config
+	 * @return the string
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializeValue(Output out, Object value, Config config) throws Exception
+	{
+		if (value == null)
+		{
+			out.write("null");
+			return;
+		}
+		else if (value instanceof String)
+		{
+			serializeString(out, (String) value, config);
+			return;
+		}
+		else if (value instanceof Number)
+		{
+			serializeNumber(out, (Number) value);
+			return;
+		}
+		else if (value instanceof Character)
+		{
+			serializeChar(out, (Character) value, config);
+			return;
+		}
+		else if (value instanceof Boolean)
+		{
+			out.write(value.toString());
+			return;
+		}
+		else if (value instanceof Date)
+		{
+			out.write(getSeparator());
+			DateCodec.writeDate(out, (Date) value, config);
+			out.write(getSeparator());
+			return;
+		}
+		else if (DateCodec.isTemporal(value.getClass()))
+		{
+			out.write(getSeparator());
+			DateCodec.writeTemporal(out, value);
+			out.write(getSeparator());
+			return;
+		}
+		serializeString(out, value.toString(), config);
+	}
+
+	/**
+	 * Serialize number. Primitive wrappers are formatted by
+	 * {@link NumberWriter}, <code>BigDecimal</code> and <code>BigInteger</code>
+	 * are written as they are.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void serializeNumber(Output out, Number value) throws IOException
+	{
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			NumberWriter.writeInt(out, value.intValue());
+		}
+		else if (value instanceof Long)
+		{
+			NumberWriter.writeLong(out, value.longValue());
+		}
+		else if (value instanceof Double)
+		{
+			NumberWriter.writeDouble(out, value.doubleValue());
+		}
+		else if (value instanceof Float)
+		{
+			NumberWriter.writeFloat(out, value.floatValue());
+		}
+		else if (value instanceof BigDecimal || value instanceof BigInteger)
+		{
+			out.write(value.toString());
+		}
+		else
+		{
+			StringBuilder sb = new StringBuilder(value.toString());
+			CommonUtils.stringBuilderReplace(sb, ",", ".");
+			out.write(sb.toString());
+		}
+	}
+
+	/**
+	 * Serialize text produced by adapter. Text is written as string, no other
+	 * adapter is applied to it.
+	 *
+	 * @param out
+	 *          the out
+	 * @param text
+	 *          the text
+	 * @param config
+	 *          the config
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void serializeAdapted(Output out, String text, Config config) throws IOException
+	{
+		if (text == null)
+		{
+			out.write("null");
+			return;
+		}
+		serializeString(out, text, config);
+	}
+
+	/**
+	 * Serialize string in single pass. Runs of characters, that need no
+	 * escaping, are written at once.
+	 *
+	 * @param out
+	 *          the out
+	 * @param value
+	 *          the value
+	 * @param config
+	 *          the config
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void serializeString(Output out, String value, Config config) throws IOException
+	{
+		boolean escapeUnicode = config.isEscapeUnicode();
+		out.write('"');
+		int length = value.length();
+		int start = 0;
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+			if (c < 128)
+			{
+				String escape = ESCAPES[c];
+				if (escape == null)
+				{
+					continue;
+				}
+				out.write(value, start, i - start);
+				out.write(escape);
+			}
+			else if (escapeUnicode)
+			{
+				out.write(value, start, i - start);
+				writeUnicodeEscape(out, c);
+			}
+			else
+			{
+				continue;
+			}
+			start = i + 1;
+		}
+		out.write(value, start, length - start);
+		out.write('"');
+	}
+
+	/**
+	 * Serialize single character as string.
+	 *
+	 * @param out
+	 *          the out
+	 * @param c
+	 *          the c
+	 * @param config
+	 *          the config
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected static void serializeChar(Output out, char c, Config config) throws IOException
+	{
+		out.write('"');
+		if (c < 128 && ESCAPES[c] != null)
+		{
+			out.write(ESCAPES[c]);
+		}
+		else if (c >= 128 && config.isEscapeUnicode())
+		{
+			writeUnicodeEscape(out, c);
+		}
+		else
+		{
+			out.write(c);
+		}
+		out.write('"');
+	}
+
+	/**
+	 * Writes <code>\\uXXXX</code> escape sequence of <code>c</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param c
+	 *          the c
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void writeUnicodeEscape(Output out, char c) throws IOException
+	{
+		out.write('\\');
+		out.write('u');
+		out.write(HEX[c >> 12]);
+		out.write(HEX[(c >> 8) & 0xF]);
+		out.write(HEX[(c >> 4) & 0xF]);
+		out.write(HEX[c & 0xF]);
+	}
+
+	/**
+	 * Serialize map.
+	 *
+	 * @param out
+	 *          the out
+	 * @param map
+	 *          the map
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializeMap(Output out, Map<Object, Object> map, Config config, int indent) throws Exception
+	{
+		out.write('{');
+		int count = 0;
+		for (Entry<Object, Object> entry : map.entrySet())
+		{
+			serializeKey(out, entry.getKey(), count++, config, indent + 1);
+			serialize(out, entry.getValue(), config, indent + 1);
+		}
+		endObject(out, count, config, indent);
+	}
+
+	/**
+	 * Serialize fields of <code>object</code>, that are not <code>null</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param object
+	 *          the object
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializeFields(Output out, Object object, Config config, int indent) throws Exception
+	{
+		out.write('{');
+		ClassDescriptor descriptor = ClassDescriptor.of(object.getClass());
+		GeneratedCodec codec = descriptor.getCodec(config);
+		int count = 0;
+		if (codec != null)
+		{
+			count = codec.writeFields(object, out, config, indent);
+		}
+		else
+		{
+			for (Property property : descriptor.getProperties())
+			{
+				count = serializeProperty(out, object, property, count, config, indent);
+			}
+		}
+		endObject(out, count, config, indent);
+	}
+
+	/**
+	 * Serialize property of object, that is entry number <code>count</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param object
+	 *          the object
+	 * @param property
+	 *          the property
+	 * @param count
+	 *          the count of already written entries
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent of object
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static int serializeProperty(Output out, Object object, Property property, int count, Config config, int indent) throws Exception
+	{
+		if (property.isPrimitive() && config.getAdapter(property.getType()) == null)
+		{
+			startProperty(out, property, count, config, indent);
+			serializePrimitiveField(out, object, property, config);
+			return count + 1;
+		}
+		return serializePropertyValue(out, property, property.getAccessor().get(object), count, config, indent);
+	}
+
+	/**
+	 * Serialize <code>value</code> of property, that is entry number
+	 * <code>count</code>. Value <code>null</code> is skipped. Value of property
+	 * declared as <code>Iterable</code>, <code>Iterator</code> or
+	 * <code>Stream</code> is written as list, unless there is adapter for its
+	 * class.
+	 *
+	 * @param out
+	 *          the out
+	 * @param property
+	 *          the property
+	 * @param value
+	 *          the value
+	 * @param count
+	 *          the count of already written entries
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent of object
+	 * @return the count of written entries
+	 * @throws Exception
+	 *           the exception
+	 */
+	@SuppressWarnings("unchecked")
+	protected static int serializePropertyValue(Output out, Property property, Object value, int count, Config config, int indent) throws Exception
+	{
+		if (value == null)
+		{
+			return count;
+		}
+		startProperty(out, property, count, config, indent);
+		Adapter<Object> adapter = (Adapter<Object>) property.getAdapter();
+		if (adapter != null)
+		{
+			serializeAdapted(out, adapter.serialize(value), config);
+		}
+		else if (property.isStreamed() && config.getAdapter(value.getClass()) == null)
+		{
+			serializeList(out, iterator(value), config, indent + 1);
+		}
+		else
+		{
+			serialize(out, value, config, indent + 1);
+		}
+		return count + 1;
+	}
+
+	/**
+	 * Gets the iterator over items of <code>Iterable</code>,
+	 * <code>Iterator</code> or <code>Stream</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return the iterator
+	 */
+	@SuppressWarnings("unchecked")
+	private static Iterator<Object> iterator(Object value)
+	{
+		if (value instanceof Iterable)
+		{
+			return ((Iterable<Object>) value).iterator();
+		}
+		else if (value instanceof BaseStream)
+		{
+			return ((BaseStream<Object, ?>) value).iterator();
+		}
+		return (Iterator<Object>) value;
+	}
+
+	/**
+	 * Writes separator, indentation and prefix of property, that is entry
+	 * number <code>count</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param property
+	 *          the property
+	 * @param count
+	 *          the count of already written entries
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent of object
+	 * @throws Exception
+	 *           the exception
+	 */
+	protected static void startProperty(Output out, Property property, int count, Config config, int indent) throws Exception
+	{
+		startEntry(out, count, config, indent + 1);
+		property.getPrefix(config).write(out);
+	}
+
+	/**
+	 * Serialize key of map entry including preceding separator and indentation.
+	 * Keys, that are not serialized as string, are quoted.
+	 *
+	 * @param out
+	 *          the out
+	 * @param key
+	 *          the key
+	 * @param index
+	 *          the index of entry
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializeKey(Output out, Object key, int index, Config config, int indent) throws Exception
+	{
+		startEntry(out, index, config, indent);
+		if (key == null || key instanceof Number || key instanceof Boolean)
+		{
+			out.write(getSeparator());
+			serializeValue(out, key, config);
+			out.write(getSeparator());
+		}
+		else
+		{
+			serializeValue(out, key, config);
+		}
+		out.write(config.isPrettyPrint() ? " : " : ":");
+	}
+
+	/**
+	 * Writes separator and indentation before object entry with
+	 * <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param index
+	 *          the index of entry
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void startEntry(Output out, int index, Config config, int indent) throws Exception
+	{
+		if (index > 0)
+		{
+			out.write(',');
+		}
+		if (config.isPrettyPrint())
+		{
+			config.getLayout().writeLine(out, indent);
+		}
+	}
+
+	/**
+	 * Ends object with <code>count</code> entries.
+	 *
+	 * @param out
+	 *          the out
+	 * @param count
+	 *          the count
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void endObject(Output out, int count, Config config, int indent) throws Exception
+	{
+		if (config.isPrettyPrint() && count == 0)
+		{
+			out.write(' ');
+		}
+		else if (config.isPrettyPrint())
+		{
+			config.getLayout().writeLine(out, indent);
+		}
+		out.write('}');
+	}
+
+	/**
+	 * Serialize items of <code>iterator</code> as list. Items are pulled one by
+	 * one, while they are written.
+	 *
+	 * @param out
+	 *          the out
+	 * @param iterator
+	 *          the iterator
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializeList(Output out, Iterator<Object> iterator, Config config, int indent) throws Exception
+	{
+		out.write('[');
+		int count = 0;
+		while (iterator.hasNext())
+		{
+			nextItem(out, count++, config, indent);
+			serialize(out, iterator.next(), config, indent + 1);
+		}
+		endArray(out, count, config, indent);
+	}
+
+	/**
+	 * Serialize array of objects or primitives.
+	 *
+	 * @param out
+	 *          the out
+	 * @param arr
+	 *          the array
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializeArray(Output out, Object arr, Config config, int indent) throws Exception
+	{
+		out.write('[');
+		if (arr instanceof Object[])
+		{
+			Object[] objects = (Object[]) arr;
+			for (int i = 0; i < objects.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				serialize(out, objects[i], config, indent + 1);
+			}
+		}
+		else if (config.getAdapter(arr.getClass().getComponentType()) != null)
+		{
+			for (int i = 0; i < Array.getLength(arr); i++)
+			{
+				nextItem(out, i, config, indent);
+				serialize(out, Array.get(arr, i), config, indent + 1);
+			}
+		}
+		else
+		{
+			serializePrimitiveArray(out, arr, config, indent);
+		}
+		endArray(out, Array.getLength(arr), config, indent);
+	}
+
+	/**
+	 * Serialize items of primitive array without boxing them.
+	 *
+	 * @param out
+	 *          the out
+	 * @param arr
+	 *          the array
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializePrimitiveArray(Output out, Object arr, Config config, int indent) throws Exception
+	{
+		if (arr instanceof double[])
+		{
+			double[] values = (double[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				NumberWriter.writeDouble(out, values[i]);
+			}
+		}
+		else if (arr instanceof int[])
+		{
+			int[] values = (int[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				NumberWriter.writeInt(out, values[i]);
+			}
+		}
+		else if (arr instanceof long[])
+		{
+			long[] values = (long[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				NumberWriter.writeLong(out, values[i]);
+			}
+		}
+		else if (arr instanceof float[])
+		{
+			float[] values = (float[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				NumberWriter.writeFloat(out, values[i]);
+			}
+		}
+		else if (arr instanceof short[])
+		{
+			short[] values = (short[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				NumberWriter.writeInt(out, values[i]);
+			}
+		}
+		else if (arr instanceof byte[])
+		{
+			byte[] values = (byte[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				NumberWriter.writeInt(out, values[i]);
+			}
+		}
+		else if (arr instanceof boolean[])
+		{
+			boolean[] values = (boolean[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				out.write(values[i] ? "true" : "false");
+			}
+		}
+		else
+		{
+			char[] values = (char[]) arr;
+			for (int i = 0; i < values.length; i++)
+			{
+				nextItem(out, i, config, indent);
+				serializeChar(out, values[i], config);
+			}
+		}
+	}
+
+	/**
+	 * Serialize value of primitive field without boxing it.
+	 *
+	 * @param out
+	 *          the out
+	 * @param object
+	 *          the object
+	 * @param property
+	 *          the property
+	 * @param config
+	 *          the config
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void serializePrimitiveField(Output out, Object object, Property property, Config config) throws Exception
+	{
+		Accessor accessor = property.getAccessor();
+		Class<?> type = property.getType();
+		if (type == int.class)
+		{
+			NumberWriter.writeInt(out, accessor.getInt(object));
+		}
+		else if (type == long.class)
+		{
+			NumberWriter.writeLong(out, accessor.getLong(object));
+		}
+		else if (type == double.class)
+		{
+			NumberWriter.writeDouble(out, accessor.getDouble(object));
+		}
+		else if (type == boolean.class)
+		{
+			out.write(accessor.getBoolean(object) ? "true" : "false");
+		}
+		else if (type == float.class)
+		{
+			NumberWriter.writeFloat(out, accessor.getFloat(object));
+		}
+		else if (type == short.class || type == byte.class)
+		{
+			NumberWriter.writeInt(out, accessor.getInt(object));
+		}
+		else
+		{
+			serializeChar(out, accessor.getChar(object), config);
+		}
+	}
+
+	/**
+	 * Writes separator and indentation before array item with
+	 * <code>index</code>.
+	 *
+	 * @param out
+	 *          the out
+	 * @param index
+	 *          the index
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent of array
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void nextItem(Output out, int index, Config config, int indent) throws Exception
+	{
+		startEntry(out, index, config, indent + 1);
+	}
+
+	/**
+	 * Ends array with <code>count</code> items.
+	 *
+	 * @param out
+	 *          the out
+	 * @param count
+	 *          the count
+	 * @param config
+	 *          the config
+	 * @param indent
+	 *          the indent of array
+	 * @throws Exception
+	 *           the exception
+	 */
+	private static void endArray(Output out, int count, Config config, int indent) throws Exception
+	{
+		if (config.isPrettyPrint() && count == 0)
+		{
+			out.write(' ');
+		}
+		else if (config.isPrettyPrint())
+		{
+			config.getLayout().writeLine(out, indent);
+		}
+		out.write(']');
+	}
+
+	/**
+	 * Gets the separator.
+	 *
+	 * @return the separator
+	 */
+	private static String getSeparator()
+	{
+		return CommonUtils.DEFAULT_SEPARATOR;
+	}
+}
@@ -0,0 +1,249 @@
+package cz.tvrzna.jackie;
+
+import java.util.Arrays;
+
+/**
+ * The Class StructuralIndex. Masks of bytes classified by
+ * {@link StructuralScanner}, that cover chunk of input window starting at
+ * position, where tokenizer looked first. Blocks of chunk are classified, when
+ * they are visited, and tokenizer then jumps over positions, that are not of
+ * kinds it looks for.
+ * <p>
+ * Scanner uses <code>jdk.incubator.vector</code>, when library runs from
+ * multi-release jar on Java 17 or newer with
+ * <code>--add-modules jdk.incubator.vector</code> on hardware supporting
+ * vectors of at least 32 bytes, otherwise {@link SwarStructuralScanner} is
+ * used.
+ * </p>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class StructuralIndex
+{
+	private static final String VECTOR_SCANNER = "cz.tvrzna.jackie.VectorStructuralScanner";
+	private static final int CHUNK = 32;
+	private static final int PROBE = 16;
+	private static final int[] TABLE = createTable();
+	private static final StructuralScanner SCANNER = createScanner();
+	private static final ThreadLocal<StructuralIndex> POOL = new ThreadLocal<>();
+
+	private final long[] masks = new long[CHUNK * StructuralScanner.STRIDE];
+	private final int[] scanned = new int[CHUNK];
+	private int start;
+	private int end;
+
+	/**
+	 * Instantiates a new structural index.
+	 */
+	private StructuralIndex()
+	{
+	}
+
+	/**
+	 * Takes index from pool of current thread or creates new one.
+	 *
+	 * @return the structural index
+	 */
+	protected static StructuralIndex acquire()
+	{
+		StructuralIndex result = POOL.get();
+		if (result == null)
+		{
+			return new StructuralIndex();
+		}
+		POOL.set(null);
+		result.invalidate();
+		return result;
+	}
+
+	/**
+	 * Returns index to pool of current thread. Index must not be used
+	 * afterwards.
+	 */
+	protected void release()
+	{
+		POOL.set(this);
+	}
+
+	/**
+	 * Drops masks, because content of window has changed.
+	 */
+	protected void invalidate()
+	{
+		start = 0;
+		end = 0;
+	}
+
+	/**
+	 * Finds first position from <code>pos</code> to <code>limit</code>, whose
+	 * byte is of any of <code>kinds</code>. Few bytes are tested one by one
+	 * first, because most of tokens are short. Blocks are classified on first
+	 * visit, only by kinds, that were not classified yet.
+	 *
+	 * @param data
+	 *          the data
+	 * @param pos
+	 *          the pos
+	 * @param limit
+	 *          the limit
+	 * @param kinds
+	 *          the kinds as bits <code>1 &lt;&lt; kind</code>
+	 * @return the position or <code>limit</code>, if there is no such byte
+	 */
+	protected int find(byte[] data, int pos, int limit, int kinds)
+	{
+		int probe = Math.min(limit, pos + PROBE);
+		while (pos < probe)
+		{
+			if ((TABLE[data[pos] & 0xFF] & kinds) != 0)
+			{
+				return pos;
+			}
+			pos++;
+		}
+		while (pos < limit)
+		{
+			if (pos < start || pos >= end)
+			{
+				start = pos;
+				end = Math.min(limit, pos + CHUNK * StructuralScanner.BLOCK);
+				Arrays.fill(scanned, 0);
+			}
+			int relative = pos - start;
+			int block = relative >>> 6;
+			int base = block * StructuralScanner.STRIDE;
+			int missing = kinds & ~scanned[block];
+			if (missing != 0)
+			{
+				int from = start + (block << 6);
+				scanned[block] |= from + StructuralScanner.BLOCK <= limit ? SCANNER.scan(data, from, missing, masks, base) : classify(data, from, limit, base);
+			}
+			long mask = 0;
+			for (int kind = 0; kind < StructuralScanner.KINDS; kind++)
+			{
+				if ((kinds & (1 << kind)) != 0)
+				{
+					mask |= masks[base + kind];
+				}
+			}
+			mask &= -1L << (relative & 63);
+			if (mask != 0)
+			{
+				return start + (block << 6) + Long.numberOfTrailingZeros(mask);
+			}
+			pos = start + ((block + 1) << 6);
+		}
+		return limit;
+	}
+
+	/**
+	 * Classifies bytes of last block, that is not full, by all kinds.
+	 *
+	 * @param data
+	 *          the data
+	 * @param from
+	 *          the from
+	 * @param to
+	 *          the to
+	 * @param base
+	 *          the index of first mask of block
+	 * @return the classified kinds
+	 */
+	private int classify(byte[] data, int from, int to, int base)
+	{
+		for (int kind = 0; kind < StructuralScanner.KINDS; kind++)
+		{
+			masks[base + kind] = 0;
+		}
+		for (int i = from; i < to; i++)
+		{
+			int kinds = TABLE[data[i] & 0xFF];
+			for (int kind = 0; kind < StructuralScanner.KINDS; kind++)
+			{
+				if ((kinds & (1 << kind)) != 0)
+				{
+					masks[base + kind] |= 1L << (i - from);
+				}
+			}
+		}
+		return StructuralScanner.ALL;
+	}
+
+	/**
+	 * Creates table of kinds of each byte value.
+	 *
+	 * @return the table
+	 */
+	private static int[] createTable()
+	{
+		int[] result = new int[256];
+		for (int b = 0; b < result.length; b++)
+		{
+			int kinds = 0;
+			if (b > ' ')
+			{
+				kinds |= 1 << StructuralScanner.SIGNIFICANT;
+			}
+			if (b >= 0x80)
+			{
+				kinds |= 1 << StructuralScanner.HIGH;
+			}
+			switch (b)
+			{
+				case '"':
+					kinds |= 1 << StructuralScanner.QUOTE;
+					break;
+				case '\'':
+					kinds |= 1 << StructuralScanner.APOSTROPHE;
+					break;
+				case '\\':
+					kinds |= 1 << StructuralScanner.BACKSLASH;
+					break;
+				case ',':
+				case '{':
+				case '}':
+				case '[':
+				case ']':
+					kinds |= 1 << StructuralScanner.STRUCTURAL;
+					break;
+				case ':':
+					kinds |= 1 << StructuralScanner.COLON;
+					break;
+				default:
+					break;
+			}
+			result[b] = kinds;
+		}
+		return result;
+	}
+
+	/**
+	 * Creates scanner using vector API, if its class is present and module
+	 * <code>jdk.incubator.vector</code> is available. Otherwise SWAR scanner is
+	 * created.
+	 *
+	 * @return the structural scanner
+	 */
+	private static StructuralScanner createScanner()
+	{
+		try
+		{
+			return (StructuralScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError | RuntimeException e)
+		{
+			return new SwarStructuralScanner();
+		}
+	}
+
+	/**
+	 * Gets the scanner, that classifies blocks.
+	 *
+	 * @return the scanner
+	 */
+	protected static StructuralScanner getScanner()
+	{
+		return SCANNER;
+	}
+}
@@ -0,0 +1,57 @@
+package cz.tvrzna.jackie;
+
+/**
+ * The Interface StructuralScanner. First stage of scanning UTF-8 input, that
+ * classifies block of {@link #BLOCK} bytes at once. For each kind there is
+ * one <code>long</code> mask, whose bit <code>i</code> is set, if byte
+ * <code>i</code> of block is of that kind. {@link StructuralIndex} keeps masks
+ * of scanned blocks and tokenizer moves between positions found in them,
+ * instead of testing bytes one by one.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public interface StructuralScanner
+{
+	int BLOCK = 64;
+	int KINDS = 7;
+	int ALL = (1 << KINDS) - 1;
+	/** Number of masks reserved for block, so that all may be stored at once. */
+	int STRIDE = 8;
+
+	/** Byte above space, that is not skipped as whitespace. */
+	int SIGNIFICANT = 0;
+	/** Byte <code>"</code>. */
+	int QUOTE = 1;
+	/** Byte <code>'</code>. */
+	int APOSTROPHE = 2;
+	/** Byte <code>\</code>. */
+	int BACKSLASH = 3;
+	/** Any of bytes <code>,{}[]</code>. */
+	int STRUCTURAL = 4;
+	/** Byte <code>:</code>. */
+	int COLON = 5;
+	/** Byte of multi-byte sequence. */
+	int HIGH = 6;
+
+	/**
+	 * Classifies full block of <code>data</code>, that starts at
+	 * <code>offset</code>. Mask of kind <code>k</code> is stored to
+	 * <code>masks[base + k]</code>, where {@link #STRIDE} masks from
+	 * <code>base</code> may be overwritten. Scanner may classify more kinds,
+	 * than requested, if it is not more expensive.
+	 *
+	 * @param data
+	 *          the data
+	 * @param offset
+	 *          the offset
+	 * @param kinds
+	 *          the requested kinds as bits <code>1 &lt;&lt; kind</code>
+	 * @param masks
+	 *          the masks
+	 * @param base
+	 *          the index of first mask of block
+	 * @return the classified kinds as bits <code>1 &lt;&lt; kind</code>
+	 */
+	int scan(byte[] data, int offset, int kinds, long[] masks, int base);
+}
@@ -0,0 +1,135 @@
+package cz.tvrzna.jackie;
+
+/**
+ * The Class SwarStructuralScanner. Classifies block by eight bytes packed in
+ * <code>long</code>. Each test marks matching bytes of word by their highest
+ * bit, marks are then gathered into eight bits of mask by single
+ * multiplication. Only requested kinds are classified. It is used, where
+ * vector API is not available.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class SwarStructuralScanner implements StructuralScanner
+{
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+	private static final long HIGHS = 0x8080808080808080L;
+	private static final long GATHER = 0x0102040810204080L;
+	private static final long SPACES = ONES * (0x80 - '!');
+	private static final long QUOTES = ONES * '"';
+	private static final long APOSTROPHES = ONES * '\'';
+	private static final long BACKSLASHES = ONES * '\\';
+	private static final long COMMAS = ONES * ',';
+	private static final long COLONS = ONES * ':';
+	private static final long LOWERCASE = ONES * 0x20;
+	private static final long OPENINGS = ONES * '{';
+	private static final long CLOSINGS = ONES * '}';
+
+	@Override
+	public int scan(byte[] data, int offset, int kinds, long[] masks, int base)
+	{
+		long significant = 0;
+		long quote = 0;
+		long apostrophe = 0;
+		long backslash = 0;
+		long structural = 0;
+		long colon = 0;
+		long high = 0;
+		for (int i = 0; i < BLOCK; i += 8)
+		{
+			int p = offset + i;
+			long word = (data[p] & 0xFFL) | (data[p + 1] & 0xFFL) << 8 | (data[p + 2] & 0xFFL) << 16 | (data[p + 3] & 0xFFL) << 24 | (data[p + 4] & 0xFFL) << 32
+					| (data[p + 5] & 0xFFL) << 40 | (data[p + 6] & 0xFFL) << 48 | (data[p + 7] & 0xFFL) << 56;
+			if ((kinds & 1 << SIGNIFICANT) != 0)
+			{
+				significant |= gather(((word & LOWS) + SPACES | word) & HIGHS) << i;
+			}
+			if ((kinds & 1 << QUOTE) != 0)
+			{
+				quote |= gather(equal(word, QUOTES)) << i;
+			}
+			if ((kinds & 1 << APOSTROPHE) != 0)
+			{
+				apostrophe |= gather(equal(word, APOSTROPHES)) << i;
+			}
+			if ((kinds & 1 << BACKSLASH) != 0)
+			{
+				backslash |= gather(equal(word, BACKSLASHES)) << i;
+			}
+			if ((kinds & 1 << STRUCTURAL) != 0)
+			{
+				long brackets = word | LOWERCASE;
+				structural |= gather(equal(word, COMMAS) | equal(brackets, OPENINGS) | equal(brackets, CLOSINGS)) << i;
+			}
+			if ((kinds & 1 << COLON) != 0)
+			{
+				colon |= gather(equal(word, COLONS)) << i;
+			}
+			if ((kinds & 1 << HIGH) != 0)
+			{
+				high |= gather(word & HIGHS) << i;
+			}
+		}
+		store(masks, base, kinds, SIGNIFICANT, significant);
+		store(masks, base, kinds, QUOTE, quote);
+		store(masks, base, kinds, APOSTROPHE, apostrophe);
+		store(masks, base, kinds, BACKSLASH, backslash);
+		store(masks, base, kinds, STRUCTURAL, structural);
+		store(masks, base, kinds, COLON, colon);
+		store(masks, base, kinds, HIGH, high);
+		return kinds;
+	}
+
+	/**
+	 * Stores <code>mask</code> of <code>kind</code>, if it was requested. Masks
+	 * of other kinds may be already classified, so they are kept.
+	 *
+	 * @param masks
+	 *          the masks
+	 * @param base
+	 *          the index of first mask of block
+	 * @param kinds
+	 *          the requested kinds
+	 * @param kind
+	 *          the kind
+	 * @param mask
+	 *          the mask
+	 */
+	private static void store(long[] masks, int base, int kinds, int kind, long mask)
+	{
+		if ((kinds & 1 << kind) != 0)
+		{
+			masks[base + kind] = mask;
+		}
+	}
+
+	/**
+	 * Marks bytes of <code>word</code> equal to bytes of <code>values</code> by
+	 * their highest bit. Unlike usual zero byte test, each mark is exact.
+	 *
+	 * @param word
+	 *          the word
+	 * @param values
+	 *          the values
+	 * @return the long
+	 */
+	private static long equal(long word, long values)
+	{
+		long x = word ^ values;
+		return ~((x & LOWS) + LOWS | x) & HIGHS;
+	}
+
+	/**
+	 * Gathers highest bits of bytes of <code>marks</code> into lowest eight
+	 * bits, so that mark of byte <code>i</code> becomes bit <code>i</code>.
+	 *
+	 * @param marks
+	 *          the marks
+	 * @return the long
+	 */
+	private static long gather(long marks)
+	{
+		return ((marks >>> 7) * GATHER) >>> 56;
+	}
+}
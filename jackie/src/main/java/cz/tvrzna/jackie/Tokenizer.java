@@ -0,0 +1,561 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+
+/**
+ * The Class Tokenizer. Splits JSON input into tokens. Content of each
+ * <code>STRING</code> or <code>LITERAL</code> token is collected into single
+ * reusable scratch buffer. Implementations walk their input window by index,
+ * this class holds token classification and escape handling shared by all of
+ * them.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public abstract class Tokenizer
+{
+	/**
+	 * The Enum Token.
+	 *
+	 * @author michalt
+	 * @since 0.5.0
+	 */
+	protected enum Token
+	{
+		START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, COLON, COMMA, STRING, LITERAL, EOF
+	}
+
+	protected char[] text = new char[64];
+	protected int textLength;
+
+	/**
+	 * Returns type of next token without consuming it.
+	 *
+	 * @return the token
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected Token peek() throws IOException
+	{
+		int c = peekChar();
+		switch (c)
+		{
+			case -1:
+				return Token.EOF;
+			case '{':
+				return Token.START_OBJECT;
+			case '}':
+				return Token.END_OBJECT;
+			case '[':
+				return Token.START_ARRAY;
+			case ']':
+				return Token.END_ARRAY;
+			case ':':
+				return Token.COLON;
+			case ',':
+				return Token.COMMA;
+			case '"':
+			case '\'':
+				return Token.STRING;
+			default:
+				return Token.LITERAL;
+		}
+	}
+
+	/**
+	 * Reads next token in place of value. Unquoted literal ends with any
+	 * structural character except <code>:</code>.
+	 *
+	 * @return the token
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected Token next() throws IOException
+	{
+		return next(false);
+	}
+
+	/**
+	 * Reads next token in place of object key. Unquoted literal ends with any
+	 * structural character including <code>:</code>.
+	 *
+	 * @return the token
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected Token nextName() throws IOException
+	{
+		return next(true);
+	}
+
+	/**
+	 * Skips next value including all nested objects and arrays. If there is no
+	 * value, nothing is consumed. Malformed input is skipped the same way, as
+	 * <code>Deserializator</code> would read it.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected void skipValue() throws IOException
+	{
+		switch (peek())
+		{
+			case START_OBJECT:
+				next();
+				skipObject();
+				return;
+			case START_ARRAY:
+				next();
+				skipArray();
+				return;
+			case STRING:
+				int quote = peekChar();
+				advance();
+				skipString((char) quote);
+				return;
+			case LITERAL:
+				next();
+				return;
+			default:
+				return;
+		}
+	}
+
+	/**
+	 * Skips rest of object, opening bracket is already consumed.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void skipObject() throws IOException
+	{
+		while (true)
+		{
+			switch (nextName())
+			{
+				case EOF:
+				case END_OBJECT:
+					return;
+				case STRING:
+				case LITERAL:
+					if (peek() == Token.COLON)
+					{
+						next();
+						skipValue();
+					}
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Skips rest of array, opening bracket is already consumed.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void skipArray() throws IOException
+	{
+		while (true)
+		{
+			switch (peek())
+			{
+				case EOF:
+					return;
+				case END_ARRAY:
+					next();
+					return;
+				case START_OBJECT:
+				case START_ARRAY:
+				case STRING:
+				case LITERAL:
+					skipValue();
+					if (!skipToSeparator())
+					{
+						return;
+					}
+					break;
+				default:
+					next();
+			}
+		}
+	}
+
+	/**
+	 * Skips anything up to next array item separator. Closing bracket is
+	 * consumed as well.
+	 *
+	 * @return true, if separator was found and array continues
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected boolean skipToSeparator() throws IOException
+	{
+		while (true)
+		{
+			switch (next())
+			{
+				case COMMA:
+					return true;
+				case EOF:
+				case END_ARRAY:
+					return false;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Releases resources held by tokenizer. Tokenizer must not be used
+	 * afterwards.
+	 */
+	protected void release()
+	{
+	}
+
+	/**
+	 * Gets the text of last <code>STRING</code> or <code>LITERAL</code> token.
+	 *
+	 * @return the string
+	 */
+	protected String text()
+	{
+		return new String(text, 0, textLength);
+	}
+
+	/**
+	 * Gets the text of last token as object key. Recurring keys are resolved
+	 * from {@link NameCache} to the same <code>String</code>.
+	 *
+	 * @return the string
+	 */
+	protected String name()
+	{
+		return NameCache.local().get(text, textLength);
+	}
+
+	/**
+	 * Gets the scratch buffer with text of last <code>STRING</code> or
+	 * <code>LITERAL</code> token. Only first {@link #textLength()} chars are
+	 * valid.
+	 *
+	 * @return the char[]
+	 */
+	protected char[] textBuffer()
+	{
+		return text;
+	}
+
+	/**
+	 * Gets the length of text of last <code>STRING</code> or
+	 * <code>LITERAL</code> token.
+	 *
+	 * @return the int
+	 */
+	protected int textLength()
+	{
+		return textLength;
+	}
+
+	/**
+	 * Checks, if text of last token equals to <code>value</code>.
+	 *
+	 * @param value
+	 *          the value
+	 * @return true, if successful
+	 */
+	protected boolean textEquals(String value)
+	{
+		if (value.length() != textLength)
+		{
+			return false;
+		}
+		for (int i = 0; i < textLength; i++)
+		{
+			if (text[i] != value.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Skips whitespace and returns next character without consuming it.
+	 *
+	 * @return the character or <code>-1</code> at the end of input
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract int peekChar() throws IOException;
+
+	/**
+	 * Returns next character without skipping whitespace nor consuming it.
+	 *
+	 * @return the character or <code>-1</code> at the end of input
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract int peekRaw() throws IOException;
+
+	/**
+	 * Consumes single character, that was returned by {@link #peekChar()} or
+	 * {@link #peekRaw()}.
+	 */
+	protected abstract void advance();
+
+	/**
+	 * Reads quoted string into scratch buffer, opening <code>quote</code> is
+	 * already consumed.
+	 *
+	 * @param quote
+	 *          the quote
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void readString(char quote) throws IOException;
+
+	/**
+	 * Skips quoted string, opening <code>quote</code> is already consumed.
+	 * Content is not collected, so implementations may scan input without
+	 * decoding it.
+	 *
+	 * @param quote
+	 *          the quote
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void skipString(char quote) throws IOException;
+
+	/**
+	 * Reads unquoted literal into scratch buffer. Trailing whitespace is
+	 * omitted.
+	 *
+	 * @param name
+	 *          if literal is read in place of object key
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected abstract void readLiteral(boolean name) throws IOException;
+
+	/**
+	 * Reads next token.
+	 *
+	 * @param name
+	 *          if token is read in place of object key
+	 * @return the token
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private Token next(boolean name) throws IOException
+	{
+		int c = peekChar();
+		switch (c)
+		{
+			case -1:
+				return Token.EOF;
+			case '{':
+				advance();
+				return Token.START_OBJECT;
+			case '}':
+				advance();
+				return Token.END_OBJECT;
+			case '[':
+				advance();
+				return Token.START_ARRAY;
+			case ']':
+				advance();
+				return Token.END_ARRAY;
+			case ':':
+				advance();
+				return Token.COLON;
+			case ',':
+				advance();
+				return Token.COMMA;
+			case '"':
+			case '\'':
+				advance();
+				textLength = 0;
+				readString((char) c);
+				return Token.STRING;
+			default:
+				textLength = 0;
+				readLiteral(name);
+				while (textLength > 0 && text[textLength - 1] <= ' ')
+				{
+					textLength--;
+				}
+				return Token.LITERAL;
+		}
+	}
+
+	/**
+	 * Reads escape sequence, leading backslash is already consumed. Unknown
+	 * sequences are kept as they are.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	protected void readEscape() throws IOException
+	{
+		int c = peekRaw();
+		if (c == 'u')
+		{
+			advance();
+			readUnicode();
+			return;
+		}
+		int unescaped = unescape(c);
+		if (unescaped < 0)
+		{
+			append('\\');
+			return;
+		}
+		append((char) unescaped);
+		advance();
+	}
+
+	/**
+	 * Translates character following backslash into character, that it stands
+	 * for. Sequence <code>\\u</code> is not handled by this method.
+	 *
+	 * @param c
+	 *          the c
+	 * @return the unescaped character or <code>-1</code>, if sequence is not
+	 *         known
+	 */
+	protected static int unescape(int c)
+	{
+		switch (c)
+		{
+			case 'n':
+				return '\n';
+			case 't':
+				return '\t';
+			case 'r':
+				return '\r';
+			case 'f':
+				return '\f';
+			case 'b':
+				return '\b';
+			case '"':
+			case '\'':
+			case '\\':
+			case '/':
+				return c;
+			default:
+				return -1;
+		}
+	}
+
+
+	/**
+	 * Reads four hexadecimal digits of <code>\\u</code> escape sequence. If
+	 * sequence is not valid, it is kept as it is.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void readUnicode() throws IOException
+	{
+		int value = 0;
+		int start = textLength;
+		append('\\');
+		append('u');
+		for (int i = 0; i < 4; i++)
+		{
+			int c = peekRaw();
+			int digit = c < 0 ? -1 : Character.digit(c, 16);
+			if (digit < 0)
+			{
+				return;
+			}
+			advance();
+			append((char) c);
+			value = (value << 4) | digit;
+		}
+		textLength = start;
+		append((char) value);
+	}
+
+	/**
+	 * Checks if character <code>c</code> ends unquoted literal.
+	 *
+	 * @param c
+	 *          the c
+	 * @param name
+	 *          if literal is read in place of object key
+	 * @return true, if is literal end
+	 */
+	protected static boolean isLiteralEnd(int c, boolean name)
+	{
+		switch (c)
+		{
+			case ',':
+			case '{':
+			case '}':
+			case '[':
+			case ']':
+				return true;
+			case ':':
+				return name;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Appends single character into scratch buffer.
+	 *
+	 * @param c
+	 *          the c
+	 */
+	protected void append(char c)
+	{
+		if (textLength == text.length)
+		{
+			ensureText(1);
+		}
+		text[textLength++] = c;
+	}
+
+	/**
+	 * Appends run of characters into scratch buffer.
+	 *
+	 * @param source
+	 *          the source
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 */
+	protected void append(char[] source, int offset, int length)
+	{
+		if (length == 0)
+		{
+			return;
+		}
+		ensureText(length);
+		System.arraycopy(source, offset, text, textLength, length);
+		textLength += length;
+	}
+
+	/**
+	 * Ensures scratch buffer fits at least <code>required</code> more chars.
+	 *
+	 * @param required
+	 *          the required
+	 */
+	protected void ensureText(int required)
+	{
+		if (textLength + required > text.length)
+		{
+			char[] newText = new char[Math.max(text.length << 1, textLength + required)];
+			System.arraycopy(text, 0, newText, 0, textLength);
+			text = newText;
+		}
+	}
+}
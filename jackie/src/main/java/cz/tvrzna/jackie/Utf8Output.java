@@ -0,0 +1,317 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The Class Utf8Output. Encodes characters to UTF-8 directly into
+ * <code>byte[]</code> chunk, that is pooled per thread. Full chunk is passed to
+ * <code>OutputStream</code> or <code>ByteBuffer</code> in single write. Without
+ * any sink the chunk grows and its content is obtained by
+ * {@link #toByteArray()}.
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class Utf8Output extends Output
+{
+	private static final int BUFFER_SIZE = 8192;
+	private static final ThreadLocal<byte[]> POOL = new ThreadLocal<>();
+
+	private final OutputStream stream;
+	private final ByteBuffer target;
+	private final boolean flushChunks;
+	private byte[] pooled;
+	private byte[] buffer;
+	private int pos;
+
+	/**
+	 * Instantiates a new output, that collects bytes in memory.
+	 */
+	protected Utf8Output()
+	{
+		this(null, null, false);
+	}
+
+	/**
+	 * Instantiates a new output, that writes to <code>stream</code>. Stream is
+	 * never closed.
+	 *
+	 * @param stream
+	 *          the stream
+	 */
+	protected Utf8Output(OutputStream stream)
+	{
+		this(stream, null, false);
+	}
+
+	/**
+	 * Instantiates a new output, that writes to <code>stream</code>. If
+	 * <code>flushChunks</code> is set, stream is flushed after each full chunk,
+	 * so reader receives data while output is still being produced.
+	 *
+	 * @param stream
+	 *          the stream
+	 * @param flushChunks
+	 *          the flush chunks
+	 */
+	protected Utf8Output(OutputStream stream, boolean flushChunks)
+	{
+		this(stream, null, flushChunks);
+	}
+
+	/**
+	 * Instantiates a new output, that puts bytes into <code>target</code>.
+	 *
+	 * @param target
+	 *          the target
+	 */
+	protected Utf8Output(ByteBuffer target)
+	{
+		this(null, target, false);
+	}
+
+	private Utf8Output(OutputStream stream, ByteBuffer target, boolean flushChunks)
+	{
+		this.stream = stream;
+		this.target = target;
+		this.flushChunks = flushChunks;
+		byte[] result = POOL.get();
+		if (result == null)
+		{
+			result = new byte[BUFFER_SIZE];
+		}
+		else
+		{
+			POOL.set(null);
+		}
+		this.pooled = result;
+		this.buffer = result;
+	}
+
+	@Override
+	protected void write(char c) throws IOException
+	{
+		if (c < 0x80)
+		{
+			if (pos == buffer.length)
+			{
+				drain(1);
+			}
+			buffer[pos++] = (byte) c;
+		}
+		else
+		{
+			writeNonAscii(c, (char) 0);
+		}
+	}
+
+	@Override
+	protected void write(String value, int offset, int length) throws IOException
+	{
+		int i = offset;
+		int end = offset + length;
+		while (i < end)
+		{
+			if (pos == buffer.length)
+			{
+				drain(1);
+			}
+			byte[] b = buffer;
+			int p = pos;
+			int limit = Math.min(end, i + b.length - p);
+			char c = 0;
+			while (i < limit && (c = value.charAt(i)) < 0x80)
+			{
+				b[p++] = (byte) c;
+				i++;
+			}
+			pos = p;
+			if (i < limit)
+			{
+				i += writeNonAscii(c, i + 1 < end ? value.charAt(i + 1) : (char) 0);
+			}
+		}
+	}
+
+	@Override
+	protected void write(char[] value, int offset, int length) throws IOException
+	{
+		int i = offset;
+		int end = offset + length;
+		while (i < end)
+		{
+			if (pos == buffer.length)
+			{
+				drain(1);
+			}
+			byte[] b = buffer;
+			int p = pos;
+			int limit = Math.min(end, i + b.length - p);
+			char c = 0;
+			while (i < limit && (c = value[i]) < 0x80)
+			{
+				b[p++] = (byte) c;
+				i++;
+			}
+			pos = p;
+			if (i < limit)
+			{
+				i += writeNonAscii(c, i + 1 < end ? value[i + 1] : (char) 0);
+			}
+		}
+	}
+
+	@Override
+	protected void write(char[] chars, byte[] bytes) throws IOException
+	{
+		if (buffer.length - pos < bytes.length)
+		{
+			drain(bytes.length);
+		}
+		if (buffer.length - pos < bytes.length)
+		{
+			writeToSink(bytes, bytes.length);
+			return;
+		}
+		System.arraycopy(bytes, 0, buffer, pos, bytes.length);
+		pos += bytes.length;
+	}
+
+	/**
+	 * Passes buffered bytes to stream or target buffer and flushes the stream.
+	 */
+	@Override
+	protected void flush() throws IOException
+	{
+		if (stream != null)
+		{
+			stream.write(buffer, 0, pos);
+			stream.flush();
+			pos = 0;
+		}
+		else if (target != null)
+		{
+			target.put(buffer, 0, pos);
+			pos = 0;
+		}
+	}
+
+	/**
+	 * Gets the collected bytes.
+	 *
+	 * @return the byte[]
+	 */
+	protected byte[] toByteArray()
+	{
+		return Arrays.copyOf(buffer, pos);
+	}
+
+	@Override
+	protected void release()
+	{
+		if (pooled != null)
+		{
+			POOL.set(pooled);
+		}
+		pooled = null;
+		buffer = null;
+	}
+
+	/**
+	 * Encodes character outside of ASCII. Surrogate pair is encoded as single
+	 * four-byte sequence, lone surrogate is replaced by <code>?</code>.
+	 *
+	 * @param c
+	 *          the c
+	 * @param next
+	 *          the next character or <code>0</code>
+	 * @return the number of consumed characters
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private int writeNonAscii(char c, char next) throws IOException
+	{
+		if (buffer.length - pos < 4)
+		{
+			drain(4);
+		}
+		byte[] b = buffer;
+		if (c < 0x800)
+		{
+			b[pos++] = (byte) (0xC0 | (c >> 6));
+			b[pos++] = (byte) (0x80 | (c & 0x3F));
+		}
+		else if (!Character.isSurrogate(c))
+		{
+			b[pos++] = (byte) (0xE0 | (c >> 12));
+			b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			b[pos++] = (byte) (0x80 | (c & 0x3F));
+		}
+		else if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next))
+		{
+			int codePoint = Character.toCodePoint(c, next);
+			b[pos++] = (byte) (0xF0 | (codePoint >> 18));
+			b[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+			b[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+			b[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+			return 2;
+		}
+		else
+		{
+			b[pos++] = '?';
+		}
+		return 1;
+	}
+
+	/**
+	 * Makes room for at least <code>required</code> bytes. Content is passed to
+	 * sink, or buffer grows, if there is no sink.
+	 *
+	 * @param required
+	 *          the required
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void drain(int required) throws IOException
+	{
+		if (stream != null || target != null)
+		{
+			writeToSink(buffer, pos);
+			pos = 0;
+			if (flushChunks)
+			{
+				stream.flush();
+			}
+		}
+		else
+		{
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, pos + required));
+		}
+	}
+
+	/**
+	 * Writes first <code>length</code> bytes of <code>bytes</code> to stream or
+	 * target buffer.
+	 *
+	 * @param bytes
+	 *          the bytes
+	 * @param length
+	 *          the length
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void writeToSink(byte[] bytes, int length) throws IOException
+	{
+		if (stream != null)
+		{
+			stream.write(bytes, 0, length);
+		}
+		else
+		{
+			target.put(bytes, 0, length);
+		}
+	}
+}
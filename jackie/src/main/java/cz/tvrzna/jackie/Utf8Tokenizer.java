@@ -0,0 +1,408 @@
+package cz.tvrzna.jackie;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The Class Utf8Tokenizer. Scans UTF-8 encoded bytes directly, structural
+ * characters are recognized on byte level and only content of strings and
+ * literals is decoded. Streamed input is read into <code>byte[]</code> window,
+ * that is pooled per thread.
+ * <p>
+ * Window is classified by {@link StructuralIndex} in blocks of 64 bytes, so
+ * whitespace, content of strings and literals is passed by jumps to next byte,
+ * that ends it, instead of testing each byte.
+ * </p>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class Utf8Tokenizer extends Tokenizer
+{
+	private static final int BUFFER_SIZE = 8192;
+	private static final char REPLACEMENT = '\uFFFD';
+	private static final ThreadLocal<byte[]> POOL = new ThreadLocal<>();
+	private static final int WHITESPACE_PROBE = 16;
+	private static final int SIGNIFICANT = 1 << StructuralScanner.SIGNIFICANT;
+	private static final int QUOTE_END = 1 << StructuralScanner.QUOTE | 1 << StructuralScanner.BACKSLASH;
+	private static final int APOSTROPHE_END = 1 << StructuralScanner.APOSTROPHE | 1 << StructuralScanner.BACKSLASH;
+	private static final int HIGH = 1 << StructuralScanner.HIGH;
+	private static final int LITERAL_END = 1 << StructuralScanner.STRUCTURAL | HIGH;
+	private static final int NAME_END = LITERAL_END | 1 << StructuralScanner.COLON;
+
+	private InputStream input;
+	private ByteBuffer source;
+	private byte[] buffer;
+	private boolean pooled;
+	private StructuralIndex index;
+	private int pos;
+	private int limit;
+
+	/**
+	 * Instantiates a new tokenizer over part of <code>byte[]</code>. Data are
+	 * not copied.
+	 *
+	 * @param data
+	 *          the data
+	 * @param offset
+	 *          the offset
+	 * @param length
+	 *          the length
+	 */
+	protected Utf8Tokenizer(byte[] data, int offset, int length)
+	{
+		this.buffer = data;
+		this.pos = offset;
+		this.limit = offset + length;
+	}
+
+	/**
+	 * Instantiates a new tokenizer over remaining bytes of
+	 * <code>ByteBuffer</code>. Position of <code>data</code> is not changed.
+	 *
+	 * @param data
+	 *          the data
+	 */
+	protected Utf8Tokenizer(ByteBuffer data)
+	{
+		if (data.hasArray())
+		{
+			this.buffer = data.array();
+			this.pos = data.arrayOffset() + data.position();
+			this.limit = pos + data.remaining();
+		}
+		else
+		{
+			this.source = data.duplicate();
+			this.buffer = acquire();
+			this.pooled = true;
+		}
+	}
+
+	/**
+	 * Instantiates a new tokenizer, that reads <code>input</code> in blocks.
+	 *
+	 * @param input
+	 *          the input
+	 */
+	protected Utf8Tokenizer(InputStream input)
+	{
+		this.input = input;
+		this.buffer = acquire();
+		this.pooled = true;
+	}
+
+	@Override
+	protected int peekChar() throws IOException
+	{
+		while (true)
+		{
+			int p = pos;
+			int probe = Math.min(limit, p + WHITESPACE_PROBE);
+			while (p < probe)
+			{
+				int c = buffer[p] & 0xFF;
+				if (c > ' ')
+				{
+					pos = p;
+					return c;
+				}
+				p++;
+			}
+			pos = p = index().find(buffer, p, limit, SIGNIFICANT);
+			if (p < limit)
+			{
+				return buffer[p] & 0xFF;
+			}
+			if (!fill())
+			{
+				return -1;
+			}
+		}
+	}
+
+	@Override
+	protected int peekRaw() throws IOException
+	{
+		if (pos < limit || fill())
+		{
+			return buffer[pos] & 0xFF;
+		}
+		return -1;
+	}
+
+	@Override
+	protected void advance()
+	{
+		pos++;
+	}
+
+	/**
+	 * Reads quoted string into scratch buffer. ASCII runs up to next quote,
+	 * backslash or multi-byte sequence are found by index and widened in tight
+	 * loop, multi-byte sequences are decoded one by one.
+	 *
+	 * @param quote
+	 *          the quote
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	@Override
+	protected void readString(char quote) throws IOException
+	{
+		int kinds = (quote == '"' ? QUOTE_END : APOSTROPHE_END) | HIGH;
+		while (pos < limit || fill())
+		{
+			int p = index().find(buffer, pos, limit, kinds);
+			copy(p);
+			if (p < limit)
+			{
+				int b = buffer[p];
+				if (b < 0)
+				{
+					readMultiByte();
+					continue;
+				}
+				pos++;
+				if (b == quote)
+				{
+					return;
+				}
+				readEscape();
+			}
+		}
+	}
+
+	/**
+	 * Skips quoted string. Only positions of quotes and backslashes are visited,
+	 * bytes of multi-byte sequences never match them, so nothing is decoded.
+	 *
+	 * @param quote
+	 *          the quote
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	@Override
+	protected void skipString(char quote) throws IOException
+	{
+		int kinds = quote == '"' ? QUOTE_END : APOSTROPHE_END;
+		while (pos < limit || fill())
+		{
+			int p = index().find(buffer, pos, limit, kinds);
+			pos = p;
+			if (p < limit)
+			{
+				pos++;
+				if (buffer[p] == quote)
+				{
+					return;
+				}
+				if (pos < limit || fill())
+				{
+					pos++;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void readLiteral(boolean name) throws IOException
+	{
+		int kinds = name ? NAME_END : LITERAL_END;
+		while (pos < limit || fill())
+		{
+			int p = index().find(buffer, pos, limit, kinds);
+			copy(p);
+			if (p < limit)
+			{
+				if (buffer[p] >= 0)
+				{
+					return;
+				}
+				readMultiByte();
+			}
+		}
+	}
+
+	/**
+	 * Widens ASCII bytes from current position up to <code>to</code> into
+	 * scratch buffer.
+	 *
+	 * @param to
+	 *          the to
+	 */
+	private void copy(int to)
+	{
+		int length = to - pos;
+		if (length > 0)
+		{
+			ensureText(length);
+			byte[] b = buffer;
+			char[] t = text;
+			int n = textLength;
+			for (int p = pos; p < to; p++)
+			{
+				t[n++] = (char) b[p];
+			}
+			textLength = n;
+			pos = to;
+		}
+	}
+
+	@Override
+	protected void release()
+	{
+		if (pooled && buffer != null)
+		{
+			POOL.set(buffer);
+		}
+		buffer = null;
+		if (index != null)
+		{
+			index.release();
+			index = null;
+		}
+	}
+
+	/**
+	 * Decodes multi-byte sequence, that starts at current position. Malformed
+	 * sequences are replaced by <code>U+FFFD</code>.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void readMultiByte() throws IOException
+	{
+		int lead = buffer[pos] & 0xFF;
+		int length = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+		if (length == 1 || lead >= 0xF8)
+		{
+			pos++;
+			append(REPLACEMENT);
+			return;
+		}
+		while (limit - pos < length)
+		{
+			if (!fill())
+			{
+				pos = limit;
+				append(REPLACEMENT);
+				return;
+			}
+		}
+
+		int codePoint = lead & (0xFF >> (length + 1));
+		for (int i = 1; i < length; i++)
+		{
+			int b = buffer[pos + i];
+			if ((b & 0xC0) != 0x80)
+			{
+				pos += i;
+				append(REPLACEMENT);
+				return;
+			}
+			codePoint = (codePoint << 6) | (b & 0x3F);
+		}
+		pos += length;
+
+		if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT)
+		{
+			if (codePoint > Character.MAX_CODE_POINT)
+			{
+				append(REPLACEMENT);
+				return;
+			}
+			append(Character.highSurrogate(codePoint));
+			append(Character.lowSurrogate(codePoint));
+		}
+		else
+		{
+			append((char) codePoint);
+		}
+	}
+
+	/**
+	 * Refills the window from stream source. Unconsumed bytes are moved to the
+	 * beginning of the window, so multi-byte sequence is never split.
+	 *
+	 * @return true, if any byte was read
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private boolean fill() throws IOException
+	{
+		if (input == null && source == null)
+		{
+			return false;
+		}
+		if (index != null)
+		{
+			index.invalidate();
+		}
+		int remaining = limit - pos;
+		if (remaining > 0)
+		{
+			System.arraycopy(buffer, pos, buffer, 0, remaining);
+		}
+		pos = 0;
+		limit = remaining;
+
+		int read;
+		if (input != null)
+		{
+			do
+			{
+				read = input.read(buffer, limit, buffer.length - limit);
+			}
+			while (read == 0);
+		}
+		else
+		{
+			read = Math.min(source.remaining(), buffer.length - limit);
+			if (read == 0)
+			{
+				return false;
+			}
+			source.get(buffer, limit, read);
+		}
+
+		if (read < 0)
+		{
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+
+	/**
+	 * Gets the index of window. Index is taken from pool on first use.
+	 *
+	 * @return the structural index
+	 */
+	private StructuralIndex index()
+	{
+		StructuralIndex result = index;
+		if (result == null)
+		{
+			result = index = StructuralIndex.acquire();
+		}
+		return result;
+	}
+
+	/**
+	 * Takes buffer from pool of current thread or creates new one.
+	 *
+	 * @return the byte[]
+	 */
+	private static byte[] acquire()
+	{
+		byte[] result = POOL.get();
+		if (result == null)
+		{
+			return new byte[BUFFER_SIZE];
+		}
+		POOL.set(null);
+		return result;
+	}
+}
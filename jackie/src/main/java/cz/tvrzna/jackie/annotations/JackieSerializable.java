@@ -0,0 +1,24 @@
+package cz.tvrzna.jackie.annotations;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation marks class, for which <code>jackie-processor</code>
+ * generates codec at compile time. Generated codecs are discovered by
+ * {@link java.util.ServiceLoader} and used instead of reflection.
+ *
+ * @author michalt
+ * @since 0.5.0
+ *
+ */
+@Documented
+@Retention(CLASS)
+@Target(TYPE)
+public @interface JackieSerializable
+{
+}
@@ -0,0 +1,223 @@
+package cz.tvrzna.jackie;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Class VectorStructuralScanner. Classifies whole block by single vector
+ * of 64 bytes, or by two vectors of 32 bytes, where hardware supports only
+ * 256-bit vectors, e.g. AVX2. Each byte of vector is replaced by byte, whose
+ * bit <code>k</code> is set, if it is of kind <code>k</code>. Bits of each
+ * eight bytes are transposed, so that byte <code>k</code> of each
+ * <code>long</code> holds kind <code>k</code> of its eight bytes, and bytes are
+ * then shuffled, so that kind <code>k</code> of whole vector is in lane
+ * <code>k</code>. Vector of 64 bytes gives masks of all kinds directly, lanes
+ * of two vectors of 32 bytes are interleaved into <code>long</code> masks.
+ * All kinds are classified at once and stored by vector stores. Such
+ * gathering avoids <code>VectorMask.toLong()</code>, that is not intrinsic on
+ * Java 17.
+ * <p>
+ * Class is compiled only into <code>META-INF/versions/17</code> of
+ * multi-release jar and needs <code>--add-modules jdk.incubator.vector</code>
+ * at runtime. It refuses to be created, where vector of 32 bytes is not
+ * supported by hardware.
+ * </p>
+ *
+ * @author michalt
+ * @since 0.5.0
+ */
+public class VectorStructuralScanner implements StructuralScanner
+{
+	private static final VectorSpecies<Byte> WIDE = ByteVector.SPECIES_512;
+	private static final VectorSpecies<Byte> NARROW = ByteVector.SPECIES_256;
+	private static final VectorSpecies<Integer> NARROW_INTS = IntVector.SPECIES_256;
+	private static final ByteVector WIDE_ZERO = ByteVector.zero(WIDE);
+	private static final ByteVector NARROW_ZERO = ByteVector.zero(NARROW);
+	private static final VectorShuffle<Byte> WIDE_TRANSPOSE = createTranspose(WIDE);
+	private static final VectorShuffle<Byte> NARROW_TRANSPOSE = createTranspose(NARROW);
+	private static final VectorShuffle<Integer> LOW_KINDS = VectorShuffle.fromValues(NARROW_INTS, 0, 0, 1, 1, 2, 2, 3, 3);
+	private static final VectorShuffle<Integer> HIGH_KINDS = VectorShuffle.fromValues(NARROW_INTS, 4, 4, 5, 5, 6, 6, 7, 7);
+	private static final VectorMask<Integer> ODD = VectorMask.fromValues(NARROW_INTS, false, true, false, true, false, true, false, true);
+
+	private final boolean wide;
+
+	/**
+	 * Instantiates a new vector structural scanner, that uses vector of 64
+	 * bytes, if it is supported by hardware, otherwise two vectors of 32 bytes.
+	 *
+	 * @throws UnsupportedOperationException
+	 *           if vector of 32 bytes is not supported by hardware
+	 */
+	public VectorStructuralScanner()
+	{
+		this(Math.min(ByteVector.SPECIES_PREFERRED.length(), BLOCK));
+	}
+
+	/**
+	 * Instantiates a new vector structural scanner, that uses vectors of
+	 * <code>size</code> bytes.
+	 *
+	 * @param size
+	 *          the size of vector in bytes, 64 or 32
+	 * @throws UnsupportedOperationException
+	 *           if vector of <code>size</code> bytes is not supported by
+	 *           hardware
+	 */
+	protected VectorStructuralScanner(int size)
+	{
+		if (size != WIDE.length() && size != NARROW.length())
+		{
+			throw new UnsupportedOperationException("Vector of " + size + " bytes is not supported by scanner.");
+		}
+		if (ByteVector.SPECIES_PREFERRED.length() < size)
+		{
+			throw new UnsupportedOperationException("Preferred vector is smaller than " + size + " bytes.");
+		}
+		wide = size == WIDE.length();
+	}
+
+	@Override
+	public int scan(byte[] data, int offset, int kinds, long[] masks, int base)
+	{
+		if (wide)
+		{
+			scanWide(data, offset, masks, base);
+		}
+		else
+		{
+			scanNarrow(data, offset, masks, base);
+		}
+		return ALL;
+	}
+
+	/**
+	 * Classifies block by single vector of 64 bytes.
+	 *
+	 * @param data
+	 *          the data
+	 * @param offset
+	 *          the offset
+	 * @param masks
+	 *          the masks
+	 * @param base
+	 *          the base
+	 */
+	private static void scanWide(byte[] data, int offset, long[] masks, int base)
+	{
+		ByteVector vector = ByteVector.fromArray(WIDE, data, offset);
+		ByteVector brackets = vector.or((byte) 0x20);
+		VectorMask<Byte> high = vector.lt((byte) 0);
+		VectorMask<Byte> structural = vector.eq((byte) ',').or(brackets.eq((byte) '{')).or(brackets.eq((byte) '}'));
+		ByteVector marks = WIDE_ZERO.blend((byte) (1 << SIGNIFICANT), vector.compare(VectorOperators.GT, (byte) ' ').or(high));
+		marks = marks.or(WIDE_ZERO.blend((byte) (1 << QUOTE), vector.eq((byte) '"')));
+		marks = marks.or(WIDE_ZERO.blend((byte) (1 << APOSTROPHE), vector.eq((byte) '\'')));
+		marks = marks.or(WIDE_ZERO.blend((byte) (1 << BACKSLASH), vector.eq((byte) '\\')));
+		marks = marks.or(WIDE_ZERO.blend((byte) (1 << STRUCTURAL), structural));
+		marks = marks.or(WIDE_ZERO.blend((byte) (1 << COLON), vector.eq((byte) ':')));
+		marks = marks.or(WIDE_ZERO.blend((byte) (1 << HIGH), high));
+		LongVector words = marks.reinterpretAsLongs();
+		words = transpose(words, 7, 0x00AA00AA00AA00AAL);
+		words = transpose(words, 14, 0x0000CCCC0000CCCCL);
+		words = transpose(words, 28, 0x00000000F0F0F0F0L);
+		words.reinterpretAsBytes().rearrange(WIDE_TRANSPOSE).reinterpretAsLongs().intoArray(masks, base);
+	}
+
+	/**
+	 * Classifies block by two vectors of 32 bytes. Lane <code>k</code> of each
+	 * vector holds kind <code>k</code> of its 32 bytes, so lanes of both
+	 * vectors are interleaved into <code>long</code> masks.
+	 *
+	 * @param data
+	 *          the data
+	 * @param offset
+	 *          the offset
+	 * @param masks
+	 *          the masks
+	 * @param base
+	 *          the base
+	 */
+	private static void scanNarrow(byte[] data, int offset, long[] masks, int base)
+	{
+		IntVector low = classifyNarrow(data, offset);
+		IntVector high = classifyNarrow(data, offset + NARROW.length());
+		low.rearrange(LOW_KINDS).blend(high.rearrange(LOW_KINDS), ODD).reinterpretAsLongs().intoArray(masks, base);
+		low.rearrange(HIGH_KINDS).blend(high.rearrange(HIGH_KINDS), ODD).reinterpretAsLongs().intoArray(masks, base + STRIDE / 2);
+	}
+
+	/**
+	 * Classifies vector of 32 bytes loaded from <code>offset</code>. Lane
+	 * <code>k</code> of result holds kind <code>k</code> of its bytes.
+	 *
+	 * @param data
+	 *          the data
+	 * @param offset
+	 *          the offset
+	 * @return the int vector
+	 */
+	private static IntVector classifyNarrow(byte[] data, int offset)
+	{
+		ByteVector vector = ByteVector.fromArray(NARROW, data, offset);
+		ByteVector brackets = vector.or((byte) 0x20);
+		VectorMask<Byte> high = vector.lt((byte) 0);
+		VectorMask<Byte> structural = vector.eq((byte) ',').or(brackets.eq((byte) '{')).or(brackets.eq((byte) '}'));
+		ByteVector marks = NARROW_ZERO.blend((byte) (1 << SIGNIFICANT), vector.compare(VectorOperators.GT, (byte) ' ').or(high));
+		marks = marks.or(NARROW_ZERO.blend((byte) (1 << QUOTE), vector.eq((byte) '"')));
+		marks = marks.or(NARROW_ZERO.blend((byte) (1 << APOSTROPHE), vector.eq((byte) '\'')));
+		marks = marks.or(NARROW_ZERO.blend((byte) (1 << BACKSLASH), vector.eq((byte) '\\')));
+		marks = marks.or(NARROW_ZERO.blend((byte) (1 << STRUCTURAL), structural));
+		marks = marks.or(NARROW_ZERO.blend((byte) (1 << COLON), vector.eq((byte) ':')));
+		marks = marks.or(NARROW_ZERO.blend((byte) (1 << HIGH), high));
+		LongVector words = marks.reinterpretAsLongs();
+		words = transpose(words, 7, 0x00AA00AA00AA00AAL);
+		words = transpose(words, 14, 0x0000CCCC0000CCCCL);
+		words = transpose(words, 28, 0x00000000F0F0F0F0L);
+		return words.reinterpretAsBytes().rearrange(NARROW_TRANSPOSE).reinterpretAsInts();
+	}
+
+	/**
+	 * Swaps bits selected by <code>mask</code> with bits <code>shift</code>
+	 * positions higher. Three such steps transpose each eight bytes as matrix
+	 * of 8x8 bits.
+	 *
+	 * @param words
+	 *          the words
+	 * @param shift
+	 *          the shift
+	 * @param mask
+	 *          the mask
+	 * @return the long vector
+	 */
+	private static LongVector transpose(LongVector words, int shift, long mask)
+	{
+		LongVector swapped = words.lanewise(VectorOperators.LSHR, shift).lanewise(VectorOperators.XOR, words).lanewise(VectorOperators.AND, mask);
+		return words.lanewise(VectorOperators.XOR, swapped).lanewise(VectorOperators.XOR, swapped.lanewise(VectorOperators.LSHL, shift));
+	}
+
+	/**
+	 * Creates shuffle of <code>species</code>, that moves byte <code>k</code>
+	 * of <code>long</code> <code>i</code> to byte <code>k * n + i</code>, where
+	 * <code>n</code> is count of <code>long</code> lanes of vector.
+	 *
+	 * @param species
+	 *          the species
+	 * @return the vector shuffle
+	 */
+	private static VectorShuffle<Byte> createTranspose(VectorSpecies<Byte> species)
+	{
+		int lanes = species.length() / 8;
+		int[] indexes = new int[species.length()];
+		for (int i = 0; i < lanes; i++)
+		{
+			for (int k = 0; k < 8; k++)
+			{
+				indexes[k * lanes + i] = i * 8 + k;
+			}
+		}
+		return VectorShuffle.fromArray(species, indexes, 0);
+	}
+}
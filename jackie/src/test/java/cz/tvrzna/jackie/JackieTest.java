@@ -0,0 +1,1532 @@
+package cz.tvrzna.jackie;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import cz.tvrzna.jackie.ClassDescriptor.Property;
+import cz.tvrzna.jackie.JackieBuilder.JackieElement;
+import cz.tvrzna.jackie.annotations.JackieAdapter;
+import cz.tvrzna.jackie.annotations.JackieProperty;
+import cz.tvrzna.jackie.annotations.JackieSerializable;
+
+public class JackieTest
+{
+
+	public static class TestClass
+	{
+		protected long id;
+		protected BigDecimal bigDecimal;
+		protected BigInteger bigInteger;
+		protected String name;
+		protected List<TestClass> children;
+		protected Map<String, TestClass> mapChildren;
+
+		@JackieProperty("default")
+		protected Boolean def;
+
+		@JackieAdapter(GzipDataAdapter.class)
+		@JackieProperty("gzipData")
+		protected byte[] gzipData;
+	}
+
+	public static class GzipDataAdapter implements Adapter<byte[]>
+	{
+
+		@Override
+		public byte[] deserialize(String text)
+		{
+			try
+			{
+				ByteArrayInputStream bais = new ByteArrayInputStream(Base64.getDecoder().decode(text.getBytes()));
+				GZIPInputStream gzip = new GZIPInputStream(bais);
+
+				ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+				int c;
+				byte[] buffer = new byte[8];
+				while ((c = gzip.read(buffer, 0, buffer.length)) != -1)
+				{
+					baos.write(buffer, 0, c);
+				}
+				gzip.close();
+
+				return baos.toByteArray();
+			}
+			catch (Exception e)
+			{
+				Assertions.fail(e);
+			}
+			return null;
+		}
+
+		@Override
+		public String serialize(byte[] value)
+		{
+			try
+			{
+				ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				GZIPOutputStream gzip = new GZIPOutputStream(baos);
+
+				gzip.write(value);
+				gzip.close();
+				baos.close();
+
+				return new String(Base64.getEncoder().encode(baos.toByteArray()));
+			}
+			catch (Exception e)
+			{
+				Assertions.fail(e);
+			}
+			return null;
+		}
+
+	}
+
+	@Test
+	public void fromJsonToStringArray()
+	{
+		String json = "[\"value1\", 'value2', value3]";
+		String[] arr = new Jackie().fromJson(json, String[].class);
+		Assertions.assertNotNull(arr);
+		Assertions.assertEquals(3, arr.length);
+
+		ByteArrayInputStream bais = new ByteArrayInputStream(json.getBytes());
+		String[] arr2 = new Jackie().fromJson(bais, String[].class);
+		Assertions.assertNotNull(arr2);
+		Assertions.assertEquals(3, arr2.length);
+	}
+
+	@Test
+	public void fromJsonToIntegerArray()
+	{
+		String json = "[0, 1, \"2\", '3']";
+		Integer[] arr = new Jackie().fromJson(json, Integer[].class);
+		Assertions.assertNotNull(arr);
+		Assertions.assertEquals(4, arr.length);
+	}
+
+	@Test
+	public void fromJsonToBoolArray()
+	{
+		String json = "[true, false]";
+		boolean[] arr = new Jackie().fromJson(json, boolean[].class);
+		Assertions.assertNotNull(arr);
+		Assertions.assertEquals(2, arr.length);
+	}
+
+	@Test
+	public void fromJsonToBoolList()
+	{
+		String json = "[true, false]";
+		List<Boolean> lst = new Jackie().fromJsonList(json, boolean.class);
+		Assertions.assertNotNull(lst);
+		Assertions.assertEquals(2, lst.size());
+
+		ByteArrayInputStream bais = new ByteArrayInputStream(json.getBytes());
+		List<Boolean> lst2 = new Jackie().fromJsonList(bais, boolean.class);
+		Assertions.assertNotNull(lst2);
+		Assertions.assertEquals(2, lst2.size());
+	}
+
+	@Test
+	public void fromJsonToHashMap()
+	{
+		String json = "{0: \"hello\", 1: \"bye\"}";
+		Map<Integer, String> map = new Jackie().fromJsonMap(json, Integer.class, String.class);
+		Assertions.assertEquals(2, map.size());
+		Assertions.assertEquals("bye", map.get(1));
+
+		ByteArrayInputStream bais = new ByteArrayInputStream(json.getBytes());
+		Map<Integer, String> map2 = new Jackie().fromJsonMap(bais, Integer.class, String.class);
+		Assertions.assertEquals(2, map2.size());
+		Assertions.assertEquals("bye", map2.get(1));
+	}
+
+	@Test
+	public void fromJsonToObject()
+	{
+		String json = "{id: 20200327, 'name': \"SomeDope\\n\\nName\", 'children': [{id: 1, name: 'help1', children: [{}]}, {id: 2, name: 'help2'}, {id: 3}], 'mapChildren': {'abc': {id: 4, name: 'help4', children: [{id: 5}]}, 'xyz': {id: 6}}}";
+		TestClass obj = new Jackie().fromJson(json, TestClass.class);
+		Assertions.assertNotNull(obj);
+		Assertions.assertEquals(20200327l, obj.id);
+		Assertions.assertEquals("SomeDope\n\nName", obj.name);
+		Assertions.assertEquals(3, obj.children.size());
+		Assertions.assertNotNull(obj.children.get(2));
+		Assertions.assertEquals(6, obj.mapChildren.get("xyz").id);
+		Assertions.assertEquals(5, obj.mapChildren.get("abc").children.get(0).id);
+	}
+
+	@Test
+	public void toJsonFromStringArray()
+	{
+		String expected = "[\"hello\",\"there\"]";
+		String[] arr = new String[]
+		{ "hello", "there" };
+		Assertions.assertEquals(expected, new Jackie().toJson(arr));
+	}
+
+	@Test
+	public void toJsonFromByteArray()
+	{
+		String expected = "[3,6,22,50]";
+		byte[] arr = new byte[]
+		{ 3, 6, 22, 50 };
+		Assertions.assertEquals(expected, new Jackie().toJson(arr));
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new Jackie().toJson(arr, baos);
+
+		Assertions.assertEquals(expected, baos.toString());
+	}
+
+	@Test
+	public void toJsonFromChars()
+	{
+		String expected = "[\"a\",\"ࢥ\",\"y\"]";
+		char[] arr = new char[]
+		{ 'a', 2213, 'y' };
+		Assertions.assertEquals(expected, new Jackie().toJson(arr));
+	}
+
+	@Test
+	public void toJsonFromObject()
+	{
+		String expected = "{\"id\":20200327,\"bigDecimal\":2.10,\"bigInteger\":500,\"name\":\"SomeDope\\n\\nName\",\"children\":[{\"id\":1,\"name\":\"children\"}],\"mapChildren\":{\"first\":{\"id\":0},\"second\":{\"id\":2,\"name\":\"children-name\"}}}";
+		TestClass obj = new TestClass();
+		obj.id = 20200327l;
+		obj.bigDecimal = new BigDecimal(2.1).setScale(2, RoundingMode.HALF_UP);
+		obj.bigInteger = new BigInteger("500");
+		obj.name = "SomeDope\n\nName";
+		obj.children = new ArrayList<>();
+		obj.children.add(new TestClass());
+		obj.children.get(0).id = 1l;
+		obj.children.get(0).name = "children";
+		obj.mapChildren = new HashMap<>();
+		obj.mapChildren.put("first", new TestClass());
+		obj.mapChildren.put("second", new TestClass());
+		obj.mapChildren.get("second").id = 2l;
+		obj.mapChildren.get("second").name = "children-name";
+		Assertions.assertEquals(expected, new Jackie().toJson(obj));
+	}
+
+	@Test
+	public void toJsonFromMapWithIntegerKeys()
+	{
+		String expected = "{\"child2\":{\"false\":\"nay\",\"true\":\"yay\"},\"child1\":{\"0\":\"hello\",\"1\":\"cya\"}}";
+
+		Map<String, Object> parent = new HashMap<>();
+		Map<Integer, String> child1 = new HashMap<>();
+		child1.put(0, "hello");
+		child1.put(1, "cya");
+		parent.put("child1", child1);
+
+		Map<Boolean, String> child2 = new HashMap<>();
+		child2.put(Boolean.FALSE, "nay");
+		child2.put(Boolean.TRUE, "yay");
+		parent.put("child2", child2);
+
+		Assertions.assertEquals(expected, new Jackie().toJson(parent));
+	}
+
+	@Test
+	public void testCustomDateFormat()
+	{
+		final String expected = "{\"today\":\"2022-08-05\"}";
+		Jackie j = new Jackie().withCustomDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
+
+		Calendar cal = Calendar.getInstance();
+		cal.set(Calendar.YEAR, 2022);
+		cal.set(Calendar.MONTH, 7);
+		cal.set(Calendar.DAY_OF_MONTH, 5);
+
+		Map<String, Date> map = new HashMap<>();
+		map.put("today", cal.getTime());
+
+		String json = j.toJson(map);
+		Assertions.assertEquals(expected, json);
+
+		Map<String, Date> resultMap = j.fromJson(json, Map.class, String.class, Date.class);
+		Calendar resultCal = Calendar.getInstance();
+		resultCal.setTime(resultMap.get("today"));
+
+		Assertions.assertEquals(cal.get(Calendar.YEAR), resultCal.get(Calendar.YEAR));
+		Assertions.assertEquals(cal.get(Calendar.MONTH), resultCal.get(Calendar.MONTH));
+		Assertions.assertEquals(cal.get(Calendar.DAY_OF_MONTH), resultCal.get(Calendar.DAY_OF_MONTH));
+	}
+
+	public static class TimeClass
+	{
+		protected Date date;
+		protected Instant instant;
+		protected LocalDate localDate;
+		protected LocalDateTime localDateTime;
+		protected OffsetDateTime offsetDateTime;
+	}
+
+	@Test
+	public void testDateCodec() throws Exception
+	{
+		TimeClass obj = new TimeClass();
+		obj.date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse("2022-08-05T10:15:30");
+		obj.instant = Instant.parse("2022-08-05T10:15:30.120Z");
+		obj.localDate = LocalDate.of(2022, 8, 5);
+		obj.localDateTime = LocalDateTime.of(2022, 8, 5, 10, 15, 0, 5000);
+		obj.offsetDateTime = OffsetDateTime.of(2022, 8, 5, 10, 15, 30, 0, ZoneOffset.ofHours(2));
+
+		Jackie jackie = new Jackie();
+		String json = jackie.toJson(obj);
+		Assertions.assertEquals("{\"date\":\"2022-08-05T10:15:30\",\"instant\":\"2022-08-05T10:15:30.120Z\",\"localDate\":\"2022-08-05\","
+				+ "\"localDateTime\":\"2022-08-05T10:15:00.000005\",\"offsetDateTime\":\"2022-08-05T10:15:30+02:00\"}", json);
+
+		TimeClass result = jackie.fromJson(json, TimeClass.class);
+		Assertions.assertEquals(obj.date, result.date);
+		Assertions.assertEquals(obj.instant, result.instant);
+		Assertions.assertEquals(obj.localDate, result.localDate);
+		Assertions.assertEquals(obj.localDateTime, result.localDateTime);
+		Assertions.assertEquals(obj.offsetDateTime, result.offsetDateTime);
+
+		Jackie custom = new Jackie().withCustomDateFormat(new SimpleDateFormat("dd.MM.yyyy HH:mm:ss.SSS"));
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+		for (int t = 0; t < 4; t++)
+		{
+			final long base = t * 86400000L * 400;
+			Thread thread = new Thread(() -> {
+				try
+				{
+					for (int i = 0; i < 2000; i++)
+					{
+						Date date = new Date(base + i * 3600123L);
+						Assertions.assertEquals(date, custom.fromJson(custom.toJson(date), Date.class));
+					}
+				}
+				catch (Throwable e)
+				{
+					synchronized (errors)
+					{
+						errors.add(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		Assertions.assertEquals(Collections.emptyList(), errors);
+
+		TimeZone defaultZone = TimeZone.getDefault();
+		try
+		{
+			Date date = new Date(1659694530000L);
+			TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+			Assertions.assertEquals("\"2022-08-05T10:15:30\"", jackie.toJson(date));
+			TimeZone.setDefault(TimeZone.getTimeZone("GMT+02:00"));
+			Assertions.assertEquals("\"2022-08-05T12:15:30\"", jackie.toJson(date));
+		}
+		finally
+		{
+			TimeZone.setDefault(defaultZone);
+		}
+	}
+
+	@Test
+	public void testPrettyPrint()
+	{
+		final String expected = "{\n" +
+				"	\"glossary\" : {\n" +
+				"		\"title\" : \"example glossary\",\n" +
+				"		\"GlossDiv\" : {\n" +
+				"			\"title\" : \"S\",\n" +
+				"			\"GlossList\" : {\n" +
+				"				\"GlossEntry\" : {\n" +
+				"					\"ID\" : \"SGML\",\n" +
+				"					\"SortAs\" : \"SGML\",\n" +
+				"					\"GlossTerm\" : \"Standard Generalized Markup Language\",\n" +
+				"					\"Acronym\" : \"SGML\",\n" +
+				"					\"Abbrev\" : \"ISO 8879:1986\",\n" +
+				"					\"GlossDef\" : {\n" +
+				"						\"para\" : \"A meta-markup language, used to create markup languages such as DocBook.\",\n" +
+				"						\"GlossSeeAlso\" : [\n" +
+				"							\"GML\",\n" +
+				"							\"XML\",\n" +
+				"							{\n" +
+				"								\"hello\" : \"there\"\n" +
+				"							}\n" +
+				"						]\n" +
+				"					}\n" +
+				"				}\n" +
+				"			}\n" +
+				"		}\n" +
+				"	}\n" +
+				"}";
+
+		Jackie j = new Jackie().withPrettyPrint();
+		String source = "{\"glossary\":{\"title\":\"example glossary\",\"GlossDiv\":{\"title\":\"S\",\"GlossList\":{\"GlossEntry\":{\"ID\":\"SGML\",\"SortAs\":\"SGML\",\"GlossTerm\":\"Standard Generalized Markup Language\",\"Acronym\":\"SGML\",\"Abbrev\":\"ISO 8879:1986\",\"GlossDef\":{\"para\":\"A meta-markup language, used to create markup languages such as DocBook.\",\"GlossSeeAlso\":[\"GML\",\"XML\", {\"hello\": \"there\"]},\"GlossSee\":\"markup\"}}}}}";
+		Map<String, Object> map = j.fromJsonMap(source, String.class, Object.class);
+		JackieElement el = JackieBuilder.fromString(source);
+
+		String result = j.toJson(el);
+		Assertions.assertEquals(expected, result);
+	}
+
+	public void testNotParseBracketsAsList()
+	{
+		final String source = "{\n" + "  \"\\ndata\" : [\n" + "    \"[n\\not-array]\"\n" + "  ]\n" + "}";
+
+		JackieElement e = JackieBuilder.fromString(source);
+		Assertions.assertEquals(source, new Jackie().withPrettyPrint().withTabIndent("  ").toJson(e));
+	}
+
+	@Test
+	public void testPrettyPrintCustomIndent()
+	{
+		final String expected = "{	\n" +
+				"\"id\" : 100,	\n" +
+				"\"children\" : [	\n" +
+				"\n" +
+				"{	\n" +
+				"\n" +
+				"\n" +
+				"\"id\" : 200	\n" +
+				"\n" +
+				"}	\n" +
+				"]	}";
+
+		TestClass c = new TestClass();
+		c.id = 100l;
+		c.children = new ArrayList<>();
+		c.children.add(new TestClass());
+		c.children.get(0).id = 200l;
+
+		Jackie j = new Jackie().withPrettyPrint().withLineIndent("\t").withTabIndent("\n");
+		Assertions.assertEquals(expected, j.toJson(c));
+	}
+
+	@Test
+	public void testNumberParsing()
+	{
+		final String json = "{\"bigDecimal\":111605021215187089344548.5456,\"bigInteger\":11160502121518708948435345}";
+		JackieElement e = JackieBuilder.fromString(json);
+
+		Assertions.assertEquals(json, new Jackie().toJson(e));
+	}
+
+	@Test
+	public void testAnnotation()
+	{
+		final String json = "{\"id\":0,\"default\":true}";
+		TestClass t = new Jackie().fromJson(json, TestClass.class);
+
+		Assertions.assertEquals(Boolean.TRUE, t.def);
+		Assertions.assertEquals(json, new Jackie().toJson(t));
+	}
+
+	@Test
+	public void testNullInputStream()
+	{
+		TestClass t = new Jackie().fromJson((InputStream) null, TestClass.class);
+		Assertions.assertNull(t);
+	}
+
+	@Test
+	public void testWrongClass()
+	{
+		Assertions.assertThrows(RuntimeException.class, () -> {
+			new Jackie().fromJson("[]", Map.class);
+		});
+	}
+
+	@Test
+	public void testGzip()
+	{
+		final String expected = "{\"id\":0,\"gzipData\":\"H4sIAAAAAAAAAPNIzcnJVwjPL8pJAQBWsRdKCwAAAA==\"}";
+
+		TestClass c = new TestClass();
+		c.gzipData = "Hello World".getBytes();
+
+		String json = new Jackie().toJson(c);
+		Assertions.assertEquals(expected, json);
+
+		TestClass c2 = new Jackie().fromJson(json, TestClass.class);
+		Assertions.assertEquals("Hello World", new String(c2.gzipData));
+
+	}
+
+	@Test
+	public void testTokenizerWindowRefill()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 5000; i++)
+		{
+			sb.append(i > 0 ? ", " : "").append("{id: ").append(i).append(", 'name': \"item\\t\\u0041\\\"").append(i).append("\"}");
+		}
+		sb.append("]");
+
+		List<TestClass> lst = new Jackie().fromJsonList(new ByteArrayInputStream(sb.toString().getBytes()), TestClass.class);
+		Assertions.assertEquals(5000, lst.size());
+		Assertions.assertEquals(4999l, lst.get(4999).id);
+		Assertions.assertEquals("item\tA\"4999", lst.get(4999).name);
+	}
+
+	@Test
+	public void testDirectBinding()
+	{
+		final String json = "{\"unknown\": {\"a\": [1, {\"b\": \"}]\"}]}, \"id\": null, \"name\": \"bound\", \"mapChildren\": {\"x\": {\"id\": 7}}, \"default\": \"true\"}";
+		TestClass t = new Jackie().fromJson(json, TestClass.class);
+
+		Assertions.assertEquals(0l, t.id);
+		Assertions.assertEquals("bound", t.name);
+		Assertions.assertEquals(7l, t.mapChildren.get("x").id);
+		Assertions.assertEquals(Boolean.TRUE, t.def);
+	}
+
+	@Test
+	public void testSkipString()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 2000; i++)
+		{
+			sb.append(i > 0 ? "," : "").append("{\"unknown\": \"").append(i).append(" \\\"quoted\\\" \u017elu\u0165ou\u010dk\u00fd \\\\\", 'other': '\\'x\\'', \"id\": ").append(i).append("}");
+		}
+		sb.append("]");
+		byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+		List<TestClass> fromString = new Jackie().fromJsonList(sb.toString(), TestClass.class);
+		List<TestClass> fromStream = new Jackie().fromJsonList(new ByteArrayInputStream(data), TestClass.class);
+		Assertions.assertEquals(2000, fromString.size());
+		Assertions.assertEquals(2000, fromStream.size());
+		for (int i = 0; i < 2000; i++)
+		{
+			Assertions.assertEquals(i, fromString.get(i).id);
+			Assertions.assertEquals(i, fromStream.get(i).id);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testStructuralIndex() throws Exception
+	{
+		byte[] palette = " \t\n\"'\\,:{}[];;{|}az09\u0000\u007f".getBytes(StandardCharsets.ISO_8859_1);
+		Random random = new Random(7);
+		byte[] data = new byte[StructuralScanner.BLOCK * 9];
+		for (int i = 0; i < data.length; i++)
+		{
+			data[i] = i % 3 == 0 ? (byte) random.nextInt() : palette[random.nextInt(palette.length)];
+		}
+		List<StructuralScanner> scanners = new ArrayList<>(Arrays.asList(new SwarStructuralScanner(), StructuralIndex.getScanner()));
+		if (!(StructuralIndex.getScanner() instanceof SwarStructuralScanner))
+		{
+			scanners.add((StructuralScanner) StructuralIndex.getScanner().getClass().getDeclaredConstructor(int.class).newInstance(32));
+		}
+		for (StructuralScanner scanner : scanners)
+		{
+			long[] masks = new long[8 * StructuralScanner.STRIDE];
+			for (int b = 0; b < 8; b++)
+			{
+				scanner.scan(data, 3 + b * StructuralScanner.BLOCK, StructuralScanner.ALL, masks, b * StructuralScanner.STRIDE);
+			}
+			for (int i = 0; i < 8 * StructuralScanner.BLOCK; i++)
+			{
+				int b = data[3 + i] & 0xFF;
+				boolean[] expected = { b > ' ', b == '"', b == '\'', b == '\\', ",{}[]".indexOf(b) >= 0, b == ':', b >= 0x80 };
+				for (int kind = 0; kind < StructuralScanner.KINDS; kind++)
+				{
+					long mask = masks[(i >>> 6) * StructuralScanner.STRIDE + kind];
+					Assertions.assertEquals(expected[kind], (mask >>> (i & 63) & 1) != 0, scanner + " kind " + kind + " byte " + i);
+				}
+			}
+		}
+
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 300; i++)
+		{
+			sb.append(i > 0 ? ",\n" : "").append("{\t\"id\"   :   ").append(i).append(",");
+			sb.append(new String(new char[i % 70]).replace('\0', ' ')).append("\"name\":\"");
+			for (int j = 0; j < i % 90; j++)
+			{
+				sb.append(j % 17 == 0 ? "\\\"" : j % 23 == 0 ? "\u017e\u20ac\ud83d\ude00" : j % 29 == 0 ? "\\u0041" : "x");
+			}
+			sb.append("\", 'skipped': '").append(new String(new char[i % 80]).replace('\0', '\"')).append("\\'', other: lit\u00e9ral }");
+		}
+		sb.append("]");
+		String json = sb.toString();
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+		Jackie jackie = new Jackie();
+		List<TestClass> expected = jackie.fromJsonList(json, TestClass.class);
+		InputStream slow = new ByteArrayInputStream(bytes)
+		{
+			@Override
+			public synchronized int read(byte[] b, int off, int len)
+			{
+				return super.read(b, off, Math.min(len, 13));
+			}
+		};
+		List<List<TestClass>> results = Arrays.asList(jackie.fromJson(bytes, 0, bytes.length, List.class, TestClass.class, null),
+				jackie.fromJsonList(new ByteArrayInputStream(bytes), TestClass.class), jackie.fromJsonList(slow, TestClass.class));
+		Assertions.assertEquals(300, expected.size());
+		for (List<TestClass> result : results)
+		{
+			Assertions.assertEquals(expected.size(), result.size());
+			for (int i = 0; i < expected.size(); i++)
+			{
+				Assertions.assertEquals(i, result.get(i).id);
+				Assertions.assertEquals(expected.get(i).name, result.get(i).name);
+			}
+		}
+		Assertions.assertTrue(expected.get(46).name.contains("\u017e\u20ac\ud83d\ude00"));
+		Assertions.assertTrue(expected.get(46).name.contains("xAx"));
+	}
+
+	@Test
+	public void testNumberParser()
+	{
+		Random random = new Random(42);
+		List<String> values = new ArrayList<>(Arrays.asList("0", "-0", "0.0", "1", "-1.5", "1e22", "1e23", "9007199254740993", "2.2250738585072011e-308", "4.9e-324",
+				"1.7976931348623157e308", "1e309", "123456789012345678901234567890", "0.1", ".5", "5.", "1E-5", "+3.25e+2", "3.4028235e38"));
+		for (int i = 0; i < 20000; i++)
+		{
+			values.add(Double.toString(Double.longBitsToDouble(random.nextLong())));
+			values.add(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+			StringBuilder sb = new StringBuilder();
+			int digits = 1 + random.nextInt(20);
+			for (int d = 0; d < digits; d++)
+			{
+				sb.append((char) ('0' + random.nextInt(10)));
+			}
+			sb.insert(random.nextInt(digits + 1), '.').append('e').append(random.nextInt(700) - 350);
+			values.add(sb.toString());
+			values.add(Long.toString(random.nextLong()));
+			values.add(Integer.toString(random.nextInt()));
+		}
+
+		for (String value : values)
+		{
+			if (value.contains("NaN") || value.contains("Infinity"))
+			{
+				continue;
+			}
+			char[] text = ("[" + value + "]").toCharArray();
+			Assertions.assertEquals(Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(NumberParser.parseDouble(text, 1, value.length())), value);
+			Assertions.assertEquals(Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(NumberParser.parseFloat(text, 1, value.length())), value);
+			if (value.matches("-?\\d{1,18}"))
+			{
+				Assertions.assertEquals(Long.parseLong(value), NumberParser.parseLong(text, 1, value.length()));
+			}
+		}
+		Assertions.assertThrows(NumberFormatException.class, () -> NumberParser.parseInt("2147483648".toCharArray(), 0, 10));
+		Assertions.assertThrows(NumberFormatException.class, () -> NumberParser.parseDouble("1.2.3".toCharArray(), 0, 5));
+		Assertions.assertEquals(-12, NumberParser.parseInt("-12".toCharArray(), 0, 3));
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testNameCache()
+	{
+		final String json = "[{\"key\": 1, \"other\": 2}, {\"key\": 3, 'other': 4}]";
+		List<Map> lst = new Jackie().fromJsonList(json, Map.class);
+
+		Object first = lst.get(0).keySet().iterator().next();
+		Object second = lst.get(1).keySet().iterator().next();
+		Assertions.assertEquals("key", first);
+		Assertions.assertSame(first, second);
+
+		char[] text = "other".toCharArray();
+		Assertions.assertSame(NameCache.local().get(text, text.length), NameCache.local().get(text, text.length));
+	}
+
+	@Test
+	public void testExtract()
+	{
+		final String json = "{\"header\": {\"id\": 42, \"skipped\": [{\"price\": 0}]}, \"items\": [{\"price\": 1.5, \"name\": \"a\"}, {\"name\": \"b\", \"price\": 2}, {\"name\": \"c\"}],"
+				+ " \"children\": {\"x\": {\"id\": 7}, \"y\": {\"id\": 8}}}";
+		Jackie jackie = new Jackie();
+
+		Assertions.assertEquals(Arrays.asList(42l), jackie.extract(json, "$.header.id", Long.class));
+		Assertions.assertEquals(Arrays.asList(new BigDecimal("1.5"), new BigDecimal("2")), jackie.extract(json, "$.items[*].price", BigDecimal.class));
+		Assertions.assertEquals(Arrays.asList("b"), jackie.extract(json, "$['items'][1].name", String.class));
+		Assertions.assertEquals(8l, jackie.extract(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "$.children.*", TestClass.class).get(1).id);
+		Assertions.assertTrue(jackie.extract(json, "$.missing[0]", Object.class).isEmpty());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JackiePath.compile("items[0]"));
+	}
+
+	@Test
+	public void testEscapeString()
+	{
+		TestClass t = new TestClass();
+		t.name = "\"a\\b\"\n\n\u0001\u00e9\t/";
+
+		String json = new Jackie().toJson(t);
+		Assertions.assertEquals("{\"id\":0,\"name\":\"\\\"a\\\\b\\\"\\n\\n\\u0001\u00e9\\t/\"}", json);
+		Assertions.assertEquals(t.name, new Jackie().fromJson(json, TestClass.class).name);
+		Assertions.assertEquals("{\"id\":0,\"name\":\"\\\"a\\\\b\\\"\\n\\n\\u0001\\u00e9\\t/\"}", new Jackie().withEscapeUnicode().toJson(t));
+	}
+
+	public static class PrefixClass
+	{
+		@JackieProperty("čís\"lo")
+		protected int number = 1;
+		protected String text = "t";
+	}
+
+	@Test
+	public void testFieldPrefix()
+	{
+		PrefixClass obj = new PrefixClass();
+		String compact = "{\"čís\\\"lo\":1,\"text\":\"t\"}";
+		Assertions.assertEquals(compact, new Jackie().toJson(obj));
+		Assertions.assertArrayEquals(compact.getBytes(StandardCharsets.UTF_8), new Jackie().toJsonBytes(obj));
+		Assertions.assertEquals("{\"\\u010d\\u00eds\\\"lo\":1,\"text\":\"t\"}", new Jackie().withEscapeUnicode().toJson(obj));
+		Assertions.assertEquals("{\n\t\"čís\\\"lo\" : 1,\n\t\"text\" : \"t\"\n}", new Jackie().withPrettyPrint().toJson(obj));
+		Assertions.assertEquals(1, new Jackie().fromJson(compact, PrefixClass.class).number);
+	}
+
+	@Test
+	public void testNumberWriter()
+	{
+		Jackie jackie = new Jackie();
+		Assertions.assertEquals("[0,-7,42,-2147483648,9223372036854775807,-9223372036854775808]",
+				jackie.toJson(new Object[] { 0, (byte) -7, (short) 42, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE }));
+		Assertions.assertEquals("[0.0,-0.0,1.0,0.1,100.0,1.25,0.001,9.99E-4,1.0E7,9999999.0,1.0E23,4.9E-324,1.7976931348623157E308,NaN,-Infinity]",
+				jackie.toJson(new double[] { 0, -0.0, 1, 0.1, 100, 1.25, 0.001, 0.000999, 1e7, 9999999, 1e23, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.NEGATIVE_INFINITY }));
+		Assertions.assertEquals("[0.1,1.1,1.4E-45,3.4028235E38,1.6777216E7]", jackie.toJson(new float[] { 0.1f, 1.1f, Float.MIN_VALUE, Float.MAX_VALUE, 16777216f }));
+		Assertions.assertEquals("[1.50,1E+3,123456789012345678901234567890]",
+				jackie.toJson(Arrays.asList(new BigDecimal("1.50"), new BigDecimal("1E3"), new BigInteger("123456789012345678901234567890"))));
+
+		Random random = new Random(7);
+		double[] doubles = new double[10000];
+		float[] floats = new float[doubles.length];
+		for (int i = 0; i < doubles.length; i++)
+		{
+			do
+			{
+				doubles[i] = Double.longBitsToDouble(random.nextLong());
+				floats[i] = Float.intBitsToFloat(random.nextInt());
+			}
+			while (Double.isNaN(doubles[i]) || Double.isInfinite(doubles[i]) || Float.isNaN(floats[i]) || Float.isInfinite(floats[i]));
+		}
+		Assertions.assertArrayEquals(doubles, jackie.fromJson(jackie.toJson(doubles), double[].class));
+		float[] parsedFloats = jackie.fromJson(jackie.toJson(floats), float[].class);
+		for (int i = 0; i < floats.length; i++)
+		{
+			Assertions.assertEquals(floats[i], parsedFloats[i]);
+		}
+	}
+
+	@Test
+	public void testChannelOutput() throws Exception
+	{
+		List<TestClass> list = new ArrayList<>();
+		for (int i = 0; i < 20000; i++)
+		{
+			TestClass item = new TestClass();
+			item.id = i;
+			item.name = i % 2 == 0 ? "žluťoučký kůň \uD83D\uDE00" : "plain";
+			list.add(item);
+		}
+		Jackie jackie = new Jackie().withPrettyPrint();
+		byte[] expected = jackie.toJsonBytes(list);
+
+		Path file = Files.createTempFile("jackie", ".json");
+		try
+		{
+			jackie.toJson(list, file);
+			Assertions.assertArrayEquals(expected, Files.readAllBytes(file));
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		WritableByteChannel channel = Channels.newChannel(os);
+		jackie.toJson(list, channel);
+		Assertions.assertTrue(channel.isOpen());
+		Assertions.assertArrayEquals(expected, os.toByteArray());
+	}
+
+	public static class PrimitiveClass
+	{
+		protected boolean bo = true;
+		protected char c = '"';
+		protected short s = 300;
+		protected int i = Integer.MIN_VALUE;
+		protected long l = Long.MAX_VALUE;
+		protected float f = 0.1f;
+		protected double d = 1e-7;
+		protected char[] chars = { 'a', '\n', '\u00e9' };
+		protected boolean[] booleans = { true, false };
+		protected short[] shorts = { -5, 5 };
+		protected long[] longs = { Long.MIN_VALUE };
+		protected float[] floats = { 1.5f };
+		protected double[] doubles = { 0.3, -2 };
+	}
+
+	@Test
+	public void testPrimitives()
+	{
+		String expected = "{\"bo\":true,\"c\":\"\\\"\",\"s\":300,\"i\":-2147483648,\"l\":9223372036854775807,\"f\":0.1,\"d\":1.0E-7,"
+				+ "\"chars\":[\"a\",\"\\n\",\"\\u00e9\"],\"booleans\":[true,false],\"shorts\":[-5,5],\"longs\":[-9223372036854775808],\"floats\":[1.5],\"doubles\":[0.3,-2.0]}";
+		String json = new Jackie().withEscapeUnicode().toJson(new PrimitiveClass());
+		Assertions.assertEquals(expected, json);
+
+		double[] doubles = new PrimitiveClass().doubles;
+		Assertions.assertArrayEquals(doubles, new Jackie().fromJson(new Jackie().toJson(doubles), double[].class));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testAccessors() throws Exception
+	{
+		PrimitiveClass obj = new PrimitiveClass();
+		for (Property property : ClassDescriptor.of(PrimitiveClass.class).getProperties())
+		{
+			Accessor accessor = property.getAccessor();
+			Assertions.assertTrue(accessor instanceof HandleAccessor);
+			Assertions.assertFalse(property.getField().isAccessible());
+			Assertions.assertEquals(new FieldAccessor(property.getField()).get(obj), accessor.get(obj));
+		}
+
+		Property i = ClassDescriptor.of(PrimitiveClass.class).getProperty("i");
+		Property s = ClassDescriptor.of(PrimitiveClass.class).getProperty("s");
+		Property d = ClassDescriptor.of(PrimitiveClass.class).getProperty("d");
+		i.getAccessor().setInt(obj, 42);
+		s.getAccessor().set(obj, (short) 7);
+		new FieldAccessor(d.getField()).setDouble(obj, 2.5);
+		Assertions.assertEquals(42, obj.i);
+		Assertions.assertEquals(7, s.getAccessor().getInt(obj));
+		Assertions.assertEquals(2.5, d.getAccessor().getDouble(obj));
+
+		Property hidden = ClassDescriptor.of(CodecClass.class).getProperty("hidden");
+		Assertions.assertTrue(hidden.getAccessor() instanceof HandleAccessor);
+		Assertions.assertFalse(hidden.getField().isAccessible());
+		Assertions.assertEquals(7, hidden.getAccessor().getInt(new CodecClass()));
+
+		PrimitiveClass parsed = new Jackie().fromJson("{\"i\":5,\"l\":-6,\"f\":1.5,\"d\":null,\"bo\":false,\"s\":3}", PrimitiveClass.class);
+		Assertions.assertEquals(5, parsed.i);
+		Assertions.assertEquals(-6, parsed.l);
+		Assertions.assertEquals(1.5f, parsed.f);
+		Assertions.assertEquals(1e-7, parsed.d);
+		Assertions.assertFalse(parsed.bo);
+		Assertions.assertEquals(3, parsed.s);
+	}
+
+	public static class IterableClass
+	{
+		protected Iterable<Integer> range = () -> IntStream.range(0, 3).iterator();
+	}
+
+	@Test
+	public void testStreamingOutput()
+	{
+		final int count = 100000;
+		final int[] flushed = new int[2];
+		ByteArrayOutputStream os = new ByteArrayOutputStream()
+		{
+			@Override
+			public void flush()
+			{
+				flushed[0]++;
+			}
+		};
+		Iterator<TestClass> iterator = new Iterator<TestClass>()
+		{
+			private int i = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return i < count;
+			}
+
+			@Override
+			public TestClass next()
+			{
+				if (i == count / 2)
+				{
+					flushed[1] = os.size();
+				}
+				TestClass item = new TestClass();
+				item.id = i++;
+				return item;
+			}
+		};
+
+		Jackie jackie = new Jackie();
+		jackie.toJson(iterator, os);
+		Assertions.assertTrue(flushed[0] > 1);
+		Assertions.assertTrue(flushed[1] > 0);
+		List<TestClass> result = jackie.fromJsonList(new ByteArrayInputStream(os.toByteArray()), TestClass.class);
+		Assertions.assertEquals(count, result.size());
+		Assertions.assertEquals(count - 1, result.get(count - 1).id);
+
+		os.reset();
+		jackie.toJson(Stream.of("a", "b").map(String::toUpperCase), os);
+		Assertions.assertEquals("[\"A\",\"B\"]", new String(os.toByteArray(), StandardCharsets.UTF_8));
+		Assertions.assertEquals("{\"range\":[0,1,2]}", jackie.toJson(new IterableClass()));
+	}
+
+	public static class Bag implements Iterable<String>
+	{
+		protected int size = 2;
+
+		@Override
+		public Iterator<String> iterator()
+		{
+			return Arrays.asList("a", "b").iterator();
+		}
+	}
+
+	public static class Cursor implements Iterator<String>
+	{
+		protected int position;
+
+		@Override
+		public boolean hasNext()
+		{
+			return position < 2;
+		}
+
+		@Override
+		public String next()
+		{
+			return String.valueOf(position++);
+		}
+	}
+
+	public static class BagHolder
+	{
+		protected Bag bag = new Bag();
+		protected Iterable<String> items = new Bag();
+		protected Iterator<String> cursor = new Cursor();
+		protected Stream<Integer> stream = Stream.of(1, 2);
+	}
+
+	@Test
+	public void testIterablePojo()
+	{
+		Jackie jackie = new Jackie();
+		Assertions.assertEquals("{\"size\":2}", jackie.toJson(new Bag()));
+		Assertions.assertEquals("[{\"size\":2}]", jackie.toJson(Arrays.asList(new Bag())));
+
+		Cursor cursor = new Cursor();
+		Assertions.assertEquals("{\"position\":0}", jackie.toJson(cursor));
+		Assertions.assertTrue(cursor.hasNext());
+
+		Assertions.assertEquals("{\"bag\":{\"size\":2},\"items\":[\"a\",\"b\"],\"cursor\":[\"0\",\"1\"],\"stream\":[1,2]}", jackie.toJson(new BagHolder()));
+	}
+
+	@Test
+	public void testPrettyLayout()
+	{
+		Map<String, Object> root = new LinkedHashMap<>();
+		Map<String, Object> current = root;
+		StringBuilder expected = new StringBuilder("{");
+		StringBuilder closing = new StringBuilder();
+		StringBuilder indent = new StringBuilder();
+		for (int depth = 1; depth <= 20; depth++)
+		{
+			Map<String, Object> child = new LinkedHashMap<>();
+			current.put("level" + depth, child);
+			current = child;
+			indent.append("  ");
+			expected.append("\n").append(indent).append("\"level").append(depth).append("\" : {");
+			closing.insert(0, "\n" + indent + "}");
+		}
+		expected.append(" }").append(closing.substring(closing.indexOf("}") + 1)).append("\n}");
+
+		Jackie jackie = new Jackie().withPrettyPrint().withTabIndent("\t");
+		jackie.toJson(root);
+		Assertions.assertEquals(expected.toString(), jackie.withTabIndent("  ").toJson(root));
+		Assertions.assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), jackie.toJsonBytes(root));
+	}
+
+	public static class DescriptorClass extends PrefixClass
+	{
+		protected String text = "d";
+		protected Map<String, Integer> groups;
+	}
+
+	@Test
+	public void testClassDescriptor() throws Exception
+	{
+		ClassDescriptor descriptor = ClassDescriptor.of(DescriptorClass.class);
+		Assertions.assertSame(descriptor, ClassDescriptor.of(DescriptorClass.class));
+		Assertions.assertEquals(3, descriptor.getProperties().length);
+		Assertions.assertEquals(Integer.class, descriptor.getProperty("groups").getSubClazz2());
+		Assertions.assertEquals(int.class, descriptor.getProperty("čís\"lo").getType());
+
+		String json = "{\"text\":\"x\",\"groups\":{\"a\":1},\"čís\\\"lo\":5}";
+		DescriptorClass obj = new Jackie().fromJson(json, DescriptorClass.class);
+		Assertions.assertEquals("x", obj.text);
+		Assertions.assertEquals(5, obj.number);
+		Assertions.assertEquals(Integer.valueOf(1), obj.groups.get("a"));
+		Assertions.assertEquals(json, new Jackie().toJson(obj));
+	}
+
+	public static class Money
+	{
+		protected long cents;
+	}
+
+	public static class MoneyAdapter implements Adapter<Money>
+	{
+		@Override
+		public Money deserialize(String text)
+		{
+			Money money = new Money();
+			money.cents = new BigDecimal(text).movePointRight(2).longValueExact();
+			return money;
+		}
+
+		@Override
+		public String serialize(Money value)
+		{
+			return BigDecimal.valueOf(value.cents, 2).toPlainString();
+		}
+	}
+
+	public static class WalletClass
+	{
+		protected Money total;
+		protected List<Money> items;
+		protected Map<String, Money> byName;
+		protected int count;
+	}
+
+	@Test
+	public void testAdapterRegistry()
+	{
+		Property gzipData = ClassDescriptor.of(TestClass.class).getProperty("gzipData");
+		Assertions.assertSame(gzipData.getAdapter(), gzipData.getAdapter());
+
+		String json = "{\"total\":\"12.50\",\"items\":[\"10.00\",null],\"byName\":{\"a\":\"2.50\"},\"count\":\"2\"}";
+		Jackie jackie = new Jackie().withAdapter(Money.class, new MoneyAdapter()).withAdapter(Integer.class, new Adapter<Integer>()
+		{
+			@Override
+			public Integer deserialize(String text)
+			{
+				return Integer.valueOf(text);
+			}
+
+			@Override
+			public String serialize(Integer value)
+			{
+				return value.toString();
+			}
+		});
+		WalletClass wallet = jackie.fromJson(json, WalletClass.class);
+		Assertions.assertEquals(1250, wallet.total.cents);
+		Assertions.assertEquals(1000, wallet.items.get(0).cents);
+		Assertions.assertNull(wallet.items.get(1));
+		Assertions.assertEquals(250, wallet.byName.get("a").cents);
+		Assertions.assertEquals(2, wallet.count);
+		Assertions.assertEquals(json, jackie.toJson(wallet));
+		Assertions.assertEquals("[\"1\",\"2\"]", jackie.toJson(new int[]
+		{ 1, 2 }));
+		Assertions.assertEquals("{\"total\":{\"cents\":1250},\"count\":2}", new Jackie().toJson(jackie.fromJson("{\"total\":\"12.50\",\"count\":2}", WalletClass.class)));
+
+		Jackie money = new Jackie().withAdapter(Money.class, new MoneyAdapter());
+		String moneyJson = "{\"total\":\"12.50\",\"count\":3}";
+		Assertions.assertEquals(moneyJson, money.toJson(money.fromJson(moneyJson, WalletClass.class)));
+		Assertions.assertEquals(new Jackie().toJson(new PrimitiveClass()), money.toJson(new PrimitiveClass()));
+	}
+
+	public static class CodecClass extends PrimitiveClass
+	{
+		private int hidden = 7;
+		private String text = "codec";
+		protected Integer boxed;
+		protected List<TestClass> children;
+	}
+
+	@Test
+	public void testGeneratedCodec()
+	{
+		Jackie jackie = new Jackie().withGeneratedCodecs();
+		CodecClass obj = new CodecClass();
+		obj.hidden = 8;
+		obj.children = Arrays.asList(new TestClass());
+		obj.children.get(0).id = 3;
+		String json = new Jackie().toJson(obj);
+		Assertions.assertEquals(json, jackie.toJson(obj));
+		Assertions.assertNotNull(ClassDescriptor.of(CodecClass.class).getCodec(new Jackie().withGeneratedCodecs().getConfig()));
+
+		CodecClass parsed = jackie.fromJson("{\"hidden\":9,\"text\":null,\"boxed\":4,\"i\":5,\"l\":-6,\"f\":1.5,\"d\":null,\"s\":3,\"children\":[{\"id\":2}]}", CodecClass.class);
+		Assertions.assertEquals(9, parsed.hidden);
+		Assertions.assertNull(parsed.text);
+		Assertions.assertEquals(4, parsed.boxed);
+		Assertions.assertEquals(5, parsed.i);
+		Assertions.assertEquals(-6, parsed.l);
+		Assertions.assertEquals(1.5f, parsed.f);
+		Assertions.assertEquals(1e-7, parsed.d);
+		Assertions.assertEquals(3, parsed.s);
+		Assertions.assertEquals(2, parsed.children.get(0).id);
+
+		String wallet = "{\"total\":\"12.50\",\"count\":2}";
+		Jackie adapted = new Jackie().withGeneratedCodecs().withAdapter(Money.class, new MoneyAdapter());
+		Assertions.assertEquals(wallet, adapted.toJson(adapted.fromJson(wallet, WalletClass.class)));
+	}
+
+	@JackieSerializable
+	public static class ServiceClass
+	{
+		protected int id;
+		@JackieProperty("full_name")
+		protected String name;
+		@JackieAdapter(MoneyAdapter.class)
+		protected Money price;
+		private boolean active = true;
+	}
+
+	public static class ServiceClassCodec extends GeneratedCodec
+	{
+		public ServiceClassCodec()
+		{
+			super(ServiceClass.class, 4);
+			declare(0, "id", int.class, null, null, null);
+			declare(1, "full_name", String.class, null, null, null);
+			declare(2, "price", Money.class, null, null, new MoneyAdapter());
+			declare(3, "active");
+		}
+
+		@Override
+		protected Object newInstance()
+		{
+			return new ServiceClass();
+		}
+
+		@Override
+		protected int writeFields(Object object, Output out, Config config, int indent) throws Exception
+		{
+			ServiceClass value = (ServiceClass) object;
+			int count = 0;
+			count = writeInt(out, config, indent, count, 0, value.id);
+			count = writeValue(out, config, indent, count, 1, value.name);
+			count = writeValue(out, config, indent, count, 2, value.price);
+			count = writeProperty(out, config, indent, count, 3, object);
+			return count;
+		}
+
+		@Override
+		protected void readField(Object object, int index, Tokenizer tokenizer, Config config) throws Exception
+		{
+			ServiceClass value = (ServiceClass) object;
+			switch (index)
+			{
+				case 0:
+					value.id = readInt(tokenizer, config, 0, value.id);
+					break;
+				case 1:
+					value.name = (String) readValue(tokenizer, config, 1);
+					break;
+				case 2:
+					value.price = (Money) readValue(tokenizer, config, 2);
+					break;
+				default:
+					readProperty(object, index, tokenizer, config);
+					break;
+			}
+		}
+	}
+
+	public static class BrokenCodec extends GeneratedCodec
+	{
+		public BrokenCodec()
+		{
+			super(ServiceClass.class, 0);
+			throw new IllegalStateException("Broken codec.");
+		}
+
+		@Override
+		protected int writeFields(Object object, Output out, Config config, int indent) throws Exception
+		{
+			return 0;
+		}
+
+		@Override
+		protected void readField(Object object, int index, Tokenizer tokenizer, Config config) throws Exception
+		{
+		}
+	}
+
+	public static class StaleClass
+	{
+		protected int id = 1;
+		protected String renamed = "stale";
+	}
+
+	public static class StaleClassCodec extends GeneratedCodec
+	{
+		public StaleClassCodec()
+		{
+			super(StaleClass.class, "id", "name");
+		}
+
+		@Override
+		protected int writeFields(Object object, Output out, Config config, int indent) throws Exception
+		{
+			return 0;
+		}
+
+		@Override
+		protected void readField(Object object, int index, Tokenizer tokenizer, Config config) throws Exception
+		{
+		}
+	}
+
+	@Test
+	public void testStaleCodec() throws Exception
+	{
+		Jackie jackie = new Jackie();
+		Throwable e = Assertions.assertThrows(RuntimeException.class, () -> jackie.toJson(new StaleClass())).getCause();
+		Assertions.assertTrue(e instanceof IllegalStateException);
+		Assertions.assertEquals("Codec of " + StaleClass.class.getName() + " does not match its class.", e.getMessage());
+		Assertions.assertEquals("Field name is not property of " + StaleClass.class.getName() + ".", e.getCause().getMessage());
+		e = Assertions.assertThrows(RuntimeException.class, () -> jackie.fromJson("{\"id\":2}", StaleClass.class)).getCause();
+		Assertions.assertTrue(e instanceof IllegalStateException);
+		Assertions.assertTrue(ClassDescriptor.of(ServiceClass.class).getCodec(new Config()) instanceof ServiceClassCodec);
+	}
+
+	@Test
+	public void testProvidedCodec() throws Exception
+	{
+		Thread thread = Thread.currentThread();
+		ClassLoader contextLoader = thread.getContextClassLoader();
+		try (URLClassLoader emptyLoader = new URLClassLoader(new URL[0], null))
+		{
+			thread.setContextClassLoader(emptyLoader);
+			Assertions.assertTrue(ClassDescriptor.of(ServiceClass.class).getCodec(new Config()) instanceof ServiceClassCodec);
+		}
+		finally
+		{
+			thread.setContextClassLoader(contextLoader);
+		}
+		Assertions.assertNull(ClassDescriptor.of(TestClass.class).getCodec(new Config()));
+
+		String json = "{\"id\":5,\"full_name\":\"service\",\"price\":\"1.25\",\"active\":false}";
+		ServiceClass obj = new Jackie().fromJson(json, ServiceClass.class);
+		Assertions.assertEquals(5, obj.id);
+		Assertions.assertEquals("service", obj.name);
+		Assertions.assertEquals(125, obj.price.cents);
+		Assertions.assertFalse(obj.active);
+		Assertions.assertEquals(json, new Jackie().toJson(obj));
+	}
+
+	public interface Identifier
+	{
+		String getValue();
+	}
+
+	public static class UserId implements Identifier
+	{
+		protected String value;
+
+		@Override
+		public String getValue()
+		{
+			return value;
+		}
+	}
+
+	public static class IdentifierAdapter implements Adapter<Identifier>
+	{
+		@Override
+		public Identifier deserialize(String text)
+		{
+			UserId id = new UserId();
+			id.value = text.substring(3);
+			return id;
+		}
+
+		@Override
+		public String serialize(Identifier value)
+		{
+			return "id-" + value.getValue();
+		}
+	}
+
+	public static class OwnedClass
+	{
+		protected Identifier owner;
+		protected UserId user;
+		protected List<Identifier> members;
+	}
+
+	@Test
+	public void testInterfaceAdapter()
+	{
+		String json = "{\"owner\":\"id-a\",\"user\":\"id-b\",\"members\":[\"id-c\"]}";
+		Jackie jackie = new Jackie().withAdapter(Identifier.class, new IdentifierAdapter());
+		OwnedClass owned = jackie.fromJson(json, OwnedClass.class);
+		Assertions.assertEquals("a", owned.owner.getValue());
+		Assertions.assertEquals("b", owned.user.value);
+		Assertions.assertEquals("c", owned.members.get(0).getValue());
+		Assertions.assertEquals(json, jackie.toJson(owned));
+
+		Jackie upper = new Jackie().withAdapter(CharSequence.class, new Adapter<CharSequence>()
+		{
+			@Override
+			public CharSequence deserialize(String text)
+			{
+				return text;
+			}
+
+			@Override
+			public String serialize(CharSequence value)
+			{
+				return value.toString().toUpperCase();
+			}
+		});
+		Assertions.assertEquals("[\"AB\",\"CD\"]", upper.toJson(Arrays.asList("ab", new StringBuilder("cd"))));
+	}
+
+	@Test
+	public void testSerializeNullItems()
+	{
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("list", Arrays.asList("a", null));
+		map.put("empty", null);
+
+		Assertions.assertEquals("{\"list\":[\"a\",null],\"empty\":null}", new Jackie().toJson(map));
+	}
+
+	@Test
+	public void testUtf8Output()
+	{
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++)
+		{
+			sb.append("žluťoučký kůň 😀 ");
+		}
+		List<String> list = Arrays.asList(sb.toString(), "ascii", "\uD83D");
+		Jackie jackie = new Jackie();
+		byte[] expected = jackie.toJson(list).replace("\uD83D\"]", "?\"]").getBytes(StandardCharsets.UTF_8);
+
+		Assertions.assertArrayEquals(expected, jackie.toJsonBytes(list));
+
+		final boolean[] closed = new boolean[1];
+		ByteArrayOutputStream os = new ByteArrayOutputStream()
+		{
+			@Override
+			public void close()
+			{
+				closed[0] = true;
+			}
+		};
+		jackie.toJson(list, os);
+		Assertions.assertArrayEquals(expected, os.toByteArray());
+		Assertions.assertFalse(closed[0]);
+
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+		buffer.position(3);
+		jackie.toJson(list, buffer);
+		Assertions.assertEquals(expected.length + 3, buffer.position());
+		String[] result = jackie.fromJson(buffer.array(), 3, expected.length, String[].class);
+		Assertions.assertArrayEquals(new String[] { list.get(0), "ascii", "?" }, result);
+
+		ByteBuffer small = ByteBuffer.allocate(12000);
+		small.position(5);
+		List<String> large = Collections.singletonList(new String(new char[15000]).replace('\0', 'x'));
+		Assertions.assertThrows(BufferOverflowException.class, () -> jackie.toJson(large, small));
+		Assertions.assertEquals(5, small.position());
+	}
+
+	@Test
+	public void testUtf8Input()
+	{
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 3000; i++)
+		{
+			sb.append(i > 0 ? "," : "").append("\"žluťoučký kůň \uD83D\uDE00\"");
+		}
+		sb.append("]");
+		byte[] data = ("xx" + sb + "yy").getBytes(StandardCharsets.UTF_8);
+
+		String[] arr = new Jackie().fromJson(data, 2, data.length - 4, String[].class);
+		Assertions.assertEquals(3000, arr.length);
+		Assertions.assertEquals("žluťoučký kůň \uD83D\uDE00", arr[2999]);
+
+		List<String> lst = new Jackie().fromJsonList(new ByteArrayInputStream(data, 2, data.length - 4), String.class);
+		Assertions.assertEquals(3000, lst.size());
+		Assertions.assertEquals("žluťoučký kůň \uD83D\uDE00", lst.get(1234));
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+		direct.put(data).position(2).limit(data.length - 2);
+		String[] arr2 = new Jackie().fromJson(direct, String[].class);
+		Assertions.assertEquals(3000, arr2.length);
+		Assertions.assertEquals("žluťoučký kůň \uD83D\uDE00", arr2[2999]);
+		Assertions.assertEquals(2, direct.position());
+	}
+
+	@Test
+	public void testReader()
+	{
+		final String json = "{\"skip\": {\"a\": [1, 2, {\"b\": \"]\"}]}, \"items\": [{\"id\": 1, \"price\": 10.5, \"name\": \"first\\nline\"}, {\"id\": 2, \"price\": -3, \"name\": null, \"ok\": true}], \"child\": {\"id\": 42}}";
+
+		try (JackieReader reader = new Jackie().reader(new ByteArrayInputStream(json.getBytes())))
+		{
+			Assertions.assertEquals(JackieReader.Token.START_OBJECT, reader.next());
+			Assertions.assertEquals(JackieReader.Token.FIELD_NAME, reader.next());
+			Assertions.assertEquals("skip", reader.getName());
+			reader.skipValue();
+
+			Assertions.assertEquals(JackieReader.Token.FIELD_NAME, reader.next());
+			Assertions.assertEquals("items", reader.getName());
+			Assertions.assertEquals(JackieReader.Token.START_ARRAY, reader.next());
+
+			double total = 0;
+			List<String> names = new ArrayList<>();
+			while (reader.next() == JackieReader.Token.START_OBJECT)
+			{
+				while (reader.next() == JackieReader.Token.FIELD_NAME)
+				{
+					if (reader.textEquals("price"))
+					{
+						Assertions.assertEquals(JackieReader.Token.NUMBER, reader.next());
+						total += reader.getDouble();
+					}
+					else if (reader.textEquals("name"))
+					{
+						reader.next();
+						names.add(reader.getString());
+					}
+					else
+					{
+						reader.skipValue();
+					}
+				}
+			}
+			Assertions.assertEquals(JackieReader.Token.END_ARRAY, reader.getCurrentToken());
+			Assertions.assertEquals(7.5, total);
+			Assertions.assertEquals("first\nline", names.get(0));
+			Assertions.assertNull(names.get(1));
+
+			Assertions.assertEquals(JackieReader.Token.FIELD_NAME, reader.next());
+			Assertions.assertEquals(42l, reader.readValue(TestClass.class).id);
+			Assertions.assertEquals(JackieReader.Token.END_OBJECT, reader.next());
+			Assertions.assertEquals(0, reader.getDepth());
+			Assertions.assertEquals(JackieReader.Token.END_DOCUMENT, reader.next());
+		}
+	}
+
+	@Test
+	public void testLazyElement()
+	{
+		final String json = "{\"id\":10,\"name\":\"lazy\",\"child\":{\"price\":1.5,\"tags\":[\"a\",\"b\"]},\"empty\":null}";
+		JackieElement e = JackieBuilder.fromString(json);
+
+		Assertions.assertEquals(4, e.size());
+		Assertions.assertEquals(BigInteger.valueOf(10), e.get("id"));
+		JackieElement child = (JackieElement) e.get("child");
+		Assertions.assertEquals(new BigDecimal("1.5"), child.get("price"));
+		Assertions.assertEquals(2, ((List<?>) child.get("tags")).size());
+		Assertions.assertNull(e.get("empty"));
+		Assertions.assertTrue(e.containsValue("lazy"));
+		e.remove("empty");
+		Assertions.assertEquals("{\"id\":10,\"name\":\"lazy\",\"child\":{\"price\":1.5,\"tags\":[\"a\",\"b\"]}}", new Jackie().toJson(e));
+	}
+
+	public static class FeedClass
+	{
+		protected int[] values;
+		protected Map<Integer, TestClass> byId;
+		protected Object any;
+		protected List<String> tags;
+		protected int count = 3;
+	}
+
+	@Test
+	public void testFeeder()
+	{
+		final String json = "{\"id\": 1, \"name\": \"první\\t\\u0041\", \"children\": [{\"id\": 2}]}\n{\"id\": 3, \"mapChildren\": {\"x\": {\"id\": 4}}}\n";
+		byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+		List<TestClass> result = new ArrayList<>();
+		JackieFeeder feeder = new Jackie().feeder(TestClass.class, result::add);
+		for (int i = 0; i < data.length; i += 3)
+		{
+			feeder.feed(ByteBuffer.wrap(data, i, Math.min(3, data.length - i)));
+			if (i == 3)
+			{
+				Assertions.assertTrue(result.isEmpty());
+			}
+		}
+		feeder.end();
+
+		Assertions.assertEquals(2, result.size());
+		Assertions.assertEquals("první\tA", result.get(0).name);
+		Assertions.assertEquals(2l, result.get(0).children.get(0).id);
+		Assertions.assertEquals(4l, result.get(1).mapChildren.get("x").id);
+
+		List<FeedClass> feeds = new ArrayList<>();
+		JackieFeeder bound = new Jackie().feeder(FeedClass.class, feeds::add);
+		byte[] feed = ("{\"values\":[1,2],\"unknown\":{\"a\":[{\"b\":1}]},\"byId\":{\"5\":{\"id\":5,\"name\":null,\"children\":[]}},"
+				+ "\"any\":{\"x\":[1,\"y\"]},\"tags\":[\"a\",null],\"count\":null} {\"count\":7}").getBytes(StandardCharsets.UTF_8);
+		for (byte b : feed)
+		{
+			bound.feed(new byte[] { b }, 0, 1);
+		}
+		bound.end();
+		Assertions.assertEquals(2, feeds.size());
+		Assertions.assertArrayEquals(new int[] { 1, 2 }, feeds.get(0).values);
+		Assertions.assertEquals(5l, feeds.get(0).byId.get(5).id);
+		Assertions.assertNull(feeds.get(0).byId.get(5).name);
+		Assertions.assertTrue(feeds.get(0).byId.get(5).children.isEmpty());
+		Assertions.assertEquals("{x=[1, y]}", feeds.get(0).any.toString());
+		Assertions.assertEquals(Arrays.asList("a", null), feeds.get(0).tags);
+		Assertions.assertEquals(3, feeds.get(0).count);
+		Assertions.assertEquals(7, feeds.get(1).count);
+
+		List<String> tokens = new ArrayList<>();
+		JackieFeeder tokenFeeder = new Jackie().feeder((token, f) -> tokens.add(token + (token == JackieReader.Token.FIELD_NAME || token == JackieReader.Token.NUMBER ? ":" + f.getText() : "")));
+		for (byte b : "[{\"a\":12},null]".getBytes())
+		{
+			tokenFeeder.feed(new byte[] { b }, 0, 1);
+		}
+		tokenFeeder.end();
+		Assertions.assertEquals("[START_ARRAY, START_OBJECT, FIELD_NAME:a, NUMBER:12, END_OBJECT, NULL, END_ARRAY]", tokens.toString());
+	}
+}